@@ -0,0 +1,139 @@
+package asteroids.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import asteroids.facade.Facade;
+import asteroids.model.Program;
+import asteroids.model.Ship;
+import asteroids.model.programs.ExecutionBackend;
+import asteroids.model.programs.ProgramFactory;
+import asteroids.part3.programs.internal.ProgramParser;
+import asteroids.util.ModelException;
+import asteroids.util.internal.ResourceUtils;
+
+/**
+ * Benchmarks of the ship program interpreter and of the compiled backend. Each program is parsed
+ * through ProgramParser and ProgramFactory, loaded on a ship in a World of 1000 entities, and
+ * executed for one second of game time per operation.
+ *
+ * The shipped programs program_simple.txt and syntax_test.txt contain deliberate type errors
+ * and are not executed. The path of custom-programs/shipAI1.txt is
+ * relative to the working directory, which should be the OGP1617-Asteroids folder.
+ *
+ * Run with the JMH annotation processor on the class path, e.g.
+ * 	java -cp <classes>:<jmh jars> org.openjdk.jmh.Main asteroids.benchmarks.ProgramBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProgramBenchmark{
+
+	/**
+	 * A loop of assignments and comparisons, without actions.
+	 */
+	public static final String TIGHT_LOOP = "x := 0.0; while (x < 1000.0) { x := x + 1.0; } print x;";
+
+	/**
+	 * A doubly recursive function.
+	 */
+	public static final String RECURSION = "def fib { if ($1 < 2.0) { return $1; } "
+			+ "return fib($1 + -1.0) + fib($1 + -2.0); } print fib(15.0);";
+
+	/**
+	 * A loop querying the nearest entities of each kind and their properties.
+	 */
+	public static final String ENTITY_QUERIES = "i := 0.0; while (i < 100.0) { a := asteroid; p := planetoid; s := ship; "
+			+ "if (!(a == null)) { d := (getx a) + (-(getx self)); } if (!(p == null)) { r := getradius p; } "
+			+ "e := any; i := i + 1.0; } print i;";
+
+	/**
+	 * A loop printing each value it computes.
+	 */
+	public static final String PRINT_HEAVY = "i := 0.0; while (i < 200.0) { print i; print i * i; i := i + 1.0; }";
+
+	/**
+	 * Nested loops calling a function in their bodies, so many loops are entered before each call.
+	 */
+	public static final String NESTED_LOOPS = "def inc { return $1 + 1.0; } i := 0.0; while (i < 10.0) { j := 0.0; "
+			+ "while (j < 10.0) { k := 0.0; while (k < 10.0) { k := inc(k); } j := inc(j); } i := inc(i); } print i;";
+
+	@Param({"tight_loop", "recursion", "entity_queries", "print_heavy", "nested_loops", "program.txt", "program_assignment.txt", "shipAI1.txt"})
+	public String program;
+
+	@Param({"INTERPRETER", "COMPILED"})
+	public ExecutionBackend backend;
+
+	private Facade facade;
+	private Ship ship;
+
+	@Setup(Level.Trial)
+	public void setUp() throws ModelException, IOException{
+		WorldFixture fixture = new WorldFixture(1000, WorldFixture.Density.SPARSE, WorldFixture.Mix.MIXED, 42L);
+		facade = fixture.getFacade();
+		double[] cell = fixture.getFreeCells().get(0);
+		ship = facade.createShip(cell[0], cell[1], 0, 0, 12, 0, 1.0E20);
+		facade.addShipToWorld(fixture.getWorld(), ship);
+		Program parsed = parse(program);
+		parsed.setBackend(backend);
+		facade.loadProgramOnShip(ship, parsed);
+	}
+
+	/**
+	 * Return the program with the given name, parsed through ProgramParser and ProgramFactory.
+	 */
+	static Program parse(String name) throws IOException{
+		ProgramFactory factory = new ProgramFactory();
+		Program result;
+		switch(name){
+		case "tight_loop":
+			result = ProgramParser.parseProgramFromString(TIGHT_LOOP, factory);
+			break;
+		case "recursion":
+			result = ProgramParser.parseProgramFromString(RECURSION, factory);
+			break;
+		case "entity_queries":
+			result = ProgramParser.parseProgramFromString(ENTITY_QUERIES, factory);
+			break;
+		case "print_heavy":
+			result = ProgramParser.parseProgramFromString(PRINT_HEAVY, factory);
+			break;
+		case "nested_loops":
+			result = ProgramParser.parseProgramFromString(NESTED_LOOPS, factory);
+			break;
+		case "shipAI1.txt":
+			result = ProgramParser.parseTasksFromFile("custom-programs/shipAI1.txt", factory);
+			break;
+		default:
+			result = ProgramParser.parseTasksFromURL(ResourceUtils.toURL("asteroids/resources/programs/" + name), factory);
+		}
+		if(result == null)
+			throw new IllegalArgumentException("Cannot parse program " + name);
+		return result;
+	}
+
+	/**
+	 * Execute the program of the ship for one second of game time.
+	 */
+	@Benchmark
+	public List<Object> execute() throws ModelException{
+		return facade.executeProgram(ship, 1.0);
+	}
+}
@@ -0,0 +1,106 @@
+package asteroids.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import asteroids.model.Asteroid;
+import asteroids.model.CollisionData;
+import asteroids.model.Entity;
+import asteroids.util.ModelException;
+
+/**
+ * Benchmarks of the physics core of World, on worlds of 100 up to 50 000 entities
+ * built through the public Facade.
+ *
+ * Run with the JMH annotation processor on the class path, e.g.
+ * 	java -cp <classes>:<jmh jars> org.openjdk.jmh.Main asteroids.benchmarks.WorldBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldBenchmark{
+
+	@Param({"100", "1000", "10000", "50000"})
+	public int nbEntities;
+
+	@Param({"SPARSE", "DENSE"})
+	public WorldFixture.Density density;
+
+	@Param({"ASTEROIDS", "MIXED"})
+	public WorldFixture.Mix mix;
+
+	private WorldFixture fixture;
+	private Asteroid[] probes;
+	private int nextProbe;
+
+	/**
+	 * Build the World before each iteration, so each iteration of evolve starts from the same World
+	 * instead of the World the previous iteration evolved.
+	 */
+	@Setup(Level.Iteration)
+	public void setUp() throws ModelException{
+		fixture = new WorldFixture(nbEntities, density, mix, 42L);
+		List<double[]> freeCells = fixture.getFreeCells();
+		probes = new Asteroid[freeCells.size()];
+		for(int i = 0; i < probes.length; i++)
+			probes[i] = fixture.getFacade().createAsteroid(freeCells.get(i)[0], freeCells.get(i)[1], 0, 0, 5);
+	}
+
+	/**
+	 * Evolve the World for a tenth of a second, resolving each collision on the way.
+	 */
+	@Benchmark
+	public double evolve() throws ModelException{
+		fixture.getFacade().evolve(fixture.getWorld(), 0.1, null);
+		return fixture.getWorld().getSimulationTime();
+	}
+
+	/**
+	 * Search the next collision of the World, without evolving it.
+	 */
+	@Benchmark
+	public CollisionData getNextCollision(){
+		return fixture.getWorld().getNextCollision();
+	}
+
+	/**
+	 * Search the entities overlapping an entity placed in an empty cell of the World.
+	 */
+	@Benchmark
+	public List<Entity> overlapsWithAnyEntity(){
+		return fixture.getWorld().overlapsWithAnyEntity(nextProbe());
+	}
+
+	/**
+	 * Add an entity to an empty cell of the World, and remove it again.
+	 */
+	@Benchmark
+	public int addItem() throws ModelException{
+		Asteroid probe = nextProbe();
+		fixture.getFacade().addAsteroidToWorld(fixture.getWorld(), probe);
+		int nbItems = fixture.getWorld().getNbItems();
+		fixture.getFacade().removeAsteroidFromWorld(fixture.getWorld(), probe);
+		return nbItems;
+	}
+
+	private Asteroid nextProbe(){
+		nextProbe = (nextProbe + 1) % probes.length;
+		return probes[nextProbe];
+	}
+}
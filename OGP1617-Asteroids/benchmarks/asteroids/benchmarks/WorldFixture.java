@@ -0,0 +1,129 @@
+package asteroids.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import asteroids.facade.Facade;
+import asteroids.model.World;
+import asteroids.util.ModelException;
+
+/**
+ * A class of fixtures, building worlds for benchmarks through the public Facade.
+ * The entities are placed on a square lattice, at most one in each cell, so no two
+ * entities overlap. Some cells are left empty, to add or probe entities during a benchmark.
+ */
+public class WorldFixture{
+
+	/**
+	 * An enumeration of the densities of the entities in a benchmarked World.
+	 */
+	public enum Density{
+		SPARSE(120.0), DENSE(50.0);
+
+		private Density(double spacing){
+			this.spacing = spacing;
+		}
+
+		private final double spacing;
+	}
+
+	/**
+	 * An enumeration of the mixes of entities in a benchmarked World.
+	 */
+	public enum Mix{
+		ASTEROIDS, MIXED
+	}
+
+	/**
+	 * Initialize this new WorldFixture with a World holding the given number of entities
+	 * of the given mix, at the given density.
+	 *
+	 * @param nbEntities
+	 * 			The number of entities in the World.
+	 * @param density
+	 * 			The density of the entities.
+	 * @param mix
+	 * 			The mix of the entities.
+	 * @param seed
+	 * 			The seed of the positions, velocities and radii of the entities.
+	 */
+	public WorldFixture(int nbEntities, Density density, Mix mix, long seed) throws ModelException{
+		int side = (int) Math.ceil(Math.sqrt(nbEntities * (1.0 + 1.0 / FREE_CELL_PERIOD)));
+		this.spacing = density.spacing;
+		this.world = facade.createWorld(side * spacing, side * spacing);
+		Random random = new Random(seed);
+		int added = 0;
+		for(int cell = 0; cell < side * side; cell++){
+			double x = (cell % side + 0.5) * spacing, y = (cell / side + 0.5) * spacing;
+			if(cell % FREE_CELL_PERIOD == FREE_CELL_PERIOD - 1 || added == nbEntities){
+				freeCells.add(new double[]{x, y});
+				continue;
+			}
+			addEntity(x, y, random, mix == Mix.ASTEROIDS ? 0 : random.nextInt(10));
+			added++;
+		}
+	}
+
+	/**
+	 * Add an entity of the given kind to the World of this fixture, at the center of a cell.
+	 * Kinds 0 to 5 are asteroids, 6 and 7 planetoids, 8 ships and 9 bullets.
+	 */
+	private void addEntity(double x, double y, Random random, int kind) throws ModelException{
+		double xVelocity = random.nextDouble() * 2 * MAX_SPEED - MAX_SPEED;
+		double yVelocity = random.nextDouble() * 2 * MAX_SPEED - MAX_SPEED;
+		double radius = 8.0 + random.nextDouble() * (spacing / 2 - 13.0);
+		if(kind <= 5)
+			facade.addAsteroidToWorld(world, facade.createAsteroid(x, y, xVelocity, yVelocity, radius));
+		else if(kind <= 7)
+			facade.addPlanetoidToWorld(world, facade.createPlanetoid(x, y, xVelocity, yVelocity, radius, 0));
+		else if(kind == 8)
+			facade.addShipToWorld(world, facade.createShip(x, y, xVelocity, yVelocity, 12, random.nextDouble() * 2 * Math.PI, 1.0E20));
+		else
+			facade.addBulletToWorld(world, facade.createBullet(x, y, xVelocity, yVelocity, 3));
+	}
+
+	/**
+	 * Return the Facade used by this fixture.
+	 */
+	public Facade getFacade(){
+		return this.facade;
+	}
+
+	/**
+	 * Return the World of this fixture.
+	 */
+	public World getWorld(){
+		return this.world;
+	}
+
+	/**
+	 * Return the spacing between the cells of the lattice of this fixture.
+	 */
+	public double getSpacing(){
+		return this.spacing;
+	}
+
+	/**
+	 * Return the centers of the cells left empty in the World of this fixture, as arrays
+	 * holding the x and y coordinate.
+	 */
+	public List<double[]> getFreeCells(){
+		return this.freeCells;
+	}
+
+	private final Facade facade = new Facade();
+	private final World world;
+	private final double spacing;
+	private final List<double[]> freeCells = new ArrayList<double[]>();
+
+	/**
+	 * The period of the cells left empty in the lattice.
+	 */
+	private static final int FREE_CELL_PERIOD = 16;
+
+	/**
+	 * The maximum speed of the entities along each axis.
+	 */
+	private static final double MAX_SPEED = 50.0;
+}
@@ -310,8 +310,8 @@ public class Facade implements IFacade{
 	@Override
 	public void loadBulletsOnShip(Ship ship, Collection<Bullet> bullets) throws ModelException{
 		try{
-			for(Bullet bullet : bullets)
-				ship.loadBullet(bullet);
+			if(!bullets.isEmpty())
+				ship.loadBullet(bullets.toArray(new Bullet[bullets.size()]));
 		}catch (NullPointerException ex){
 			throw new ModelException(ex);
 		}catch (IllegalArgumentException ex){
@@ -454,6 +454,30 @@ public class Facade implements IFacade{
 		}
 	}
 
+	/**
+	 * Add the given entities to the given world, all at once or not at all.
+	 * If they cannot all be added, none of them is added and their containers are left unchanged.
+	 */
+	public void addEntitiesToWorld(World world, Collection<? extends Entity> entities) throws ModelException{
+		if(world == null || entities == null)
+			throw new ModelException("Cannot add entities to the world");
+		int nbSet = 0;
+		try{
+			for(Entity entity : entities){
+				entity.setContainer(world);
+				nbSet++;
+			}
+			world.addItems(entities);
+		}catch (IllegalArgumentException | NullPointerException e){
+			for(Entity entity : entities){
+				if(nbSet-- == 0)
+					break;
+				entity.setContainer(null);
+			}
+			throw new ModelException(e);
+		}
+	}
+
 	@Override
 	public void removePlanetoidFromWorld(World world, Planetoid planetoid) throws ModelException{
 		try{
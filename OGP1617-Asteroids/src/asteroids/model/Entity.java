@@ -144,6 +144,18 @@ public abstract class Entity{
 	 */
 	@Raw
 	public void setPosition(double x, double y) throws IllegalArgumentException{
+		changePosition(x, y);
+		invalidatePredictions();
+	}
+	
+	/**
+	 * Set the position of this Entity to the given x and y, without invalidating
+	 * the predicted collisions of this Entity.
+	 * 
+	 * @see setPosition(double x, double y)
+	 */
+	@Raw @Model
+	private void changePosition(double x, double y) throws IllegalArgumentException{
 		if(!canHaveAsPosition(x, y))
 			throw new IllegalArgumentException();
 		Vector2d oldPos = getPosition();
@@ -196,8 +208,10 @@ public abstract class Entity{
 	 */
 	@Raw
 	public void setXVelocity(double xVelocity){
-		if(canHaveAsVelocity(xVelocity, getVelocity().getY()))
+		if(canHaveAsVelocity(xVelocity, getVelocity().getY())){
 			this.velocity = new Vector2d(xVelocity, getVelocity().getY());
+			invalidatePredictions();
+		}
 	}
 
 	/**
@@ -212,8 +226,10 @@ public abstract class Entity{
 	 */
 	@Raw
 	public void setYVelocity(double yVelocity){
-		if(canHaveAsVelocity(getVelocity().getX(), yVelocity))
+		if(canHaveAsVelocity(getVelocity().getX(), yVelocity)){
 			this.velocity = new Vector2d(getVelocity().getX(), yVelocity);
+			invalidatePredictions();
+		}
 	}
 
 	/**
@@ -230,8 +246,10 @@ public abstract class Entity{
 	 */
 	@Raw
 	public void setVelocity(double xVelocity, double yVelocity){
-		if(canHaveAsVelocity(xVelocity, yVelocity))
+		if(canHaveAsVelocity(xVelocity, yVelocity)){
 			this.velocity = new Vector2d(xVelocity, yVelocity);
+			invalidatePredictions();
+		}
 	}
 	
 	/**
@@ -372,15 +390,21 @@ public abstract class Entity{
 	 * 			| if(timeDelta >= 0.0)
 	 * 			| then new.getPosition().equals(new Vector2d(getPosition().getX() + timeDelta * getVelocity().getX(),
 	 * 			|											 getPosition().getY() + timeDelta * getVelocity().getY())
+	 * @effect If this Entity moves in a World, but not while the World evolves its entities, 
+	 * 			the collisions predicted for this Entity are invalidated.
+	 * 			| if(getContainer() instanceof World && !(World getContainer()).isEvolvingEntities())
+	 * 			| then invalidatePredictions()
 	 * @throws IllegalArgumentException
 	 * 			The timedelta cannot be less than zero
 	 * 			| timeDelta < 0.0
 	 */
 	public void move(double timeDelta) throws IllegalArgumentException{
 		if(timeDelta >= 0.0)
-			setPosition(getPosition().getX() + timeDelta * getVelocity().getX(), getPosition().getY() + timeDelta * getVelocity().getY());			
+			changePosition(getPosition().getX() + timeDelta * getVelocity().getX(), getPosition().getY() + timeDelta * getVelocity().getY());			
 		else
 			throw new IllegalArgumentException();
+		if(getContainer() instanceof World && !((World) getContainer()).isEvolvingEntities())
+			invalidatePredictions();
 	}
 
 	/**
@@ -397,7 +421,8 @@ public abstract class Entity{
 	public double getDistanceBetween(Entity other) throws IllegalArgumentException{
 		if(other == null)
 			throw new IllegalArgumentException();
-		return this.getPosition().sub(other.getPosition()).getLength() - this.getRadius() - other.getRadius();
+		return VectorMath.length(this.getPosition().getX() - other.getPosition().getX(), this.getPosition().getY() - other.getPosition().getY())
+				- this.getRadius() - other.getRadius();
 	}
 
 	/**
@@ -430,7 +455,7 @@ public abstract class Entity{
 	public boolean overlapsCircle(Vector2d position, double radius) throws IllegalArgumentException{
 		if(position == null)
 			throw new IllegalArgumentException();
-		return (this.getPosition().sub(position).getLength() <= 0.99 * (this.getRadius() + radius));
+		return VectorMath.overlaps(this.getPosition().getX(), this.getPosition().getY(), this.getRadius(), position.getX(), position.getY(), radius);
 	}
 
 	/**
@@ -478,14 +503,10 @@ public abstract class Entity{
 		if(this.getContainer() != other.getContainer())
 			return Double.POSITIVE_INFINITY;
 
-		double sigmaSq = Math.pow(this.getRadius() + other.getRadius(), 2);
-		double rDotr = this.getPosition().sub(other.getPosition()).getLengthSquared();
-		double vDotv = this.getVelocity().sub(other.getVelocity()).getLengthSquared();
-		double vDotr = this.getVelocity().sub(other.getVelocity()).dot(this.getPosition().sub(other.getPosition()));
-		double d = vDotr * vDotr - vDotv * (rDotr - sigmaSq);
-		if(vDotr >= 0 || d <= 0)
-			return Double.POSITIVE_INFINITY;
-		else return -(vDotr + Math.sqrt(d)) / vDotv;
+		Vector2d position = this.getPosition(), otherPosition = other.getPosition();
+		Vector2d velocity = this.getVelocity(), otherVelocity = other.getVelocity();
+		return VectorMath.timeToCollision(position.getX(), position.getY(), velocity.getX(), velocity.getY(), this.getRadius(),
+				otherPosition.getX(), otherPosition.getY(), otherVelocity.getX(), otherVelocity.getY(), other.getRadius());
 	}
 
 	/**
@@ -517,9 +538,12 @@ public abstract class Entity{
 		if(timeTilCollision == Double.POSITIVE_INFINITY)
 			return null;
 		double sumRadii = this.getRadius() + other.getRadius();
-		Vector2d thisCollisionPoint = this.getPosition().add(this.getVelocity().mul(timeTilCollision));
-		Vector2d otherCollisionPoint = other.getPosition().add(other.getVelocity().mul(timeTilCollision));
-		return thisCollisionPoint.mul(other.getRadius()).add(otherCollisionPoint.mul(this.getRadius())).mul(1.0 / sumRadii);
+		double thisX = this.getPosition().getX() + this.getVelocity().getX() * timeTilCollision;
+		double thisY = this.getPosition().getY() + this.getVelocity().getY() * timeTilCollision;
+		double otherX = other.getPosition().getX() + other.getVelocity().getX() * timeTilCollision;
+		double otherY = other.getPosition().getY() + other.getVelocity().getY() * timeTilCollision;
+		return new Vector2d((thisX * other.getRadius() + otherX * this.getRadius()) * (1.0 / sumRadii),
+							(thisY * other.getRadius() + otherY * this.getRadius()) * (1.0 / sumRadii));
 	}
 
 	/**
@@ -543,41 +567,90 @@ public abstract class Entity{
 	 * 			| then result.equals(CollisionData.UNDEFINED_COLLISION)
 	 */
 	public CollisionData getBoundaryCollisionData(){
-		if(getContainer() instanceof World){
-			double width = ((World) getContainer()).getWidth();
-			double height = ((World) getContainer()).getHeight();
-			if(getVelocity().dot(Vector2d.X_AXIS) > 0.0){
-				double time = Vector2d.intersect(new Vector2d(getPosition().getX() + getRadius(), getPosition().getY()), getVelocity(), new Vector2d(width, 0), Vector2d.Y_AXIS);
-				if(time != Double.POSITIVE_INFINITY){	
-					Vector2d intersect = new Vector2d(getPosition().getX() + getRadius(), getPosition().getY()).add(getVelocity().mul(time));
-					if(intersect.getY() >= getRadius() && intersect.getY() <= height - getRadius())
-						return new CollisionData(time, intersect, CollisionType.BOUNDARY, Arrays.asList(new Entity[]{this}));
-				}
-			}else{
-				double time = Vector2d.intersect(new Vector2d(getPosition().getX() - getRadius(), getPosition().getY()), getVelocity(), Vector2d.ZERO, Vector2d.Y_AXIS);
-				if(time != Double.POSITIVE_INFINITY){	
-					Vector2d intersect = new Vector2d(getPosition().getX() - getRadius(), getPosition().getY()).add(getVelocity().mul(time));
-					if(intersect.getY() >= getRadius() && intersect.getY() <= height - getRadius())
-						return new CollisionData(time, intersect, CollisionType.BOUNDARY, Arrays.asList(new Entity[]{this}));					
-				}
-			}
-			if(getVelocity().dot(Vector2d.Y_AXIS) > 0.0){
-				double time = Vector2d.intersect(new Vector2d(getPosition().getX(), getPosition().getY() + getRadius()), getVelocity(), new Vector2d(0, height), Vector2d.X_AXIS);
-				if(time != Double.POSITIVE_INFINITY){	
-					Vector2d intersect = new Vector2d(getPosition().getX(), getPosition().getY() + getRadius()).add(getVelocity().mul(time));
-					if(intersect.getX() >= getRadius() && intersect.getX() <= width - getRadius())
-						return new CollisionData(time, intersect, CollisionType.BOUNDARY, Arrays.asList(new Entity[]{this}));
-				}
-			}else{
-				double time = Vector2d.intersect(new Vector2d(getPosition().getX(), getPosition().getY() - getRadius()), getVelocity(), Vector2d.ZERO, Vector2d.X_AXIS);
-				if(time != Double.POSITIVE_INFINITY){	
-					Vector2d intersect = new Vector2d(getPosition().getX(), getPosition().getY() - getRadius()).add(getVelocity().mul(time));
-					if(intersect.getX() >= getRadius() && intersect.getX() <= width - getRadius())
-						return new CollisionData(time, intersect, CollisionType.BOUNDARY, Arrays.asList(new Entity[]{this}));
-				}
-			}
+		Boundary boundary = getCollidingBoundary();
+		if(boundary == null)
+			return CollisionData.UNDEFINED_COLLISION;
+		double time = getTimeToBoundary(boundary);
+		double x = getPosition().getX(), y = getPosition().getY();
+		double xVelocity = getVelocity().getX(), yVelocity = getVelocity().getY();
+		Vector2d intersect;
+		switch(boundary){
+			case RIGHT:
+				intersect = new Vector2d(x + getRadius() + xVelocity * time, y + yVelocity * time);
+				break;
+			case LEFT:
+				intersect = new Vector2d(x - getRadius() + xVelocity * time, y + yVelocity * time);
+				break;
+			case TOP:
+				intersect = new Vector2d(x + xVelocity * time, y + getRadius() + yVelocity * time);
+				break;
+			default:
+				intersect = new Vector2d(x + xVelocity * time, y - getRadius() + yVelocity * time);
+		}
+		return new CollisionData(time, intersect, CollisionType.BOUNDARY, Arrays.asList(new Entity[]{this}));
+	}
+	
+	/**
+	 * Return the boundary of the World container of this Entity with which this Entity collides first,
+	 * assuming the velocity remains unchanged. The result is null if this Entity does not collide with
+	 * any boundary, or if the container of this Entity is not a World.
+	 * 
+	 * @see specification getBoundaryCollisionData()
+	 */
+	@Model
+	private Boundary getCollidingBoundary(){
+		if(!(getContainer() instanceof World))
+			return null;
+		double width = ((World) getContainer()).getWidth();
+		double height = ((World) getContainer()).getHeight();
+		double x = getPosition().getX(), y = getPosition().getY();
+		double xVelocity = getVelocity().getX(), yVelocity = getVelocity().getY();
+		Boundary boundary = xVelocity > 0.0 ? Boundary.RIGHT : Boundary.LEFT;
+		double time = getTimeToBoundary(boundary);
+		if(time != Double.POSITIVE_INFINITY){
+			double intersectY = y + yVelocity * time;
+			if(intersectY >= getRadius() && intersectY <= height - getRadius())
+				return boundary;
 		}
-		return CollisionData.UNDEFINED_COLLISION;
+		boundary = yVelocity > 0.0 ? Boundary.TOP : Boundary.BOTTOM;
+		time = getTimeToBoundary(boundary);
+		if(time != Double.POSITIVE_INFINITY){
+			double intersectX = x + xVelocity * time;
+			if(intersectX >= getRadius() && intersectX <= width - getRadius())
+				return boundary;
+		}
+		return null;
+	}
+	
+	/**
+	 * Return the time until this Entity touches the line through the given boundary of its World container,
+	 * assuming the velocity remains unchanged.
+	 * 
+	 * @param boundary
+	 * 			The given boundary.
+	 */
+	@Model
+	private double getTimeToBoundary(Boundary boundary){
+		World world = (World) getContainer();
+		double x = getPosition().getX(), y = getPosition().getY();
+		double xVelocity = getVelocity().getX(), yVelocity = getVelocity().getY();
+		switch(boundary){
+			case RIGHT:
+				return VectorMath.intersect(x + getRadius(), y, xVelocity, yVelocity, world.getWidth(), 0, 0, 1);
+			case LEFT:
+				return VectorMath.intersect(x - getRadius(), y, xVelocity, yVelocity, 0, 0, 0, 1);
+			case TOP:
+				return VectorMath.intersect(x, y + getRadius(), xVelocity, yVelocity, 0, world.getHeight(), 1, 0);
+			default:
+				return VectorMath.intersect(x, y - getRadius(), xVelocity, yVelocity, 0, 0, 1, 0);
+		}
+	}
+	
+	/**
+	 * An enumeration of the boundaries of a World.
+	 */
+	private enum Boundary{
+		LEFT, RIGHT, BOTTOM, TOP
 	}
 
 	/**
@@ -586,7 +659,11 @@ public abstract class Entity{
 	 * @effect | getBoundaryCollisionData().getTimeToCollision()
 	 */
 	public double getTimeToBoundaryCollision(){
-		return getBoundaryCollisionData().getTimeToCollision();
+		if(!(getContainer() instanceof World))
+			return Double.POSITIVE_INFINITY;
+		World world = (World) getContainer();
+		return VectorMath.timeToBoundaryCollision(getPosition().getX(), getPosition().getY(), getVelocity().getX(), getVelocity().getY(),
+													getRadius(), world.getWidth(), world.getHeight());
 	}
 
 	/**
@@ -615,6 +692,24 @@ public abstract class Entity{
 		move(timeDelta);
 	}
 	
+	/**
+	 * Return whether or not this Entity evolves by moving with its velocity only,
+	 * so a World can move it together with its other entities.
+	 */
+	boolean evolvesByMovingOnly(){
+		return true;
+	}
+	
+	/**
+	 * Set the position of this Entity to the given x and y, to which the World containing
+	 * this Entity moved it while evolving its entities.
+	 * 
+	 * @see move(double timeDelta)
+	 */
+	void moveTo(double x, double y) throws IllegalArgumentException{
+		changePosition(x, y);
+	}
+	
 	/**
 	 * Resolve given collision case appropriately
 	 * 
@@ -683,8 +778,9 @@ public abstract class Entity{
 		double sigmaSq = Math.pow(this.getRadius() + other.getRadius(), 2);
 		double dx = other.getPosition().getX() - this.getPosition().getX();
 		double dy = other.getPosition().getY() - this.getPosition().getY();
-		double j = 2.0 * thisMass * otherMass * (other.getVelocity().sub(this.getVelocity()).dot(other.getPosition().sub(this.getPosition())))
-				/ (sigmaSq * (thisMass + otherMass) );
+		double dvx = other.getVelocity().getX() - this.getVelocity().getX();
+		double dvy = other.getVelocity().getY() - this.getVelocity().getY();
+		double j = 2.0 * thisMass * otherMass * VectorMath.dot(dvx, dvy, dx, dy) / (sigmaSq * (thisMass + otherMass) );
 		this.setVelocity(this.getVelocity().getX() + j * dx / thisMass, this.getVelocity().getY() + j * dy / thisMass);
 		other.setVelocity(other.getVelocity().getX() - j * dx / otherMass, other.getVelocity().getY() - j * dy / otherMass);
 	}
@@ -779,12 +875,43 @@ public abstract class Entity{
 		if(!canHaveAsContainer(container) || (getContainer() != null && container != null))
 			throw new IllegalArgumentException();
 		this.container = container;
+		this.predictionVersion++;
 	}
 
 	/**
 	 * Variable referencing the Container to which this Entity belongs.
 	 */
 	private Container container;
+	
+	/**
+	 * Return the prediction version of this Entity. Collisions predicted for this Entity
+	 * are only valid as long as the prediction version of this Entity does not change.
+	 */
+	@Basic @Raw
+	int getPredictionVersion(){
+		return this.predictionVersion;
+	}
+	
+	/**
+	 * Invalidate the collisions predicted for this Entity, because its course changed
+	 * in another way than by moving with its current velocity.
+	 * 
+	 * @post | new.getPredictionVersion() == getPredictionVersion() + 1
+	 * @effect If the container of this Entity is a World, the World is notified.
+	 * 		| if(getContainer() instanceof World)
+	 * 		| then (World getContainer()).invalidatePredictions(this)
+	 */
+	@Raw
+	void invalidatePredictions(){
+		this.predictionVersion++;
+		if(getContainer() instanceof World)
+			((World) getContainer()).invalidatePredictions(this);
+	}
+	
+	/**
+	 * Variable registering the prediction version of this Entity.
+	 */
+	private int predictionVersion = 0;
   
 }
 
@@ -0,0 +1,159 @@
+package asteroids.model;
+
+import java.util.Arrays;
+
+/**
+ * A class of parallel arrays mirroring the position, velocity and radius of the entities
+ * of an EntityStore, at the same indices. The arrays allow the collision detection of a World,
+ * and the moves of the entities that only move, to run as tight loops over primitive values.
+ * 
+ * @invar Each index below the size of an EntityArrays mirrors an entity.
+ * 		| getSize() >= 0
+ */
+class EntityArrays{
+
+	/**
+	 * Initialize this new EntityArrays mirroring the entities of the given store.
+	 * 
+	 * @param store
+	 * 		The store to mirror.
+	 * @post | new.getSize() == store.size()
+	 */
+	EntityArrays(EntityStore<? extends Entity> store){
+		int capacity = Math.max(INITIAL_CAPACITY, store.size());
+		x = new double[capacity];
+		y = new double[capacity];
+		xVelocity = new double[capacity];
+		yVelocity = new double[capacity];
+		radius = new double[capacity];
+		for(Entity entity : store)
+			add(entity);
+	}
+
+	/**
+	 * Return the number of entities mirrored by this EntityArrays.
+	 */
+	int getSize(){
+		return size;
+	}
+
+	/**
+	 * Mirror the given entity at the next free index of this EntityArrays.
+	 * 
+	 * @param entity
+	 * 		The entity to mirror.
+	 * @post | new.getSize() == getSize() + 1
+	 */
+	void add(Entity entity){
+		if(size == x.length){
+			int capacity = 2 * size;
+			x = Arrays.copyOf(x, capacity);
+			y = Arrays.copyOf(y, capacity);
+			xVelocity = Arrays.copyOf(xVelocity, capacity);
+			yVelocity = Arrays.copyOf(yVelocity, capacity);
+			radius = Arrays.copyOf(radius, capacity);
+		}
+		set(size++, entity);
+	}
+
+	/**
+	 * Remove the entity mirrored at the given index, moving the last entity to that index,
+	 * in the same way as an EntityStore removes its entities.
+	 * 
+	 * @param index
+	 * 		The index to remove.
+	 * @post | new.getSize() == getSize() - 1
+	 */
+	void remove(int index){
+		int last = --size;
+		x[index] = x[last];
+		y[index] = y[last];
+		xVelocity[index] = xVelocity[last];
+		yVelocity[index] = yVelocity[last];
+		radius[index] = radius[last];
+	}
+
+	/**
+	 * Mirror the current state of the given entity at the given index.
+	 */
+	void set(int index, Entity entity){
+		setPosition(index, entity);
+		xVelocity[index] = entity.getVelocity().getX();
+		yVelocity[index] = entity.getVelocity().getY();
+		radius[index] = entity.getRadius();
+	}
+
+	/**
+	 * Mirror the current position of the given entity at the given index.
+	 */
+	void setPosition(int index, Entity entity){
+		x[index] = entity.getPosition().getX();
+		y[index] = entity.getPosition().getY();
+	}
+
+	/**
+	 * Move each mirrored position with its mirrored velocity over the given time, in the same way
+	 * as an entity moves.
+	 * 
+	 * @see Entity.move(double timeDelta)
+	 */
+	void move(double timeDelta){
+		for(int i = 0; i < size; i++){
+			x[i] = x[i] + timeDelta * xVelocity[i];
+			y[i] = y[i] + timeDelta * yVelocity[i];
+		}
+	}
+
+	/**
+	 * Return the mirrored x-position at the given index.
+	 */
+	double getX(int index){
+		return x[index];
+	}
+
+	/**
+	 * Return the mirrored y-position at the given index.
+	 */
+	double getY(int index){
+		return y[index];
+	}
+
+	/**
+	 * Return the time until the entity at the given index collides with the boundary of a World
+	 * with given width and height.
+	 * 
+	 * @see Entity.getTimeToBoundaryCollision()
+	 */
+	double getTimeToBoundaryCollision(int index, double width, double height){
+		return VectorMath.timeToBoundaryCollision(x[index], y[index], xVelocity[index], yVelocity[index], radius[index], width, height);
+	}
+
+	/**
+	 * Return the time until the entities at the given indices collide.
+	 * 
+	 * @throws IllegalArgumentException
+	 * 		The entities at the given indices overlap.
+	 * @see Entity.getTimeToCollision(Entity other)
+	 */
+	double getTimeToCollision(int first, int second) throws IllegalArgumentException{
+		if(first == second || VectorMath.overlaps(x[first], y[first], radius[first], x[second], y[second], radius[second]))
+			throw new IllegalArgumentException();
+		return VectorMath.timeToCollision(x[first], y[first], xVelocity[first], yVelocity[first], radius[first],
+											x[second], y[second], xVelocity[second], yVelocity[second], radius[second]);
+	}
+
+	/**
+	 * The initial capacity of the arrays.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Variable registering the number of mirrored entities.
+	 */
+	private int size = 0;
+
+	/**
+	 * Variables referencing the parallel arrays of mirrored values.
+	 */
+	private double[] x, y, xVelocity, yVelocity, radius;
+}
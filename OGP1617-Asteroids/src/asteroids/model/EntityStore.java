@@ -0,0 +1,168 @@
+package asteroids.model;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A class of stores of entities, keeping entities in a dense list together with
+ * an identity-keyed index, so that membership checks, additions and removals
+ * take constant time. The store itself is a read-only collection of its entities.
+ * 
+ * @invar Each entity of an EntityStore is effective and registered at its own index.
+ * 		| for each i in 0..size()-1:
+ * 		|	get(i) != null && indexOf(get(i)) == i
+ */
+class EntityStore<T extends Entity> extends AbstractCollection<T>{
+
+	/**
+	 * Return the number of entities in this EntityStore.
+	 */
+	@Override
+	public int size(){
+		return entities.size();
+	}
+
+	/**
+	 * Return the entity at the given index in this EntityStore.
+	 * 
+	 * @param index
+	 * 		The index of the entity to return.
+	 * @throws IndexOutOfBoundsException
+	 * 		| index < 0 || index >= size()
+	 */
+	T get(int index) throws IndexOutOfBoundsException{
+		return entities.get(index);
+	}
+
+	/**
+	 * Return the index of the given entity in this EntityStore, or -1 if
+	 * the entity is not in this EntityStore.
+	 */
+	int indexOf(Entity entity){
+		Integer index = indices.get(entity);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Check whether the given object is an entity of this EntityStore.
+	 */
+	@Override
+	public boolean contains(Object object){
+		return indices.containsKey(object);
+	}
+
+	/**
+	 * Add the given entity to this EntityStore.
+	 * 
+	 * @param entity
+	 * 		The entity to add.
+	 * @post | new.contains(entity)
+	 * @post | new.size() == size() + 1
+	 * @throws IllegalArgumentException
+	 * 		| entity == null || contains(entity)
+	 */
+	@Override
+	public boolean add(T entity) throws IllegalArgumentException{
+		if(entity == null || contains(entity))
+			throw new IllegalArgumentException();
+		indices.put(entity, entities.size());
+		entities.add(entity);
+		snapshot = null;
+		return true;
+	}
+
+	/**
+	 * Remove the given object from this EntityStore. The last entity of this
+	 * EntityStore takes the index of the removed entity.
+	 * 
+	 * @param object
+	 * 		The object to remove.
+	 * @return | result == contains(object)
+	 * @post | !new.contains(object)
+	 */
+	@Override
+	public boolean remove(Object object){
+		Integer index = indices.remove(object);
+		if(index == null)
+			return false;
+		snapshot = null;
+		T last = entities.remove(entities.size() - 1);
+		if(last != object){
+			entities.set(index, last);
+			indices.put(last, index);
+		}
+		return true;
+	}
+
+	/**
+	 * Return an iterator over the entities of this EntityStore, in order of their index.
+	 * The iterator does not support removal.
+	 */
+	@Override
+	public Iterator<T> iterator(){
+		Iterator<T> iterator = entities.iterator();
+		return new Iterator<T>(){
+
+			@Override
+			public boolean hasNext(){
+				return iterator.hasNext();
+			}
+
+			@Override
+			public T next(){
+				return iterator.next();
+			}
+		};
+	}
+
+	/**
+	 * Return an unmodifiable set of the entities of this EntityStore, as they are now.
+	 * The set is built once and returned again until an entity is added or removed,
+	 * so asking for it repeatedly does not copy the entities each time.
+	 * 
+	 * @return | result.size() == size()
+	 * @return | for each entity in result: contains(entity)
+	 */
+	Set<T> getSnapshot(){
+		Set<T> result = snapshot;
+		if(result == null){
+			result = Collections.unmodifiableSet(new HashSet<T>(entities));
+			snapshot = result;
+		}
+		return result;
+	}
+
+	@Override
+	public Object[] toArray(){
+		return entities.toArray();
+	}
+
+	@Override
+	public <E> E[] toArray(E[] array){
+		return entities.toArray(array);
+	}
+
+	/**
+	 * Variable referencing the list of entities of this EntityStore.
+	 */
+	private final List<T> entities = new ArrayList<T>();
+
+	/**
+	 * Variable referencing a map registering the index of each entity of this EntityStore.
+	 */
+	private final Map<T, Integer> indices = new IdentityHashMap<T, Integer>();
+
+	/**
+	 * Variable referencing the current snapshot of this EntityStore, or null if the entities
+	 * changed since it was built. The snapshot is volatile, as programs executed in parallel
+	 * may ask for it at the same time.
+	 */
+	private volatile Set<T> snapshot = null;
+}
@@ -0,0 +1,132 @@
+package asteroids.model;
+
+import java.util.concurrent.RecursiveTask;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of fork-join tasks searching the smallest time over a range of indices.
+ * The range is split in contiguous halves, and of two equal times the one found
+ * in the lower half is kept. As each range is searched in increasing order and
+ * only a strictly smaller time replaces the current one, the result is the same
+ * as that of a serial search over the whole range, regardless of the number of threads.
+ */
+class ParallelMinSearch extends RecursiveTask<ParallelMinSearch.Result>{
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Initialize this new ParallelMinSearch over the given range of indices.
+	 *
+	 * @param search
+	 * 			The search to apply to each part of the range.
+	 * @param from
+	 * 			The first index of the range.
+	 * @param to
+	 * 			The index after the last index of the range.
+	 * @param grain
+	 * 			The number of indices below which a range is no longer split.
+	 * @throws IllegalArgumentException
+	 * 			| search == null || from > to || grain < 1
+	 */
+	ParallelMinSearch(RangeSearch search, int from, int to, int grain) throws IllegalArgumentException{
+		if(search == null || from > to || grain < 1)
+			throw new IllegalArgumentException();
+		this.search = search;
+		this.from = from;
+		this.to = to;
+		this.grain = grain;
+	}
+
+	/**
+	 * Search the range of this ParallelMinSearch, splitting it if it holds more indices than the grain.
+	 */
+	@Override
+	protected Result compute(){
+		if(to - from <= grain){
+			Result result = new Result();
+			search.search(from, to, result);
+			return result;
+		}
+		int middle = (from + to) >>> 1;
+		ParallelMinSearch lower = new ParallelMinSearch(search, from, middle, grain);
+		ParallelMinSearch upper = new ParallelMinSearch(search, middle, to, grain);
+		upper.fork();
+		Result lowerResult = lower.compute();
+		Result upperResult = upper.join();
+		return lowerResult.getTime() <= upperResult.getTime() ? lowerResult : upperResult;
+	}
+
+	/**
+	 * Variable referencing the search applied to each part of the range of this ParallelMinSearch.
+	 */
+	private final RangeSearch search;
+
+	/**
+	 * Variables registering the bounds of the range of this ParallelMinSearch.
+	 */
+	private final int from, to;
+
+	/**
+	 * Variable registering the number of indices below which the range is no longer split.
+	 */
+	private final int grain;
+
+	/**
+	 * An interface for searches of the smallest time over a part of a range of indices.
+	 */
+	interface RangeSearch{
+
+		/**
+		 * Offer the time of each index from the given first index up to the given last index
+		 * to the given result, in increasing order.
+		 */
+		void search(int from, int to, Result result);
+	}
+
+	/**
+	 * A class of results, registering the smallest time offered and the pair of indices it was offered with.
+	 */
+	static class Result{
+
+		/**
+		 * Offer the given time with the given indices to this Result. The time replaces the current
+		 * time of this Result only if it is strictly smaller.
+		 */
+		void offer(double time, int first, int second){
+			if(time < this.time){
+				this.time = time;
+				this.first = first;
+				this.second = second;
+			}
+		}
+
+		/**
+		 * Return the smallest time offered to this Result, or positive infinity if none was smaller.
+		 */
+		@Basic
+		double getTime(){
+			return this.time;
+		}
+
+		/**
+		 * Return the first index offered with the time of this Result, or -1 if there is none.
+		 */
+		@Basic
+		int getFirst(){
+			return this.first;
+		}
+
+		/**
+		 * Return the second index offered with the time of this Result, or -1 if there is none.
+		 */
+		@Basic
+		int getSecond(){
+			return this.second;
+		}
+
+		private double time = Double.POSITIVE_INFINITY;
+		private int first = -1;
+		private int second = -1;
+	}
+}
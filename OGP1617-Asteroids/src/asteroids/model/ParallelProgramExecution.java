@@ -0,0 +1,66 @@
+package asteroids.model;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A class of fork-join tasks executing the programs of a range of ships, buffering their actions.
+ * The range is split in contiguous halves down to single ships, as the execution time of a program
+ * varies too much to group them. An exception thrown by a program is registered at the index of its
+ * ship instead of being thrown, so the caller can rethrow the exceptions in the order of the ships.
+ */
+class ParallelProgramExecution extends RecursiveAction{
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Initialize this new ParallelProgramExecution over the given range of the given ships.
+	 *
+	 * @param ships
+	 * 			The ships whose programs are executed.
+	 * @param timeDelta
+	 * 			The duration to execute each program for.
+	 * @param failures
+	 * 			The array registering the exception thrown by the program of each ship, if any.
+	 * @param from
+	 * 			The first index of the range.
+	 * @param to
+	 * 			The index after the last index of the range.
+	 * @throws IllegalArgumentException
+	 * 			| ships == null || failures == null || failures.length != ships.length || from > to
+	 */
+	ParallelProgramExecution(Ship[] ships, double timeDelta, RuntimeException[] failures, int from, int to) throws IllegalArgumentException{
+		if(ships == null || failures == null || failures.length != ships.length || from > to)
+			throw new IllegalArgumentException();
+		this.ships = ships;
+		this.timeDelta = timeDelta;
+		this.failures = failures;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Execute the programs of the range of this ParallelProgramExecution, splitting it if it holds more than one ship.
+	 */
+	@Override
+	protected void compute(){
+		if(to - from <= 1){
+			for(int i = from; i < to; i++){
+				try{
+					ships[i].executeProgramBuffered(timeDelta);
+				}catch(RuntimeException e){
+					failures[i] = e;
+				}
+			}
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		invokeAll(new ParallelProgramExecution(ships, timeDelta, failures, from, middle),
+				new ParallelProgramExecution(ships, timeDelta, failures, middle, to));
+	}
+
+	private final Ship[] ships;
+	private final double timeDelta;
+	private final RuntimeException[] failures;
+	private final int from;
+	private final int to;
+}
@@ -175,6 +175,16 @@ public class Planetoid extends MinorPlanet{
 		setTotalTraveledDistance(getTotalTraveledDistance() + distance);
 		shrink(getTotalTraveledDistance());
 	}
+	
+	/**
+	 * A Planetoid shrinks while it moves.
+	 * 
+	 * @return | result == false
+	 */
+	@Override
+	boolean evolvesByMovingOnly(){
+		return false;
+	}
 
 	/**
 	 * Return the radius of this Planetoid.
@@ -236,6 +246,7 @@ public class Planetoid extends MinorPlanet{
 			throw new IllegalArgumentException();
 		this.setMass(4.0 / 3.0 * Math.PI * Math.pow(radius, 3) * PLANETOID_MASS_DENSITY);		
 		this.currentRadius = radius;
+		invalidatePredictions();
 	}
 
 	/**
@@ -246,7 +257,8 @@ public class Planetoid extends MinorPlanet{
 	/**
 	 * Terminate this Planetoid.
 	 * If the radius of this Planetoid is bigger than the PLANETOID_MIN_SPAWN_RADIUS,
-	 * two asteroids are added to the former world container of this Planetoid.
+	 * two asteroids are added to the former world container of this Planetoid, in a direction
+	 * chosen with the random number generator of that world.
 	 * 
 	 * @effect | super.terminate()
 	 * @post   | if(!isTerminated() && getContainer() instanceof World && getRadius() >= PLANETOID_MIN_SPAWN_RADIUS)
@@ -258,7 +270,7 @@ public class Planetoid extends MinorPlanet{
 			Container oldContainer = getContainer();
 			super.terminate();
 			if(oldContainer instanceof World && getRadius() >= PLANETOID_MIN_SPAWN_RADIUS){
-				Vector2d randomDirection = Vector2d.randomUnit();
+				Vector2d randomDirection = Vector2d.randomUnit(((World) oldContainer).getRandom());
 				Vector2d pos1 = getPosition().add(randomDirection.mul(getRadius()/2.0));
 				Vector2d pos2 = getPosition().sub(randomDirection.mul(getRadius()/2.0));
 				Vector2d vel1 = randomDirection.mul(1.5 * getVelocity().getLength());
@@ -0,0 +1,356 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of grids indexing entities by the cell containing their position.
+ * An entity only moves to another bucket when its position leaves its cell.
+ * 
+ * @invar The cell size of each PositionGrid is a valid cell size.
+ * 		| UniformGrid.isValidCellSize(getCellSize())
+ */
+class PositionGrid{
+
+	/**
+	 * Initialize this new PositionGrid with given cell size and no entities.
+	 * 
+	 * @param cellSize
+	 * 		The cell size for this new PositionGrid.
+	 * @post | new.getCellSize() == cellSize
+	 * @throws IllegalArgumentException
+	 * 		| !UniformGrid.isValidCellSize(cellSize)
+	 */
+	PositionGrid(double cellSize) throws IllegalArgumentException{
+		if(!UniformGrid.isValidCellSize(cellSize))
+			throw new IllegalArgumentException();
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * Return the cell size of this PositionGrid.
+	 */
+	@Basic
+	@Immutable
+	double getCellSize(){
+		return this.cellSize;
+	}
+
+	/**
+	 * Variable registering the cell size of this PositionGrid.
+	 */
+	private final double cellSize;
+
+	/**
+	 * Add the given entity to this PositionGrid, in the cell containing its current position.
+	 * 
+	 * @param entity
+	 * 		The entity to add.
+	 * @throws IllegalArgumentException
+	 * 		| entity == null || contains(entity)
+	 */
+	void add(Entity entity) throws IllegalArgumentException{
+		if(entity == null || contains(entity))
+			throw new IllegalArgumentException();
+		long key = getCellKey(entity.getPosition());
+		cellKeys.put(entity, key);
+		cells.computeIfAbsent(key, k -> new ArrayList<Entity>()).add(entity);
+		registerExtent(entity);
+	}
+
+	/**
+	 * Move the given entity to the cell containing its current position, if it left its cell.
+	 * 
+	 * @param entity
+	 * 		The entity to update.
+	 * @throws IllegalArgumentException
+	 * 		| !contains(entity)
+	 */
+	void update(Entity entity) throws IllegalArgumentException{
+		Long oldKey = cellKeys.get(entity);
+		if(oldKey == null)
+			throw new IllegalArgumentException();
+		long key = getCellKey(entity.getPosition());
+		if(key == oldKey)
+			return;
+		removeFromCell(oldKey, entity);
+		cellKeys.put(entity, key);
+		cells.computeIfAbsent(key, k -> new ArrayList<Entity>()).add(entity);
+		registerExtent(entity);
+	}
+
+	/**
+	 * Remove the given entity from this PositionGrid, if it is in this PositionGrid.
+	 * 
+	 * @param entity
+	 * 		The entity to remove.
+	 * @post | !new.contains(entity)
+	 */
+	void remove(Entity entity){
+		Long key = cellKeys.remove(entity);
+		if(key != null)
+			removeFromCell(key, entity);
+	}
+
+	/**
+	 * Check whether the given entity is in this PositionGrid.
+	 */
+	boolean contains(Entity entity){
+		return cellKeys.containsKey(entity);
+	}
+
+	/**
+	 * Return an entity of this PositionGrid at the given position, or null if there is none.
+	 * 
+	 * @param position
+	 * 		The position to look up.
+	 * @return | if(result != null)
+	 * 		   | then contains(result) && result.getPosition().equals(position)
+	 */
+	Entity getEntityAt(Vector2d position){
+		List<Entity> bucket = cells.get(getCellKey(position));
+		if(bucket == null)
+			return null;
+		for(Entity entity : bucket)
+			if(entity.getPosition().equals(position))
+				return entity;
+		return null;
+	}
+
+	/**
+	 * Return the given number of entities of this PositionGrid satisfying the given filter, which are
+	 * nearest to the given position, ordered by increasing distance. The distance to an entity is the
+	 * distance between the given position and the position of the entity, minus the radius of the entity.
+	 * The cells around the given position are visited ring by ring, until no unvisited entity can be nearer.
+	 * 
+	 * @param position
+	 * 		The position to search from.
+	 * @param number
+	 * 		The maximal number of entities to return.
+	 * @param filter
+	 * 		The filter the resulting entities satisfy.
+	 * @param maxVisits
+	 * 		The maximal number of cells and entities visited.
+	 * @return If more than maxVisits cells and entities are visited, the result is null.
+	 */
+	List<Entity> getNearest(Vector2d position, int number, Predicate<? super Entity> filter, int maxVisits){
+		NearestCollector collector = new NearestCollector(position, number);
+		if(number <= 0 || cells.isEmpty())
+			return collector.getResult();
+		long centerX = UniformGrid.getCellIndex(position.getX(), getCellSize());
+		long centerY = UniformGrid.getCellIndex(position.getY(), getCellSize());
+		int visits = 0;
+		for(long ring = 0; ; ring++){
+			for(long cx = centerX - ring; cx <= centerX + ring; cx++){
+				boolean edge = cx == centerX - ring || cx == centerX + ring;
+				for(long cy = centerY - ring; cy <= centerY + ring; cy += edge ? 1 : 2 * ring){
+					if(++visits > maxVisits)
+						return null;
+					if(cx < minCellX || cx > maxCellX || cy < minCellY || cy > maxCellY)
+						continue;
+					List<Entity> bucket = cells.get(UniformGrid.getCellKey((int) cx, (int) cy));
+					if(bucket == null)
+						continue;
+					visits += bucket.size();
+					for(Entity entity : bucket)
+						if(filter.test(entity))
+							collector.accept(entity);
+				}
+			}
+			if(collector.isFull() && collector.getMaxDistance() <= ring * getCellSize() - maxRadius)
+				break;
+			if(centerX - ring <= minCellX && centerX + ring >= maxCellX && centerY - ring <= minCellY && centerY + ring >= maxCellY)
+				break;
+		}
+		return collector.getResult();
+	}
+
+	/**
+	 * Return the entities of this PositionGrid satisfying the given filter, which overlap with the circle
+	 * with the given position and radius. Only the cells within the given radius, enlarged with the largest
+	 * radius of the entities of this PositionGrid, are visited; if those are more than the occupied cells,
+	 * the occupied cells are visited instead.
+	 * 
+	 * @param position
+	 * 		The position of the circle.
+	 * @param radius
+	 * 		The radius of the circle.
+	 * @param filter
+	 * 		The filter the resulting entities satisfy.
+	 * @return | for each entity in result:
+	 * 		   |	contains(entity) && filter.test(entity) && entity.overlapsCircle(position, radius)
+	 */
+	List<Entity> getOverlapping(Vector2d position, double radius, Predicate<? super Entity> filter){
+		List<Entity> result = new ArrayList<Entity>();
+		if(cells.isEmpty())
+			return result;
+		double reach = radius + maxRadius;
+		long fromX = Math.max(minCellX, UniformGrid.getCellIndex(position.getX() - reach, getCellSize()));
+		long toX = Math.min(maxCellX, UniformGrid.getCellIndex(position.getX() + reach, getCellSize()));
+		long fromY = Math.max(minCellY, UniformGrid.getCellIndex(position.getY() - reach, getCellSize()));
+		long toY = Math.min(maxCellY, UniformGrid.getCellIndex(position.getY() + reach, getCellSize()));
+		if(fromX > toX || fromY > toY)
+			return result;
+		if(!(reach >= 0) || (double) (toX - fromX + 1) * (toY - fromY + 1) > cells.size()){
+			for(List<Entity> bucket : cells.values())
+				collectOverlapping(bucket, position, radius, filter, result);
+			return result;
+		}
+		for(long cx = fromX; cx <= toX; cx++)
+			for(long cy = fromY; cy <= toY; cy++){
+				List<Entity> bucket = cells.get(UniformGrid.getCellKey((int) cx, (int) cy));
+				if(bucket != null)
+					collectOverlapping(bucket, position, radius, filter, result);
+			}
+		return result;
+	}
+
+	/**
+	 * Add the entities of the given bucket satisfying the given filter, which overlap with the circle
+	 * with the given position and radius, to the given result.
+	 */
+	private static void collectOverlapping(List<Entity> bucket, Vector2d position, double radius, Predicate<? super Entity> filter, List<Entity> result){
+		for(Entity entity : bucket)
+			if(filter.test(entity) && entity.overlapsCircle(position, radius))
+				result.add(entity);
+	}
+
+	/**
+	 * Register the current radius of the given entity, which may have grown since it was added.
+	 * 
+	 * @param entity
+	 * 		The entity whose radius is registered.
+	 */
+	void updateRadius(Entity entity){
+		maxRadius = Math.max(maxRadius, entity.getRadius());
+	}
+
+	/**
+	 * Enlarge the registered extent of this PositionGrid to contain the given entity.
+	 */
+	private void registerExtent(Entity entity){
+		int cellX = UniformGrid.getCellIndex(entity.getPosition().getX(), getCellSize());
+		int cellY = UniformGrid.getCellIndex(entity.getPosition().getY(), getCellSize());
+		minCellX = Math.min(minCellX, cellX);
+		maxCellX = Math.max(maxCellX, cellX);
+		minCellY = Math.min(minCellY, cellY);
+		maxCellY = Math.max(maxCellY, cellY);
+		maxRadius = Math.max(maxRadius, entity.getRadius());
+	}
+
+	/**
+	 * Variables registering bounds on the indices of the occupied cells of this PositionGrid.
+	 */
+	private int minCellX = Integer.MAX_VALUE, maxCellX = Integer.MIN_VALUE, minCellY = Integer.MAX_VALUE, maxCellY = Integer.MIN_VALUE;
+
+	/**
+	 * Variable registering an upper bound on the radius of the entities of this PositionGrid.
+	 */
+	private double maxRadius = 0.0;
+
+	/**
+	 * A class of collectors, keeping the given number of accepted entities nearest to a position.
+	 */
+	static class NearestCollector{
+
+		NearestCollector(Vector2d position, int number){
+			this.x = position.getX();
+			this.y = position.getY();
+			this.number = number;
+		}
+
+		/**
+		 * Return the distance between the position of this collector and the given entity.
+		 */
+		double getDistance(Entity entity){
+			double dx = entity.getPosition().getX() - x, dy = entity.getPosition().getY() - y;
+			return Math.sqrt(dx * dx + dy * dy) - entity.getRadius();
+		}
+
+		void accept(Entity entity){
+			if(number <= 0)
+				return;
+			double distance = getDistance(entity);
+			if(isFull()){
+				if(distance >= getMaxDistance())
+					return;
+				nearest.poll();
+			}
+			nearest.add(new Candidate(entity, distance));
+		}
+
+		boolean isFull(){
+			return nearest.size() >= number;
+		}
+
+		double getMaxDistance(){
+			return nearest.isEmpty() ? Double.POSITIVE_INFINITY : nearest.peek().distance;
+		}
+
+		List<Entity> getResult(){
+			List<Candidate> candidates = new ArrayList<Candidate>(nearest);
+			candidates.sort((a, b) -> Double.compare(a.distance, b.distance));
+			List<Entity> result = new ArrayList<Entity>(candidates.size());
+			for(Candidate candidate : candidates)
+				result.add(candidate.entity);
+			return result;
+		}
+
+		private final double x, y;
+		private final int number;
+		private final PriorityQueue<Candidate> nearest = new PriorityQueue<Candidate>(Collections.reverseOrder());
+
+		private static class Candidate implements Comparable<Candidate>{
+
+			private Candidate(Entity entity, double distance){
+				this.entity = entity;
+				this.distance = distance;
+			}
+
+			@Override
+			public int compareTo(Candidate other){
+				return Double.compare(distance, other.distance);
+			}
+
+			private final Entity entity;
+			private final double distance;
+		}
+	}
+
+	/**
+	 * Remove the given entity from the bucket of the cell with the given key.
+	 */
+	private void removeFromCell(long key, Entity entity){
+		List<Entity> bucket = cells.get(key);
+		bucket.remove(entity);
+		if(bucket.isEmpty())
+			cells.remove(key);
+	}
+
+	/**
+	 * Return the key of the cell containing the given position.
+	 */
+	private long getCellKey(Vector2d position){
+		return UniformGrid.getCellKey(UniformGrid.getCellIndex(position.getX(), getCellSize()),
+										UniformGrid.getCellIndex(position.getY(), getCellSize()));
+	}
+
+	/**
+	 * Variable referencing a map collecting the entities of this PositionGrid by the key of their cell.
+	 */
+	private final Map<Long, List<Entity>> cells = new HashMap<Long, List<Entity>>();
+
+	/**
+	 * Variable referencing a map registering the key of the cell of each entity of this PositionGrid.
+	 */
+	private final Map<Entity, Long> cellKeys = new IdentityHashMap<Entity, Long>();
+}
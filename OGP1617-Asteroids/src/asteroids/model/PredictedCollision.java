@@ -0,0 +1,152 @@
+package asteroids.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of collisions predicted at an absolute time of the simulation of a World.
+ * A predicted collision remains valid as long as the prediction versions of its
+ * colliders do not change.
+ */
+class PredictedCollision implements Comparable<PredictedCollision>{
+
+	/**
+	 * Initialize this new PredictedCollision with given time, first and second collider and sequence number.
+	 *
+	 * @param time
+	 * 			The absolute time at which the collision is predicted.
+	 * @param first
+	 * 			The first collider.
+	 * @param second
+	 * 			The second collider, or null for a collision with the boundary.
+	 * @param sequence
+	 * 			The sequence number used to order collisions predicted at the same time.
+	 * @post | new.getTime() == time
+	 * @post | new.getFirst() == first
+	 * @post | new.getSecond() == second
+	 * @post | if(second == null)
+	 * 		 | then new.getCollisionType() == CollisionType.BOUNDARY
+	 * 		 | else new.getCollisionType() == CollisionType.INTER_ENTITY
+	 * @throws IllegalArgumentException
+	 * 		 | first == null
+	 */
+	PredictedCollision(double time, Entity first, Entity second, long sequence) throws IllegalArgumentException{
+		if(first == null)
+			throw new IllegalArgumentException();
+		this.time = time;
+		this.first = first;
+		this.second = second;
+		this.firstVersion = first.getPredictionVersion();
+		this.secondVersion = second == null ? 0 : second.getPredictionVersion();
+		this.sequence = sequence;
+	}
+
+	/**
+	 * Return the absolute time at which this collision is predicted.
+	 */
+	@Basic
+	@Immutable
+	double getTime(){
+		return this.time;
+	}
+
+	/**
+	 * Return the first collider of this PredictedCollision.
+	 */
+	@Basic
+	@Immutable
+	Entity getFirst(){
+		return this.first;
+	}
+
+	/**
+	 * Return the second collider of this PredictedCollision.
+	 */
+	@Basic
+	@Immutable
+	Entity getSecond(){
+		return this.second;
+	}
+
+	/**
+	 * Return the collision type of this PredictedCollision.
+	 */
+	@Immutable
+	CollisionType getCollisionType(){
+		return second == null ? CollisionType.BOUNDARY : CollisionType.INTER_ENTITY;
+	}
+
+	/**
+	 * Check whether this PredictedCollision is still valid for the given World.
+	 *
+	 * @param world
+	 * 			The World to check.
+	 * @return True if and only if each collider still belongs to the given world and
+	 * 			its prediction version did not change since this collision was predicted.
+	 * 			| result == getFirst().getContainer() == world && getFirst().getPredictionVersion() == firstVersion &&
+	 * 			|	(getSecond() == null || getSecond().getContainer() == world && getSecond().getPredictionVersion() == secondVersion)
+	 */
+	boolean isValid(World world){
+		if(first.getContainer() != world || first.getPredictionVersion() != firstVersion)
+			return false;
+		return second == null || (second.getContainer() == world && second.getPredictionVersion() == secondVersion);
+	}
+
+	/**
+	 * Return the collision data of this PredictedCollision, computed from the current state of its colliders.
+	 *
+	 * @return | if(getSecond() == null)
+	 * 		   | then result == getFirst().getBoundaryCollisionData()
+	 * @return | if(getSecond() != null && getFirst().getTimeToCollision(getSecond()) == Double.POSITIVE_INFINITY)
+	 * 		   | then result == CollisionData.UNDEFINED_COLLISION
+	 * @return | if(getSecond() != null && getFirst().getTimeToCollision(getSecond()) != Double.POSITIVE_INFINITY)
+	 * 		   | then result.equals(new CollisionData(getFirst().getTimeToCollision(getSecond()),
+	 * 		   |		getFirst().getCollisionPosition(getSecond()), CollisionType.INTER_ENTITY, Arrays.asList(getFirst(), getSecond())))
+	 */
+	CollisionData getCollisionData(){
+		if(second == null)
+			return first.getBoundaryCollisionData();
+		double collisionTime = first.getTimeToCollision(second);
+		if(collisionTime == Double.POSITIVE_INFINITY)
+			return CollisionData.UNDEFINED_COLLISION;
+		return new CollisionData(collisionTime, first.getCollisionPosition(second), CollisionType.INTER_ENTITY,
+									Arrays.asList(new Entity[]{first, second}));
+	}
+
+	/**
+	 * Compare this PredictedCollision with the given PredictedCollision. Collisions are ordered by time,
+	 * collisions between entities precede boundary collisions at the same time, and remaining ties
+	 * are broken by sequence number.
+	 */
+	@Override
+	public int compareTo(PredictedCollision other){
+		int result = Double.compare(time, other.time);
+		if(result != 0)
+			return result;
+		if(getCollisionType() != other.getCollisionType())
+			return getCollisionType() == CollisionType.INTER_ENTITY ? -1 : 1;
+		return Long.compare(sequence, other.sequence);
+	}
+
+	/**
+	 * Variable registering the absolute time of this PredictedCollision.
+	 */
+	private final double time;
+
+	/**
+	 * Variables referencing the colliders of this PredictedCollision.
+	 */
+	private final Entity first, second;
+
+	/**
+	 * Variables registering the prediction versions of the colliders at the time of prediction.
+	 */
+	private final int firstVersion, secondVersion;
+
+	/**
+	 * Variable registering the sequence number of this PredictedCollision.
+	 */
+	private final long sequence;
+}
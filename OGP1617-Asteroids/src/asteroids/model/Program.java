@@ -1,13 +1,25 @@
 package asteroids.model;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import asteroids.model.programs.ExecutionBackend;
 import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.Function;
+import asteroids.model.programs.OptimizationReport;
+import asteroids.model.programs.ProgramOptimizer;
+import asteroids.model.programs.ThreadedExecution;
+import asteroids.model.programs.VariableResolver;
+import asteroids.model.programs.VariableTable;
 import asteroids.model.programs.exceptions.ExpressionEvaluationException;
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.statements.BlockStatement;
 import asteroids.model.programs.statements.Statement;
+import asteroids.model.programs.vm.CompiledProgram;
+import asteroids.model.programs.vm.ProgramCompiler;
+import asteroids.model.programs.vm.VirtualMachine;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class Program{
 
@@ -15,28 +27,144 @@ public class Program{
 	public Program(List<Function> functions, Statement main) throws IllegalArgumentException{
 		if(functions.contains(null) || main == null)
 			throw new IllegalArgumentException();
-		this.functions = functions;
-		this.body = new BlockStatement(main.getSourceLocation(), main);
+		ProgramOptimizer optimizer = new ProgramOptimizer();
+		this.functions = new ArrayList<Function>(functions.size());
+		for(Function f : functions)
+			this.functions.add(optimizer.optimize(f));
+		Statement optimizedMain = optimizer.optimize(main);
+		this.body = optimizedMain instanceof BlockStatement ? (BlockStatement) optimizedMain
+				: new BlockStatement(main.getSourceLocation(), optimizedMain == null ? new ArrayList<Statement>() : Arrays.asList(optimizedMain));
+		this.optimizationReport = optimizer.getReport();
+		this.globals = VariableResolver.resolve(this.functions, body);
 	}
 	
 	private final List<Function> functions;
 	private final BlockStatement body;
 	
+	@Basic
+	public List<Function> getFunctions(){
+		return functions;
+	}
+	
+	@Basic
+	public BlockStatement getBody(){
+		return body;
+	}
+	
+	/**
+	 * Return the report of the simplifications made to this Program when it was built.
+	 */
+	@Basic
+	public OptimizationReport getOptimizationReport(){
+		return optimizationReport;
+	}
+	
+	private final OptimizationReport optimizationReport;
+	
+	/**
+	 * Return the table binding the global variables of this Program to slots.
+	 */
+	@Basic
+	public VariableTable getGlobals(){
+		return globals;
+	}
+	
+	private final VariableTable globals;
+	
 	public void addExecutor(Ship ship) throws IllegalArgumentException{
 		if(ship == null)
 			throw new IllegalArgumentException();
-		context = new ExecutionContext(ship, (World) ship.getContainer());
+		stopExecution();
+		context = new ExecutionContext(ship, (World) ship.getContainer(), getGlobals());
 		for(Function f : functions){
 			context.getGlobalScope().putFunction(f.getName(), f, f.getSourceLocation());
 		}
+		machine = getBackend() == ExecutionBackend.COMPILED ? new VirtualMachine(getCompiledProgram(), context) : null;
+		threadedExecution = getBackend() == ExecutionBackend.THREADED ? new ThreadedExecution(body, context) : null;
 	}
 	
 	private ExecutionContext context;
+	
+	private VirtualMachine machine;
+	
+	private ThreadedExecution threadedExecution;
+	
+	/**
+	 * Stop the execution of this Program on its own thread, if it is executed by the THREADED backend,
+	 * so the thread ends. The next execution starts from the beginning of the program.
+	 */
+	public void stopExecution(){
+		if(threadedExecution != null)
+			threadedExecution.stop();
+	}
+	
+	@Basic
+	public ExecutionBackend getBackend(){
+		return backend;
+	}
+	
+	/**
+	 * Set the backend executing this Program to the given backend. If this Program has an executor,
+	 * its execution restarts from the beginning.
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			| backend == null
+	 */
+	public void setBackend(ExecutionBackend backend) throws IllegalArgumentException{
+		if(backend == null)
+			throw new IllegalArgumentException();
+		this.backend = backend;
+		if(context != null)
+			addExecutor(context.getExecutor());
+	}
+	
+	private ExecutionBackend backend = ExecutionBackend.INTERPRETER;
+	
+	/**
+	 * Return this Program compiled to instructions for a VirtualMachine.
+	 * The program is compiled the first time it is asked for.
+	 */
+	public CompiledProgram getCompiledProgram(){
+		if(compiled == null)
+			compiled = ProgramCompiler.compile(this);
+		return compiled;
+	}
+	
+	private CompiledProgram compiled;
+
+	/**
+	 * Execute this Program for the given duration like execute, buffering the actions of its executor
+	 * instead of applying them. The program only reads the world, so the programs of several ships
+	 * can be executed this way at the same time.
+	 */
+	public List<Object> executeBuffered(double dt) throws ProgramExecutionTimeException, ExpressionEvaluationException{
+		context.setBufferingActions(true);
+		try{
+			return execute(dt);
+		}finally{
+			context.setBufferingActions(false);
+		}
+	}
+	
+	/**
+	 * Apply the actions buffered by executeBuffered to the executor of this Program, in the order
+	 * they were executed.
+	 */
+	public void applyBufferedActions(){
+		if(context != null)
+			context.applyBufferedActions();
+	}
 
 	public List<Object> execute(double dt) throws ProgramExecutionTimeException, ExpressionEvaluationException{
-		context.addExecTime(dt);
-		body.execute(context);
-		context.clearStack();
+		if(machine != null)
+			return machine.execute(dt);
+		if(threadedExecution != null)
+			threadedExecution.execute(dt);
+		else{
+			context.addExecTime(dt);
+			body.execute(context);
+			context.clearStack();
+		}
 		if(body.hasFullyExecuted()){
 			List<Object> log = context.getPrintLog();
 			context.clearPrintLog();
@@ -417,8 +417,48 @@ public class Ship extends Entity implements Container{
 	 */
 	@Override
 	public void evolve(double timeDelta) throws IllegalArgumentException, ProgramExecutionTimeException, ExpressionEvaluationException{
-		super.evolve(timeDelta);
+		evolveBeforeProgram(timeDelta);
 		executeProgram(timeDelta);
+		evolveAfterProgram(timeDelta);
+	}
+	
+	/**
+	 * A Ship executes its program and uses its thruster while it evolves.
+	 * 
+	 * @return | result == false
+	 */
+	@Override
+	boolean evolvesByMovingOnly(){
+		return false;
+	}
+	
+	/**
+	 * Evolve this Ship with a given time duration up to the execution of its program.
+	 * 
+	 * @param timeDelta
+	 * 		The given time duration.
+	 * @effect | super.evolve(timeDelta)
+	 */
+	@Model
+	void evolveBeforeProgram(double timeDelta) throws IllegalArgumentException{
+		super.evolve(timeDelta);
+	}
+	
+	/**
+	 * Evolve this Ship with a given time duration after the execution of its program,
+	 * applying the actions its program buffered.
+	 * 
+	 * @param timeDelta
+	 * 		The given time duration.
+	 * @effect If a program is loaded, its buffered actions are applied.
+	 * 			| if(hasProgram()) then getProgram().applyBufferedActions()
+	 * @effect If the thruster of this Ship is turned on, the velocity is updated.
+	 * 			| if(getThrusterStatus()) then thrust(timeDelta)
+	 */
+	@Model
+	void evolveAfterProgram(double timeDelta){
+		if(hasProgram())
+			getProgram().applyBufferedActions();
 		if(getThrusterStatus())
 			thrust(timeDelta);
 	}
@@ -480,11 +520,12 @@ public class Ship extends Entity implements Container{
 	/**
 	 * A method for the teleport functionality associated with a Ship-Planetoid collision
 	 * 
-	 * @post If the container of this ship is a world, a random valid position is chosen
-	 * 		 and set as the position of this Ship, however if the ship overlaps any other entity
-	 * 		 at the chosen position, this ship is terminated.
+	 * @post If the container of this ship is a world, a random valid position is chosen with the
+	 * 		 random number generator of that world and set as the position of this Ship, however if
+	 * 		 the ship overlaps any other entity at the chosen position, this ship is terminated.
 	 * 			| if(getContainer() instanceof World) 
-	 * 			| then let newPos = new Vector2d((World getContainer()).getWidth() * Math.random(), (World getContainer()).getHeight() * Math.random())
+	 * 			| then let newPos = new Vector2d((World getContainer()).getWidth() * (World getContainer()).getRandom().nextDouble(),
+	 * 			|				(World getContainer()).getHeight() * (World getContainer()).getRandom().nextDouble())
 	 * 			| 	in 
 	 * 			| 	if((World getContainer()).overlapsWithAnyEntity(newPos, getRadius()).size() > 0)
 	 * 			| 	then new.isTerminated()
@@ -496,7 +537,7 @@ public class Ship extends Entity implements Container{
 			World world = (World) getContainer();
 			Vector2d newPos;
 			do{
-				newPos = new Vector2d(world.getWidth() * Math.random(), world.getHeight() * Math.random());
+				newPos = new Vector2d(world.getWidth() * world.getRandom().nextDouble(), world.getHeight() * world.getRandom().nextDouble());
 			}while(!world.isInBounds(newPos, getRadius()));
 			if(world.overlapsWithAnyEntity(newPos, getRadius()).size() > 0)
 				this.terminate();
@@ -636,6 +677,9 @@ public class Ship extends Entity implements Container{
 	 * 		   is now an empty set.
 	 * 		 | if(! isTerminated())
 	 * 		 |	 then new.getNbItems() == 0
+	 * @effect If this Ship was not yet terminated and has a program, its execution is stopped.
+	 * 		 | if(! isTerminated() && hasProgram())
+	 * 		 |	 then getProgram().stopExecution()
 	 */
 	public void terminate(){
 		if(!isTerminated()){
@@ -647,6 +691,8 @@ public class Ship extends Entity implements Container{
 			for(Bullet bullet : new ArrayList<Bullet>(bullets)){
 				bullet.terminate();
 			}
+			if(hasProgram())
+				getProgram().stopExecution();
 			this.isTerminated = true;
 		}
 	}
@@ -683,6 +729,8 @@ public class Ship extends Entity implements Container{
 	private static final double INITIAL_BULLETSPEED = 250.0;
 	
 	/**
+	 * Load the given bullets on this Ship. All given bullets are checked before any of them is loaded,
+	 * so either all of them are loaded or none of them.
 	 * 
 	 * @param bullets
 	 * 		An array of the bullets that need to be loaded on this Ship.
@@ -705,16 +753,25 @@ public class Ship extends Entity implements Container{
 	 * @throws IllegalArgumentException
 	 * 			If the given bullet in not in bounds of this Ship
 	 * 			| !isInBounds(bullet.getPosition(), bullet.getRadius())
+	 * @throws IllegalArgumentException
+	 * 			If the same bullet is given more than once.
+	 * 			| for some i, j in 0..bullets.length - 1:
+	 * 			| 	i != j && bullets[i] == bullets[j]
 	 */
 	public void loadBullet(Bullet... bullets) throws NullPointerException, IllegalArgumentException{
 		if(bullets.length == 0)
 			throw new NullPointerException();
+		Set<Bullet> checked = new HashSet<Bullet>();
 		for (Bullet bullet : bullets){
 			if(bullet.getContainer() != null &&
 			(!(bullet.getContainer() instanceof World) || bullet.getContainer() != this.getContainer()))
 				throw new IllegalArgumentException();
 			if(!isInBounds(bullet.getPosition(), bullet.getRadius()))
 				throw new IllegalArgumentException();
+			if(!canHaveAsItem(bullet) || !checked.add(bullet))
+				throw new IllegalArgumentException();
+		}
+		for (Bullet bullet : bullets){
 			bullet.setContainer(this);
 			addItem(bullet);
 			bullet.resetBoundaryCollisionCount();
@@ -789,8 +846,13 @@ public class Ship extends Entity implements Container{
 	 *         The new program for this Ship.
 	 * @post   The program of this new Ship is equal to the given program. 
 	 * 			| new.getProgram() == program
+	 * @effect If this Ship had another program, its execution is stopped.
+	 * 			| if(hasProgram() && getProgram() != program)
+	 * 			|	then getProgram().stopExecution()
 	 */
 	public void setProgram(Program program) throws NullPointerException{
+		if(hasProgram() && getProgram() != program)
+			getProgram().stopExecution();
 		this.program = program;
 		program.addExecutor(this);
 	}
@@ -835,6 +897,24 @@ public class Ship extends Entity implements Container{
 		return null;
 	}
 	
+	/**
+	 * Execute the current program on this Ship (if any) for a given amount of time, buffering its
+	 * actions until this Ship evolves after its program.
+	 * 
+	 * @return | if(getProgram() == null)
+	 * 		   | then result == null
+	 * @throws ProgramExecutionTimeException
+	 * 		An exception was thrown during the program execution.
+	 * @throws ExpressionEvalutionException
+	 * 		An exception was thrown during the program execution, while evaluation
+	 * 		an expression.
+	 */
+	List<Object> executeProgramBuffered(double dt) throws ProgramExecutionTimeException, ExpressionEvaluationException{
+		if(program != null)
+			return program.executeBuffered(dt);
+		return null;
+	}
+	
 	/**
 	 * A variable referencing the program of this Ship
 	 */
@@ -0,0 +1,13 @@
+package asteroids.model;
+
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * An enumeration indicating what happens to the remaining time of a step of a World,
+ * once the maximum number of collisions per step is reached.
+ * CLAMP drops the remaining time, DEFER adds it to the next step.
+ */
+@Value
+public enum SubStepPolicy {
+	CLAMP, DEFER
+}
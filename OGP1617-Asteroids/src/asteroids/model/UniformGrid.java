@@ -0,0 +1,320 @@
+package asteroids.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of uniform grids, partitioning the plane in square cells of a fixed size.
+ * Entities are registered with an axis aligned bounding box, and are stored in
+ * each cell their box covers. Two entities are candidates for an interaction if
+ * and only if their boxes overlap.
+ *
+ * @invar The cell size of each UniformGrid is a valid cell size.
+ * 		| isValidCellSize(getCellSize())
+ */
+class UniformGrid{
+
+	/**
+	 * Initialize this new UniformGrid with given cell size and no entries.
+	 *
+	 * @param cellSize
+	 * 		The cell size for this new UniformGrid.
+	 * @post | new.getCellSize() == cellSize
+	 * @post | new.getNbEntries() == 0
+	 * @throws IllegalArgumentException
+	 * 		| !isValidCellSize(cellSize)
+	 */
+	UniformGrid(double cellSize) throws IllegalArgumentException{
+		if(!isValidCellSize(cellSize))
+			throw new IllegalArgumentException();
+		this.cellSize = cellSize;
+	}
+
+	/**
+	 * Return the cell size of this UniformGrid.
+	 */
+	@Basic
+	@Immutable
+	double getCellSize(){
+		return this.cellSize;
+	}
+
+	/**
+	 * Check whether the given cell size is a valid cell size for any UniformGrid.
+	 *
+	 * @param cellSize
+	 * 		The cell size to check.
+	 * @return | result == cellSize > 0 && Double.isFinite(cellSize)
+	 */
+	static boolean isValidCellSize(double cellSize){
+		return cellSize > 0 && Double.isFinite(cellSize);
+	}
+
+	/**
+	 * Variable registering the cell size of this UniformGrid.
+	 */
+	private final double cellSize;
+
+	/**
+	 * The maximum number of cells a single entry may cover, larger boxes are
+	 * kept in a separate list and checked against every other entry.
+	 */
+	static final int MAX_CELLS_PER_ENTRY = 64;
+
+	/**
+	 * Return the number of entries in this UniformGrid.
+	 */
+	@Basic
+	int getNbEntries(){
+		return entries.size();
+	}
+
+	/**
+	 * Add the given entity with the given bounding box to this UniformGrid.
+	 *
+	 * @param entity
+	 * 		The entity to add.
+	 * @param minX
+	 * 		The lower x-bound of the box.
+	 * @param minY
+	 * 		The lower y-bound of the box.
+	 * @param maxX
+	 * 		The upper x-bound of the box.
+	 * @param maxY
+	 * 		The upper y-bound of the box.
+	 * @post | new.getNbEntries() == getNbEntries() + 1
+	 * @post | new.contains(entity)
+	 * @throws IllegalArgumentException
+	 * 		| entity == null || contains(entity) || !(minX <= maxX) || !(minY <= maxY)
+	 */
+	void add(Entity entity, double minX, double minY, double maxX, double maxY) throws IllegalArgumentException{
+		if(entity == null || contains(entity) || !(minX <= maxX) || !(minY <= maxY))
+			throw new IllegalArgumentException();
+		Entry entry = new Entry(entity, nextOrder++, minX, minY, maxX, maxY);
+		entries.put(entity, entry);
+		long nbCells = (long) (entry.maxCellX - entry.minCellX + 1) * (entry.maxCellY - entry.minCellY + 1);
+		if(nbCells > MAX_CELLS_PER_ENTRY){
+			entry.oversized = true;
+			oversized.add(entry);
+			return;
+		}
+		for(int cx = entry.minCellX; cx <= entry.maxCellX; cx++)
+			for(int cy = entry.minCellY; cy <= entry.maxCellY; cy++)
+				cells.computeIfAbsent(getCellKey(cx, cy), k -> new ArrayList<Entry>()).add(entry);
+	}
+
+	/**
+	 * Remove the given entity from this UniformGrid, if it is an entry of this UniformGrid.
+	 *
+	 * @param entity
+	 * 		The entity to remove.
+	 * @post | !new.contains(entity)
+	 */
+	void remove(Entity entity){
+		Entry entry = entries.remove(entity);
+		if(entry == null)
+			return;
+		if(entry.oversized){
+			oversized.remove(entry);
+			return;
+		}
+		for(int cx = entry.minCellX; cx <= entry.maxCellX; cx++)
+			for(int cy = entry.minCellY; cy <= entry.maxCellY; cy++){
+				long key = getCellKey(cx, cy);
+				List<Entry> bucket = cells.get(key);
+				bucket.remove(entry);
+				if(bucket.isEmpty())
+					cells.remove(key);
+			}
+	}
+
+	/**
+	 * Check whether the given entity is an entry of this UniformGrid.
+	 */
+	boolean contains(Entity entity){
+		return entries.containsKey(entity);
+	}
+
+	/**
+	 * Apply the given consumer once to each other entity in this UniformGrid
+	 * of which the bounding box overlaps with the bounding box of the given entity.
+	 *
+	 * @param entity
+	 * 		The entity to find candidates for.
+	 * @param consumer
+	 * 		The consumer to apply.
+	 * @throws IllegalArgumentException
+	 * 		| !contains(entity)
+	 */
+	void forEachCandidate(Entity entity, Consumer<Entity> consumer) throws IllegalArgumentException{
+		Entry a = entries.get(entity);
+		if(a == null)
+			throw new IllegalArgumentException();
+		if(a.oversized){
+			for(Entry b : entries.values())
+				if(a != b && a.overlaps(b))
+					consumer.accept(b.entity);
+			return;
+		}
+		for(int cx = a.minCellX; cx <= a.maxCellX; cx++)
+			for(int cy = a.minCellY; cy <= a.maxCellY; cy++){
+				List<Entry> bucket = cells.get(getCellKey(cx, cy));
+				if(bucket == null)
+					continue;
+				for(Entry b : bucket){
+					if(a == b || !a.overlaps(b))
+						continue;
+					if(getCellIndex(Math.max(a.minX, b.minX)) == cx && getCellIndex(Math.max(a.minY, b.minY)) == cy)
+						consumer.accept(b.entity);
+				}
+			}
+		for(Entry b : oversized)
+			if(a.overlaps(b))
+				consumer.accept(b.entity);
+	}
+
+	/**
+	 * Apply the given consumer once to each unordered pair of entities in this UniformGrid
+	 * of which the bounding boxes overlap. The first entity of each pair was added
+	 * before the second one.
+	 *
+	 * @param consumer
+	 * 		The consumer to apply.
+	 */
+	void forEachCandidatePair(PairConsumer consumer){
+		for(Map.Entry<Long, List<Entry>> cell : cells.entrySet()){
+			List<Entry> bucket = cell.getValue();
+			long key = cell.getKey();
+			for(int i = 0; i < bucket.size(); i++){
+				Entry a = bucket.get(i);
+				for(int j = i + 1; j < bucket.size(); j++){
+					Entry b = bucket.get(j);
+					if(!a.overlaps(b))
+						continue;
+					// Only report the pair in the cell holding the lower corner of the intersection.
+					double cornerX = Math.max(a.minX, b.minX);
+					double cornerY = Math.max(a.minY, b.minY);
+					if(getCellKey(getCellIndex(cornerX), getCellIndex(cornerY)) != key)
+						continue;
+					if(a.order < b.order)
+						consumer.accept(a.entity, b.entity);
+					else
+						consumer.accept(b.entity, a.entity);
+				}
+			}
+		}
+		for(Entry a : oversized)
+			for(Entry b : entries.values())
+				if(a != b && a.overlaps(b) && (!b.oversized || a.order < b.order)){
+					if(a.order < b.order)
+						consumer.accept(a.entity, b.entity);
+					else
+						consumer.accept(b.entity, a.entity);
+				}
+	}
+
+	/**
+	 * Return the index of the cell containing the given coordinate.
+	 *
+	 * @param coordinate
+	 * 		The given coordinate.
+	 * @return The index is clamped to the range of an int.
+	 * 		| result == (int) Math.floor(coordinate / getCellSize())
+	 */
+	int getCellIndex(double coordinate){
+		return getCellIndex(coordinate, getCellSize());
+	}
+
+	/**
+	 * Return the index of the cell containing the given coordinate, in a grid with the given cell size.
+	 *
+	 * @param coordinate
+	 * 		The given coordinate.
+	 * @param cellSize
+	 * 		The given cell size.
+	 * @return The index is clamped to the range of an int.
+	 * 		| result == (int) Math.floor(coordinate / cellSize)
+	 */
+	static int getCellIndex(double coordinate, double cellSize){
+		double index = Math.floor(coordinate / cellSize);
+		if(Double.isNaN(index))
+			return 0;
+		if(index >= Integer.MAX_VALUE)
+			return Integer.MAX_VALUE - 1;
+		if(index <= Integer.MIN_VALUE)
+			return Integer.MIN_VALUE + 1;
+		return (int) index;
+	}
+
+	/**
+	 * Return a key uniquely identifying the cell with given indices.
+	 */
+	static long getCellKey(int cellX, int cellY){
+		return ((long) cellX << 32) ^ (cellY & 0xffffffffL);
+	}
+
+	/**
+	 * Variable referencing a map collecting the entries of this UniformGrid by the key of their cells.
+	 */
+	private final Map<Long, List<Entry>> cells = new HashMap<Long, List<Entry>>();
+
+	/**
+	 * Variable referencing a map collecting all the entries of this UniformGrid by their entity,
+	 * in order of addition.
+	 */
+	private final Map<Entity, Entry> entries = new LinkedHashMap<Entity, Entry>();
+
+	/**
+	 * Variable registering the order of the next entry added to this UniformGrid.
+	 */
+	private int nextOrder = 0;
+
+	/**
+	 * Variable referencing a list of the entries covering too many cells to be stored in the cells.
+	 */
+	private final List<Entry> oversized = new ArrayList<Entry>();
+
+	/**
+	 * An interface for consumers of candidate pairs.
+	 */
+	interface PairConsumer{
+
+		void accept(Entity first, Entity second);
+	}
+
+	/**
+	 * A class of entries, registering an entity with its bounding box.
+	 */
+	private class Entry{
+
+		private Entry(Entity entity, int order, double minX, double minY, double maxX, double maxY){
+			this.entity = entity;
+			this.order = order;
+			this.minX = minX;
+			this.minY = minY;
+			this.maxX = maxX;
+			this.maxY = maxY;
+			this.minCellX = getCellIndex(minX);
+			this.minCellY = getCellIndex(minY);
+			this.maxCellX = getCellIndex(maxX);
+			this.maxCellY = getCellIndex(maxY);
+		}
+
+		private boolean overlaps(Entry other){
+			return minX <= other.maxX && other.minX <= maxX && minY <= other.maxY && other.minY <= maxY;
+		}
+
+		private final Entity entity;
+		private final int order;
+		private final double minX, minY, maxX, maxY;
+		private final int minCellX, minCellY, maxCellX, maxCellY;
+		private boolean oversized = false;
+	}
+}
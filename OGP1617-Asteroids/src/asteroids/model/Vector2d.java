@@ -1,5 +1,7 @@
 package asteroids.model;
 
+import java.util.Random;
+
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
 import be.kuleuven.cs.som.annotate.Raw;
@@ -253,12 +255,8 @@ public class Vector2d{
 	 * 			@see implementation
 	 */
 	public static double intersect(Vector2d originA, Vector2d directionA, Vector2d originB, Vector2d directionB){
-		double n = directionA.getX() * directionB.getY() - directionA.getY() * directionB.getX();
-		if(n == 0)
-			return Double.POSITIVE_INFINITY;
-		double alpha = (directionB.getX() * originA.getY() - directionB.getY() * originA.getX()
-						- directionB.getX() * originB.getY() + directionB.getY() * originB.getX()) / n;
-		return alpha;
+		return VectorMath.intersect(originA.getX(), originA.getY(), directionA.getX(), directionA.getY(),
+									originB.getX(), originB.getY(), directionB.getX(), directionB.getY());
 	}
 	
 	/**
@@ -269,6 +267,15 @@ public class Vector2d{
 		double argument = Math.random() * 2 * Math.PI;
 		return new Vector2d(Math.cos(argument), Math.sin(argument));
 	}
+	
+	/**
+	 * Returns a random unit vector, drawn from the given random number generator.
+	 * @see Implementation
+	 */
+	public static Vector2d randomUnit(Random random){
+		double argument = random.nextDouble() * 2 * Math.PI;
+		return new Vector2d(Math.cos(argument), Math.sin(argument));
+	}
 
 	/**
 	 * Return the velocity components as an array
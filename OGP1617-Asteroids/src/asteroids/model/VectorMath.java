@@ -0,0 +1,111 @@
+package asteroids.model;
+
+/**
+ * A class of static vector operations on raw x and y components, used in the
+ * physics of entities to avoid allocating intermediate Vector2d objects.
+ * Each operation computes exactly the same value as its counterpart on Vector2d.
+ */
+final class VectorMath{
+
+	/**
+	 * This class cannot be instantiated.
+	 */
+	private VectorMath(){
+	}
+
+	/**
+	 * Return the squared length of the vector with given components.
+	 *
+	 * @return | result == new Vector2d(x, y).getLengthSquared()
+	 */
+	static double lengthSquared(double x, double y){
+		return x * x + y * y;
+	}
+
+	/**
+	 * Return the length of the vector with given components.
+	 *
+	 * @return | result == new Vector2d(x, y).getLength()
+	 */
+	static double length(double x, double y){
+		return Math.sqrt(x * x + y * y);
+	}
+
+	/**
+	 * Return the dot product of the vectors with given components.
+	 *
+	 * @return | result == new Vector2d(ax, ay).dot(new Vector2d(bx, by))
+	 */
+	static double dot(double ax, double ay, double bx, double by){
+		return ax * bx + ay * by;
+	}
+
+	/**
+	 * Compute the alpha value of the intersection of two lines, given a point and direction of each line.
+	 *
+	 * @return | result == Vector2d.intersect(new Vector2d(originAX, originAY), new Vector2d(directionAX, directionAY),
+	 * 		   |						new Vector2d(originBX, originBY), new Vector2d(directionBX, directionBY))
+	 */
+	static double intersect(double originAX, double originAY, double directionAX, double directionAY,
+							double originBX, double originBY, double directionBX, double directionBY){
+		double n = directionAX * directionBY - directionAY * directionBX;
+		if(n == 0)
+			return Double.POSITIVE_INFINITY;
+		return (directionBX * originAY - directionBY * originAX - directionBX * originBY + directionBY * originBX) / n;
+	}
+
+	/**
+	 * Return the time before two circles with given positions, velocities and radii touch,
+	 * assuming their velocities do not change, or positive infinity if they never touch.
+	 *
+	 * @see Entity.getTimeToCollision(Entity other)
+	 */
+	static double timeToCollision(double x1, double y1, double xVelocity1, double yVelocity1, double radius1,
+									double x2, double y2, double xVelocity2, double yVelocity2, double radius2){
+		double dx = x1 - x2, dy = y1 - y2;
+		double dvx = xVelocity1 - xVelocity2, dvy = yVelocity1 - yVelocity2;
+		double sigmaSq = Math.pow(radius1 + radius2, 2);
+		double rDotr = lengthSquared(dx, dy);
+		double vDotv = lengthSquared(dvx, dvy);
+		double vDotr = dot(dvx, dvy, dx, dy);
+		double d = vDotr * vDotr - vDotv * (rDotr - sigmaSq);
+		if(vDotr >= 0 || d <= 0)
+			return Double.POSITIVE_INFINITY;
+		return -(vDotr + Math.sqrt(d)) / vDotv;
+	}
+
+	/**
+	 * Return the time before a circle with given position, velocity and radius touches the boundary of
+	 * a World with given width and height, assuming its velocity does not change,
+	 * or positive infinity if it never touches the boundary.
+	 *
+	 * @see Entity.getTimeToBoundaryCollision()
+	 */
+	static double timeToBoundaryCollision(double x, double y, double xVelocity, double yVelocity, double radius,
+											double width, double height){
+		double time = xVelocity > 0.0 ? intersect(x + radius, y, xVelocity, yVelocity, width, 0, 0, 1)
+									  : intersect(x - radius, y, xVelocity, yVelocity, 0, 0, 0, 1);
+		if(time != Double.POSITIVE_INFINITY){
+			double intersectY = y + yVelocity * time;
+			if(intersectY >= radius && intersectY <= height - radius)
+				return time;
+		}
+		time = yVelocity > 0.0 ? intersect(x, y + radius, xVelocity, yVelocity, 0, height, 1, 0)
+							   : intersect(x, y - radius, xVelocity, yVelocity, 0, 0, 1, 0);
+		if(time != Double.POSITIVE_INFINITY){
+			double intersectX = x + xVelocity * time;
+			if(intersectX >= radius && intersectX <= width - radius)
+				return time;
+		}
+		return Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Check whether two circles with given positions and radii (significantly) overlap.
+	 *
+	 * @return | result == length(x1 - x2, y1 - y2) <= 0.99 * (radius1 + radius2)
+	 */
+	static boolean overlaps(double x1, double y1, double radius1, double x2, double y2, double radius2){
+		return length(x1 - x2, y1 - y2) <= 0.99 * (radius1 + radius2);
+	}
+}
@@ -3,12 +3,16 @@ package asteroids.model;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.IntToDoubleFunction;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -130,6 +134,7 @@ public class World implements Container{
 	 * 
 	 * @param timeDelta
 	 * 			The amount of time to apply to the current state of this World.
+	 * @effect | advance(timeDelta, null)
 	 * @throws IllegalArgumentException
 	 * 			| timeDelta < 0.0 
 	 * @throws ProgramExecutionTimeException
@@ -139,187 +144,1449 @@ public class World implements Container{
 	 * 			while evaluating an expression.
 	 */
 	public void evolve(double timeDelta) throws IllegalArgumentException, ProgramExecutionTimeException, ExpressionEvaluationException{
-		if(timeDelta >= 0.0){
-			CollisionData next = getNextCollision();
-			if(next.getTimeToCollision() > timeDelta){
-				evolveEntities(timeDelta);
-			}else{
+		if(timeDelta >= 0.0)
+			advance(timeDelta, null);
+		else
+			throw new IllegalArgumentException();
+	}
+	
+	/**
+	 * Copy of evolve method with CollisionListener.
+	 * 
+	 * @see evolve(double timeDelta)
+	 * @effect | advance(timeDelta, cl)
+	 * @throws IllegalArgumentException
+	 * 			| timeDelta < 0.0 || cl == null
+	 * @throws ProgramExecutionTimeException
+	 * 			When an error occurs during program execution
+	 * @throws ExpressionEvaluationException
+	 * 			When an error occurs during program exection,
+	 * 			while evaluating an expression.
+	 */
+	public void evolve(double timeDelta, CollisionListener cl) throws IllegalArgumentException, ProgramExecutionTimeException, ExpressionEvaluationException{
+		if(timeDelta >= 0.0 && cl != null)
+			advance(timeDelta, cl);
+		else
+			throw new IllegalArgumentException();
+	}
+	
+	/**
+	 * Advance the state of this World with the given time delta. If this World has no fixed time step,
+	 * it steps with the given time delta. Otherwise the given time delta is accumulated, and this World
+	 * steps with its fixed time step as long as a full step is accumulated, at most the maximum number
+	 * of steps per evolve times. If more is accumulated after that, all full steps are dropped, so the
+	 * time of a stalled caller does not pile up. Time deferred by a step is added to the accumulated time
+	 * instead of to the next step, so each step takes exactly the fixed time step.
+	 * 
+	 * @param timeDelta
+	 * 			The amount of time to apply to the current state of this World.
+	 * @param cl
+	 * 			The CollisionListener to notify of each collision between entities, if effective.
+	 * @effect | if(getFixedTimeStep() == 0.0)
+	 * 		   | then step(timeDelta, cl)
+	 * @post | new.getAccumulatedTime() < new.getFixedTimeStep() || getFixedTimeStep() == 0.0
+	 * @post | new.getDeferredTime() == 0.0 || getFixedTimeStep() == 0.0
+	 * @throws ProgramExecutionTimeException
+	 * 			When an error occurs during program execution
+	 * @throws ExpressionEvaluationException
+	 * 			When an error occurs during program exection,
+	 * 			while evaluating an expression.
+	 */
+	private void advance(double timeDelta, CollisionListener cl) throws ProgramExecutionTimeException, ExpressionEvaluationException{
+		double fixedStep = getFixedTimeStep();
+		if(fixedStep == 0.0){
+			step(timeDelta, cl);
+			return;
+		}
+		this.accumulatedTime += timeDelta + getDeferredTime();
+		this.deferredTime = 0.0;
+		for(int i = 0; i < getMaxStepsPerEvolve() && accumulatedTime >= fixedStep; i++){
+			this.accumulatedTime -= fixedStep;
+			step(fixedStep, cl);
+			this.accumulatedTime += getDeferredTime();
+			this.deferredTime = 0.0;
+		}
+		if(accumulatedTime >= fixedStep)
+			this.accumulatedTime -= fixedStep * Math.floor(accumulatedTime / fixedStep);
+	}
+	
+	/**
+	 * Return the fixed time step of this World, or 0.0 if this World steps with each time delta it evolves with.
+	 */
+	@Basic
+	public double getFixedTimeStep(){
+		return this.fixedTimeStep;
+	}
+	
+	/**
+	 * Check whether the given fixed time step is valid for any World.
+	 * 
+	 * @param fixedTimeStep
+	 * 			The fixed time step to check.
+	 * @return | result == (fixedTimeStep == 0.0 || (fixedTimeStep > 0.0 && Double.isFinite(fixedTimeStep)))
+	 */
+	public static boolean isValidFixedTimeStep(double fixedTimeStep){
+		return fixedTimeStep == 0.0 || (fixedTimeStep > 0.0 && Double.isFinite(fixedTimeStep));
+	}
+	
+	/**
+	 * Set the fixed time step of this World. With an effective fixed time step, each step of this World takes
+	 * the same time whatever time deltas it evolves with, so together with a seeded random number generator
+	 * a run can be reproduced exactly. The accumulated time is dropped.
+	 * 
+	 * @param fixedTimeStep
+	 * 			The new fixed time step, or 0.0 to step with each time delta.
+	 * @post | new.getFixedTimeStep() == fixedTimeStep
+	 * @post | new.getAccumulatedTime() == 0.0
+	 * @throws IllegalArgumentException
+	 * 			| !isValidFixedTimeStep(fixedTimeStep)
+	 */
+	public void setFixedTimeStep(double fixedTimeStep) throws IllegalArgumentException{
+		if(!isValidFixedTimeStep(fixedTimeStep))
+			throw new IllegalArgumentException();
+		this.fixedTimeStep = fixedTimeStep;
+		this.accumulatedTime = 0.0;
+	}
+	
+	/**
+	 * Variable registering the fixed time step of this World.
+	 */
+	private double fixedTimeStep = 0.0;
+	
+	/**
+	 * Return the time accumulated by this World that is not yet stepped with.
+	 */
+	@Basic
+	public double getAccumulatedTime(){
+		return this.accumulatedTime;
+	}
+	
+	/**
+	 * Variable registering the time accumulated by this World that is not yet stepped with.
+	 */
+	private double accumulatedTime = 0.0;
+	
+	/**
+	 * Return the fraction of a fixed time step accumulated by this World. A view can draw each entity at its
+	 * position advanced by this fraction of a step along its velocity, so drawing stays smooth while the
+	 * world only changes a whole step at a time.
+	 * 
+	 * @return | if(getFixedTimeStep() == 0.0)
+	 * 		   | then result == 0.0
+	 * 		   | else result == getAccumulatedTime() / getFixedTimeStep()
+	 */
+	public double getInterpolationAlpha(){
+		if(getFixedTimeStep() == 0.0)
+			return 0.0;
+		return getAccumulatedTime() / getFixedTimeStep();
+	}
+	
+	/**
+	 * Return the position of the given entity advanced along its velocity by the fraction of a fixed time step
+	 * accumulated by this World.
+	 * 
+	 * @param entity
+	 * 			The entity to return the position of.
+	 * @return | result.equals(entity.getPosition().add(entity.getVelocity().mul(getInterpolationAlpha() * getFixedTimeStep())))
+	 * @throws IllegalArgumentException
+	 * 			| !hasAsItem(entity)
+	 */
+	public Vector2d getInterpolatedPosition(Entity entity) throws IllegalArgumentException{
+		if(!hasAsItem(entity))
+			throw new IllegalArgumentException();
+		return entity.getPosition().add(entity.getVelocity().mul(getInterpolationAlpha() * getFixedTimeStep()));
+	}
+	
+	/**
+	 * Return the maximum number of fixed time steps this World takes during a single evolve.
+	 */
+	@Basic
+	public int getMaxStepsPerEvolve(){
+		return this.maxStepsPerEvolve;
+	}
+	
+	/**
+	 * Set the maximum number of fixed time steps this World takes during a single evolve.
+	 * 
+	 * @param maxSteps
+	 * 			The new maximum number of steps.
+	 * @post | new.getMaxStepsPerEvolve() == maxSteps
+	 * @throws IllegalArgumentException
+	 * 			| maxSteps <= 0
+	 */
+	public void setMaxStepsPerEvolve(int maxSteps) throws IllegalArgumentException{
+		if(maxSteps <= 0)
+			throw new IllegalArgumentException();
+		this.maxStepsPerEvolve = maxSteps;
+	}
+	
+	/**
+	 * Variable registering the maximum number of fixed time steps this World takes during a single evolve.
+	 */
+	private int maxStepsPerEvolve = DEFAULT_MAX_STEPS_PER_EVOLVE;
+	
+	/**
+	 * The default maximum number of fixed time steps a World takes during a single evolve.
+	 */
+	public static final int DEFAULT_MAX_STEPS_PER_EVOLVE = 8;
+	
+	/**
+	 * Return the random number generator of this World, which all randomness of the entities of this World comes from.
+	 */
+	@Basic
+	Random getRandom(){
+		return this.random;
+	}
+	
+	/**
+	 * Seed the random number generator of this World with the given seed, so the random choices
+	 * of its entities are repeated in each run with the same seed.
+	 * 
+	 * @param seed
+	 * 			The new seed.
+	 */
+	public void setRandomSeed(long seed){
+		this.random.setSeed(seed);
+	}
+	
+	/**
+	 * Variable referencing the random number generator of this World.
+	 */
+	private final Random random = new Random();
+	
+	/**
+	 * Evolve the state of this World with the given time delta and the deferred time of this World,
+	 * resolving each collision occurring in between. After the maximum number of collisions per step,
+	 * the remaining time is dropped or deferred according to the sub-step policy of this World. At most
+	 * the given time delta is deferred, so the deferred time cannot grow from step to step.
+	 * 
+	 * @param timeDelta
+	 * 			The amount of time to apply to the current state of this World.
+	 * @param cl
+	 * 			The CollisionListener to notify of each collision between entities, if effective.
+	 * @post The number of sub-steps of this World is the number of times the entities of this World evolved.
+	 * @post If the maximum number of collisions was reached and the sub-step policy is DEFER,
+	 * 			the remaining time is deferred to the next step, otherwise no time is deferred.
+	 * @post | new.getDeferredTime() <= timeDelta
+	 * @throws ProgramExecutionTimeException
+	 * 			When an error occurs during program execution
+	 * @throws ExpressionEvaluationException
+	 * 			When an error occurs during program exection,
+	 * 			while evaluating an expression.
+	 */
+	private void step(double timeDelta, CollisionListener cl) throws ProgramExecutionTimeException, ExpressionEvaluationException{
+		double remaining = timeDelta + getDeferredTime();
+		this.deferredTime = 0.0;
+		int nbSubSteps = 0, nbCollisions = 0;
+		try{
+			while(true){
+				CollisionData next = getNextCollision(remaining);
+				if(next.getTimeToCollision() > remaining){
+					evolveEntities(remaining);
+					nbSubSteps++;
+					return;
+				}
+				if(nbCollisions >= getMaxCollisionsPerStep()){
+					if(getSubStepPolicy() == SubStepPolicy.DEFER)
+						this.deferredTime = Math.min(remaining, timeDelta);
+					return;
+				}
 				evolveEntities(next.getTimeToCollision());
+				nbSubSteps++;
+				if(cl != null && next.getCollisionType() == CollisionType.INTER_ENTITY){
+					synchronized(cl){
+						cl.notify();
+						cl.objectCollision(next.getColliders().get(0), next.getColliders().get(1),
+								next.getCollisionPoint().getX(), next.getCollisionPoint().getY());
+					}
+				}
 				next.resolve();
-				evolve(timeDelta - next.getTimeToCollision());
-			}	
+				invalidateColliders(next);
+				nbCollisions++;
+				remaining = remaining - next.getTimeToCollision();
+			}
+		}finally{
+			this.nbSubSteps = nbSubSteps;
+		}
+	}
+	
+	/**
+	 * Return the number of times the entities of this World evolved during the last step of this World.
+	 */
+	@Basic
+	public int getNbSubSteps(){
+		return this.nbSubSteps;
+	}
+	
+	/**
+	 * Variable registering the number of sub-steps of the last step of this World.
+	 */
+	private int nbSubSteps = 0;
+	
+	/**
+	 * Return the time deferred to the next step of this World, which is at most the time delta of the last step.
+	 */
+	@Basic
+	public double getDeferredTime(){
+		return this.deferredTime;
+	}
+	
+	/**
+	 * Variable registering the time deferred to the next step of this World.
+	 */
+	private double deferredTime = 0.0;
+	
+	/**
+	 * Return the maximum number of collisions resolved during a single step of this World.
+	 */
+	@Basic
+	public int getMaxCollisionsPerStep(){
+		return this.maxCollisionsPerStep;
+	}
+	
+	/**
+	 * Check whether the given maximum number of collisions per step is valid for any World.
+	 * 
+	 * @param maxCollisions
+	 * 			The maximum number to check.
+	 * @return | result == maxCollisions > 0
+	 */
+	public static boolean isValidMaxCollisionsPerStep(int maxCollisions){
+		return maxCollisions > 0;
+	}
+	
+	/**
+	 * Set the maximum number of collisions resolved during a single step of this World.
+	 * 
+	 * @param maxCollisions
+	 * 			The new maximum number of collisions per step.
+	 * @post | new.getMaxCollisionsPerStep() == maxCollisions
+	 * @throws IllegalArgumentException
+	 * 			| !isValidMaxCollisionsPerStep(maxCollisions)
+	 */
+	public void setMaxCollisionsPerStep(int maxCollisions) throws IllegalArgumentException{
+		if(!isValidMaxCollisionsPerStep(maxCollisions))
+			throw new IllegalArgumentException();
+		this.maxCollisionsPerStep = maxCollisions;
+	}
+	
+	/**
+	 * Variable registering the maximum number of collisions per step of this World.
+	 */
+	private int maxCollisionsPerStep = DEFAULT_MAX_COLLISIONS_PER_STEP;
+	
+	/**
+	 * The default maximum number of collisions resolved during a single step of a World.
+	 */
+	public static final int DEFAULT_MAX_COLLISIONS_PER_STEP = 10000;
+	
+	/**
+	 * Return the policy applied to the remaining time of a step of this World,
+	 * once the maximum number of collisions per step is reached.
+	 */
+	@Basic
+	public SubStepPolicy getSubStepPolicy(){
+		return this.subStepPolicy;
+	}
+	
+	/**
+	 * Set the sub-step policy of this World.
+	 * 
+	 * @param policy
+	 * 			The new sub-step policy.
+	 * @post | new.getSubStepPolicy() == policy
+	 * @throws IllegalArgumentException
+	 * 			| policy == null
+	 */
+	public void setSubStepPolicy(SubStepPolicy policy) throws IllegalArgumentException{
+		if(policy == null)
+			throw new IllegalArgumentException();
+		this.subStepPolicy = policy;
+	}
+	
+	/**
+	 * Variable registering the sub-step policy of this World.
+	 */
+	private SubStepPolicy subStepPolicy = SubStepPolicy.DEFER;
+	
+	/**
+	 * Evolve the entities in this world with given timeDelta. If the struct-of-arrays mode is enabled,
+	 * the mirrored positions are moved first in a single loop, and each entity that only moves takes
+	 * its moved position from the arrays instead of moving itself. If evolving an entity fails, the
+	 * arrays are mirrored again from the entities, as the entities after it did not move.
+	 * 
+	 * @param timeDelta
+	 * 			The given time delta
+	 * @throws IllegalArgumentException
+	 * 			| timeDelta < 0
+	 * @throws ProgramExecutionTimeException
+	 * 			When an error occurs during program execution
+	 * @throws ExpressionEvaluationException
+	 * 			When an error occurs during program exection,
+	 * 			while evaluating an expression.
+	 */
+	private void evolveEntities(double timeDelta) throws IllegalArgumentException, ProgramExecutionTimeException, ExpressionEvaluationException{
+		if(timeDelta < 0)
+			throw new IllegalArgumentException();
+		List<Entity> values = new ArrayList<>(entities);
+		this.evolvingEntities = true;
+		boolean evolved = false;
+		try{
+			if(entityArrays != null)
+				entityArrays.move(timeDelta);
+			if(isParallelProgramsEnabled())
+				evolveEntitiesWithParallelPrograms(values, timeDelta);
+			else
+				for(Entity entity : values)
+					evolveEntity(entity, timeDelta);
+			evolved = true;
+		}finally{
+			this.evolvingEntities = false;
+			if(!evolved && entityArrays != null)
+				this.entityArrays = new EntityArrays(entities);
+		}
+		this.simulationTime += timeDelta;
+	}
+	
+	/**
+	 * Evolve the given Entity of this World with the given timeDelta, taking its moved position
+	 * from the arrays mirroring the entities of this World if it only moves.
+	 * 
+	 * @param entity
+	 * 			The Entity to evolve.
+	 * @param timeDelta
+	 * 			The given time delta
+	 * @effect | if(!isStructOfArraysEnabled() || !entity.evolvesByMovingOnly() || !hasAsItem(entity))
+	 * 		   | then entity.evolve(timeDelta)
+	 * @throws ProgramExecutionTimeException
+	 * 			When an error occurs during program execution
+	 * @throws ExpressionEvaluationException
+	 * 			When an error occurs during program exection,
+	 * 			while evaluating an expression.
+	 */
+	private void evolveEntity(Entity entity, double timeDelta) throws ProgramExecutionTimeException, ExpressionEvaluationException{
+		int index = entityArrays == null || !entity.evolvesByMovingOnly() ? -1 : entities.indexOf(entity);
+		if(index < 0)
+			entity.evolve(timeDelta);
+		else
+			entity.moveTo(entityArrays.getX(index), entityArrays.getY(index));
+	}
+	
+	/**
+	 * Evolve the given entities of this World with the given timeDelta, executing the programs of its ships in parallel.
+	 * All entities move first. The programs are then executed against the resulting state of this World, which none of
+	 * them changes, as their actions are buffered. Finally the actions of each ship are applied and its thruster is used,
+	 * ship by ship in the order of the given entities.
+	 * If the programs of several ships fail, the exception of the first of them is thrown, once the ships
+	 * before it have evolved.
+	 * 
+	 * @param values
+	 * 			The entities to evolve.
+	 * @param timeDelta
+	 * 			The given time delta
+	 * @throws ProgramExecutionTimeException
+	 * 			When an error occurs during program execution
+	 * @throws ExpressionEvaluationException
+	 * 			When an error occurs during program exection,
+	 * 			while evaluating an expression.
+	 */
+	private void evolveEntitiesWithParallelPrograms(List<Entity> values, double timeDelta) throws ProgramExecutionTimeException, ExpressionEvaluationException{
+		List<Ship> programmed = new ArrayList<Ship>();
+		for(Entity entity : values){
+			if(entity instanceof Ship && ((Ship) entity).hasProgram()){
+				((Ship) entity).evolveBeforeProgram(timeDelta);
+				programmed.add((Ship) entity);
+			}else
+				evolveEntity(entity, timeDelta);
+		}
+		Ship[] ships = programmed.toArray(new Ship[programmed.size()]);
+		RuntimeException[] failures = new RuntimeException[ships.length];
+		new ParallelProgramExecution(ships, timeDelta, failures, 0, ships.length).invoke();
+		for(int i = 0; i < ships.length; i++){
+			ships[i].evolveAfterProgram(timeDelta);
+			if(failures[i] != null)
+				throw failures[i];
+		}
+	}
+	
+	/**
+	 * Return whether or not the programs of the ships of this World are executed in parallel when it evolves.
+	 */
+	@Basic
+	public boolean isParallelProgramsEnabled(){
+		return this.parallelProgramsEnabled;
+	}
+	
+	/**
+	 * Enable or disable the parallel execution of the programs of the ships of this World.
+	 * 
+	 * @param enabled
+	 * 			The new state of the parallel execution.
+	 * @post | new.isParallelProgramsEnabled() == enabled
+	 */
+	public void setParallelProgramsEnabled(boolean enabled){
+		this.parallelProgramsEnabled = enabled;
+	}
+	
+	/**
+	 * Variable registering whether or not the programs of the ships of this World are executed in parallel.
+	 */
+	private boolean parallelProgramsEnabled = false;
+	
+	/**
+	 * Return whether or not the entities of this World are evolving with the simulation time of this World.
+	 * Entities moving at any other moment invalidate their predicted collisions.
+	 */
+	@Basic
+	boolean isEvolvingEntities(){
+		return this.evolvingEntities;
+	}
+	
+	/**
+	 * Variable registering whether or not the entities of this World are evolving.
+	 */
+	private boolean evolvingEntities = false;
+	
+	/**
+	 * Return the total amount of time this World has evolved.
+	 */
+	@Basic
+	public double getSimulationTime(){
+		return this.simulationTime;
+	}
+	
+	/**
+	 * Variable registering the total amount of time this World has evolved.
+	 */
+	private double simulationTime = 0.0;
+	
+	/**
+	 * Update a given Entity in this Worlds entity collection
+	 * 
+	 * @param oldPos
+	 * 		The position of this Entity before it moved.
+	 * @param entity
+	 * 		The given Entity with a new position
+	 * @post	| new.getEntityAt(entity.getPosition()) != null
+	 * @throws IllegalArgumentException
+	 * 			| !hasAsItem(entity)
+	 */
+	public void updateEntityEntry(Vector2d oldPos, Entity entity) throws IllegalArgumentException{
+		if(!hasAsItem(entity))
+			throw new IllegalArgumentException();
+		positions.update(entity);
+		if(entityArrays != null)
+			entityArrays.setPosition(entities.indexOf(entity), entity);
+	}
+	
+	/**
+	 * Check whether or not an entity would collide with given position and radius with the bounds of this World.
+	 * @param position
+	 * 			The given position
+	 * @param radius
+	 * 			The given radius
+	 * @see implementation
+	 */
+	public boolean isEntityCollidingBounds(Vector2d position, double radius){
+		return (position.getX() > radius * 0.99 && position.getX() < radius * 1.01) ||
+			   (position.getY() > radius * 0.99 && position.getY() < radius * 1.01) ||
+			   (getWidth() - position.getX() > radius * 0.99 && getWidth() - position.getX() < radius * 1.01) ||
+			   (getHeight() - position.getY() > radius * 0.99 && getHeight() - position.getY() < radius * 1.01);
+	}
+	
+	/**
+	 * Return the first occurring collision for this World.
+	 * 
+	 * @see implementation
+	 */
+	public CollisionData getNextCollision(){
+		CollisionData boundaryCase = getNextBoundaryCollision();
+		CollisionData entityCase = getNextEntityCollision();
+		return boundaryCase.getTimeToCollision() < entityCase.getTimeToCollision() ? boundaryCase : entityCase;
+	}
+	
+	/**
+	 * Return the first collision for this World occurring within the given time delta. If the collision
+	 * queue is enabled, the collision is taken from the queue of predicted collisions, otherwise
+	 * each collision is computed again.
+	 * 
+	 * @param timeDelta
+	 * 			The given time delta.
+	 * @return If a collision occurs within the given time delta, the time to the resulting collision
+	 * 			equals the time to the first collision of this World.
+	 * 			| if(getNextCollision().getTimeToCollision() <= timeDelta)
+	 * 			| then result.getTimeToCollision() == getNextCollision().getTimeToCollision()
+	 * @return If no collision occurs within the given time delta, the time to the resulting collision
+	 * 			exceeds the given time delta.
+	 * 			| if(getNextCollision().getTimeToCollision() > timeDelta)
+	 * 			| then result.getTimeToCollision() > timeDelta
+	 */
+	private CollisionData getNextCollision(double timeDelta){
+		if(!isCollisionQueueEnabled() || !Double.isFinite(getSimulationTime() + timeDelta))
+			return getNextCollision();
+		double end = getSimulationTime() + timeDelta;
+		if(predictionGrid == null || end > predictionHorizonEnd || predictions.size() > MAX_PREDICTIONS_PER_ENTITY * getNbItems() + MIN_PREDICTIONS)
+			rebuildPredictions(timeDelta);
+		else
+			updatePredictions();
+		while(!predictions.isEmpty()){
+			PredictedCollision first = predictions.peek();
+			if(!first.isValid(this)){
+				predictions.poll();
+				continue;
+			}
+			if(first.getTime() > end)
+				break;
+			CollisionData data = first.getCollisionData();
+			if(data.getTimeToCollision() != Double.POSITIVE_INFINITY)
+				return data;
+			predictions.poll();
+		}
+		return CollisionData.UNDEFINED_COLLISION;
+	}
+	
+	/**
+	 * Predict all collisions of this World, occurring within a horizon of at least the given time delta.
+	 * 
+	 * @param timeDelta
+	 * 			The minimal horizon of the predictions.
+	 */
+	private void rebuildPredictions(double timeDelta){
+		predictions.clear();
+		invalidatedEntities.clear();
+		Entity[] candidates = entities.toArray(new Entity[entities.size()]);
+		double horizon = getBroadPhaseHorizon(candidates);
+		if(!(horizon > timeDelta) || horizon == Double.POSITIVE_INFINITY)
+			horizon = timeDelta;
+		predictionGrid = buildSweptGrid(candidates, horizon);
+		predictionHorizonEnd = getSimulationTime() + horizon;
+		for(Entity entity : candidates)
+			predictBoundaryCollision(entity);
+		predictionGrid.forEachCandidatePair(this::predictCollision);
+	}
+	
+	/**
+	 * Predict the collisions of each Entity of this World of which the predictions were invalidated.
+	 * Only the collisions with entities of which the swept bounding box overlaps are predicted.
+	 */
+	private void updatePredictions(){
+		if(invalidatedEntities.isEmpty())
+			return;
+		Entity[] changed = invalidatedEntities.toArray(new Entity[invalidatedEntities.size()]);
+		invalidatedEntities.clear();
+		double horizon = Math.max(0.0, predictionHorizonEnd - getSimulationTime());
+		for(Entity entity : changed){
+			predictionGrid.remove(entity);
+			double[] box = getSweptBox(entity, horizon);
+			predictionGrid.add(entity, box[0], box[1], box[2], box[3]);
+		}
+		Set<Entity> predicted = new HashSet<Entity>();
+		for(Entity entity : changed){
+			predictBoundaryCollision(entity);
+			predictionGrid.forEachCandidate(entity, other -> {
+				if(!predicted.contains(other))
+					predictCollision(entity, other);
+			});
+			predicted.add(entity);
+		}
+	}
+	
+	/**
+	 * Add the collision of the given Entity with the boundary of this World to the predicted collisions,
+	 * if such a collision occurs.
+	 */
+	private void predictBoundaryCollision(Entity entity){
+		predictBoundaryCollision(entity, predictions);
+	}
+	
+	/**
+	 * Add the collision of the given Entity with the boundary of this World to the given queue
+	 * of predicted collisions, if such a collision occurs.
+	 */
+	private void predictBoundaryCollision(Entity entity, PriorityQueue<PredictedCollision> queue){
+		double collisionTime = entity.getTimeToBoundaryCollision();
+		if(collisionTime != Double.POSITIVE_INFINITY)
+			queue.add(new PredictedCollision(getSimulationTime() + collisionTime, entity, null, nextPredictionSequence++));
+	}
+	
+	/**
+	 * Add the collision between the given entities to the predicted collisions, if such a collision occurs.
+	 */
+	private void predictCollision(Entity first, Entity second){
+		double collisionTime = first.getTimeToCollision(second);
+		if(collisionTime != Double.POSITIVE_INFINITY)
+			predictions.add(new PredictedCollision(getSimulationTime() + collisionTime, first, second, nextPredictionSequence++));
+	}
+	
+	/**
+	 * Invalidate the predicted collisions of the given Entity, if the collision queue of this World
+	 * is in use.
+	 * 
+	 * @param entity
+	 * 			The Entity of which the course changed.
+	 */
+	void invalidatePredictions(Entity entity){
+		if(predictionGrid != null)
+			invalidatedEntities.add(entity);
+		if(boundaryPredictions != null)
+			invalidatedBoundaries.add(entity);
+		if(entityArrays != null && hasAsItem(entity))
+			entityArrays.set(entities.indexOf(entity), entity);
+		if(positions.contains(entity))
+			positions.updateRadius(entity);
+	}
+	
+	/**
+	 * Invalidate the predicted collisions of the colliders of the given collision.
+	 * 
+	 * @param collision
+	 * 			The resolved collision.
+	 */
+	private void invalidateColliders(CollisionData collision){
+		for(Entity entity : collision.getColliders())
+			entity.invalidatePredictions();
+	}
+	
+	/**
+	 * Return whether or not this World keeps a queue of predicted collisions while evolving,
+	 * instead of computing each collision again after each resolved collision.
+	 */
+	@Basic
+	public boolean isCollisionQueueEnabled(){
+		return this.collisionQueueEnabled;
+	}
+	
+	/**
+	 * Enable or disable the collision queue of this World.
+	 * 
+	 * @param enabled
+	 * 			The new state of the collision queue.
+	 * @post | new.isCollisionQueueEnabled() == enabled
+	 */
+	public void setCollisionQueueEnabled(boolean enabled){
+		this.collisionQueueEnabled = enabled;
+		predictions.clear();
+		invalidatedEntities.clear();
+		predictionGrid = null;
+	}
+	
+	/**
+	 * Variable registering whether or not the collision queue of this World is enabled.
+	 */
+	private boolean collisionQueueEnabled = true;
+	
+	/**
+	 * Variable referencing the queue of predicted collisions of this World.
+	 */
+	private final PriorityQueue<PredictedCollision> predictions = new PriorityQueue<PredictedCollision>();
+	
+	/**
+	 * Variable referencing the set of entities of which the predicted collisions are invalidated.
+	 */
+	private final Set<Entity> invalidatedEntities = new LinkedHashSet<Entity>();
+	
+	/**
+	 * Variable referencing the uniform grid of bounding boxes swept up to the prediction horizon.
+	 */
+	private UniformGrid predictionGrid = null;
+	
+	/**
+	 * Variable registering the simulation time up to which collisions are predicted.
+	 */
+	private double predictionHorizonEnd = 0.0;
+	
+	/**
+	 * Variable registering the sequence number of the next predicted collision.
+	 */
+	private long nextPredictionSequence = 0;
+	
+	/**
+	 * The maximum number of predicted collisions per entity kept in the queue, 
+	 * before all collisions are predicted again.
+	 */
+	private static final int MAX_PREDICTIONS_PER_ENTITY = 4;
+	
+	/**
+	 * The number of predicted collisions that are always allowed in the queue.
+	 */
+	private static final int MIN_PREDICTIONS = 64;
+	
+	/**
+	 * Return the first occurring boundary collision for this World.
+	 * Assuming the course of an entity does not get obstructed until 
+	 * the colliding boundary.
+	 * 
+	 * @return  | if(entities.size() == 0)
+	 * 			| then result.equals(CollisionData.UNDEFINED_COLLISION)
+	 * @return  | for each entity in entities:
+	 * 			| 	result.getTimeToCollision() <= entity.getBoundaryCollision().getTimeToCollision()
+	 * @return  | if( ! result.getTimeToCollision().equals(CollisionData.UNDEFINED_COLLISION))
+	 * 			|  	result.getCollisionType() == CollisionType.BOUNDARY
+	 * @return  If no collision occurs the result equals CollisionData.UNDEFINED_COLLISION.
+	 */
+	public CollisionData getNextBoundaryCollision(){
+		if(isBoundaryCacheEnabled())
+			return getNextCachedBoundaryCollision();
+		if(isParallelSearch(entities.size()))
+			return getNextBoundaryCollisionParallel();
+		if(entityArrays != null)
+			return getNextBoundaryCollision(entityArrays);
+		Entity first = null;
+		double firstTime = Double.POSITIVE_INFINITY;
+		for(Entity e : entities){
+			double time = e.getTimeToBoundaryCollision();
+			if(time < firstTime){
+				first = e;
+				firstTime = time;
+			}
+		}
+		return first == null ? CollisionData.UNDEFINED_COLLISION : first.getBoundaryCollisionData();
+	}
+	
+	/**
+	 * Return the first occurring boundary collision for this World, scanning the given
+	 * arrays mirroring the entities of this World.
+	 * 
+	 * @see specification getNextBoundaryCollision()
+	 */
+	private CollisionData getNextBoundaryCollision(EntityArrays arrays){
+		int first = -1;
+		double firstTime = Double.POSITIVE_INFINITY;
+		for(int i = 0; i < arrays.getSize(); i++){
+			double time = arrays.getTimeToBoundaryCollision(i, getWidth(), getHeight());
+			if(time < firstTime){
+				first = i;
+				firstTime = time;
+			}
+		}
+		return first < 0 ? CollisionData.UNDEFINED_COLLISION : entities.get(first).getBoundaryCollisionData();
+	}
+	
+	/**
+	 * Return the first occurring boundary collision for this World, taken from the heap of cached
+	 * boundary collisions. Only the entities of which the course changed since the last call are
+	 * predicted again. As the cached times are absolute, the entities with a cached time close to
+	 * the first one are checked again with their current state, and ties are broken by the order
+	 * of the entities, as in a scan of all entities.
+	 * 
+	 * @see specification getNextBoundaryCollision()
+	 */
+	private CollisionData getNextCachedBoundaryCollision(){
+		updateBoundaryPredictions();
+		PredictedCollision top;
+		while((top = boundaryPredictions.peek()) != null && !top.isValid(this))
+			boundaryPredictions.poll();
+		if(top == null)
+			return CollisionData.UNDEFINED_COLLISION;
+		double limit = top.getTime() + BOUNDARY_CACHE_TOLERANCE * Math.max(1.0, Math.abs(top.getTime()));
+		List<PredictedCollision> close = new ArrayList<PredictedCollision>();
+		while((top = boundaryPredictions.peek()) != null && top.getTime() <= limit){
+			boundaryPredictions.poll();
+			if(top.isValid(this))
+				close.add(top);
+		}
+		Entity first = null;
+		double firstTime = Double.POSITIVE_INFINITY;
+		for(PredictedCollision prediction : close){
+			Entity entity = prediction.getFirst();
+			double time = entity.getTimeToBoundaryCollision();
+			if(time < firstTime || (first != null && time == firstTime && entities.indexOf(entity) < entities.indexOf(first))){
+				first = entity;
+				firstTime = time;
+			}
+		}
+		boundaryPredictions.addAll(close);
+		return first == null ? CollisionData.UNDEFINED_COLLISION : first.getBoundaryCollisionData();
+	}
+	
+	/**
+	 * Bring the heap of cached boundary collisions of this World up to date, predicting the boundary
+	 * collision of each entity of which the course changed. The heap is rebuilt if it was not built yet,
+	 * or if it holds too many outdated predictions.
+	 */
+	private void updateBoundaryPredictions(){
+		if(boundaryPredictions == null || boundaryPredictions.size() > MAX_PREDICTIONS_PER_ENTITY * getNbItems() + MIN_PREDICTIONS){
+			invalidatedBoundaries.clear();
+			Entity[] candidates = entities.toArray(new Entity[entities.size()]);
+			double[] times = getTimesToBoundaryCollision(candidates);
+			List<PredictedCollision> predicted = new ArrayList<PredictedCollision>();
+			for(int i = 0; i < candidates.length; i++)
+				if(times[i] != Double.POSITIVE_INFINITY)
+					predicted.add(new PredictedCollision(getSimulationTime() + times[i], candidates[i], null, nextPredictionSequence++));
+			boundaryPredictions = new PriorityQueue<PredictedCollision>(predicted);
+			return;
+		}
+		for(Entity entity : invalidatedBoundaries)
+			if(hasAsItem(entity))
+				predictBoundaryCollision(entity, boundaryPredictions);
+		invalidatedBoundaries.clear();
+	}
+	
+	/**
+	 * Return the time to the boundary collision of each of the given entities of this World. The times are
+	 * computed on the arrays mirroring the entities if those are enabled, and split over the threads of the
+	 * common fork-join pool if the parallel searches of this World apply, as in a scan for the next
+	 * boundary collision.
+	 * 
+	 * @param candidates
+	 * 			An array containing the entities of this World, in order.
+	 */
+	private double[] getTimesToBoundaryCollision(Entity[] candidates){
+		IntToDoubleFunction time;
+		if(entityArrays != null){
+			EntityArrays arrays = entityArrays;
+			double width = getWidth(), height = getHeight();
+			time = i -> arrays.getTimeToBoundaryCollision(i, width, height);
+		}else
+			time = i -> candidates[i].getTimeToBoundaryCollision();
+		double[] times = new double[candidates.length];
+		if(isParallelSearch(candidates.length))
+			Arrays.parallelSetAll(times, time);
+		else
+			Arrays.setAll(times, time);
+		return times;
+	}
+	
+	/**
+	 * Return whether or not this World caches the predicted boundary collision of each entity,
+	 * instead of computing the boundary collision of each entity again when searching the next one.
+	 */
+	@Basic
+	public boolean isBoundaryCacheEnabled(){
+		return this.boundaryCacheEnabled;
+	}
+	
+	/**
+	 * Enable or disable the cache of predicted boundary collisions of this World.
+	 * 
+	 * @param enabled
+	 * 			The new state of the cache.
+	 * @post | new.isBoundaryCacheEnabled() == enabled
+	 */
+	public void setBoundaryCacheEnabled(boolean enabled){
+		this.boundaryCacheEnabled = enabled;
+		this.boundaryPredictions = null;
+		invalidatedBoundaries.clear();
+	}
+	
+	/**
+	 * Variable registering whether or not the cache of boundary collisions of this World is enabled.
+	 */
+	private boolean boundaryCacheEnabled = true;
+	
+	/**
+	 * Variable referencing the heap of predicted boundary collisions of this World, holding at most
+	 * one valid prediction for each entity, or null if the heap is not built.
+	 */
+	private PriorityQueue<PredictedCollision> boundaryPredictions = null;
+	
+	/**
+	 * Variable referencing the set of entities of which the predicted boundary collision is outdated.
+	 */
+	private final Set<Entity> invalidatedBoundaries = new LinkedHashSet<Entity>();
+	
+	/**
+	 * The relative difference between cached boundary collision times within which the
+	 * boundary collisions are checked again to find the first one.
+	 */
+	private static final double BOUNDARY_CACHE_TOLERANCE = 1e-9;
+	
+	/**
+	 * Return the first occurring boundary collision for this World, scanning the entities
+	 * of this World in parallel.
+	 * 
+	 * @see specification getNextBoundaryCollision()
+	 */
+	private CollisionData getNextBoundaryCollisionParallel(){
+		ParallelMinSearch.RangeSearch search;
+		if(entityArrays != null){
+			EntityArrays arrays = entityArrays;
+			double width = getWidth(), height = getHeight();
+			search = (from, to, result) -> {
+				for(int i = from; i < to; i++)
+					result.offer(arrays.getTimeToBoundaryCollision(i, width, height), i, i);
+			};
 		}else{
-			throw new IllegalArgumentException();			
+			Entity[] candidates = entities.toArray(new Entity[entities.size()]);
+			search = (from, to, result) -> {
+				for(int i = from; i < to; i++)
+					result.offer(candidates[i].getTimeToBoundaryCollision(), i, i);
+			};
+		}
+		ParallelMinSearch.Result first = new ParallelMinSearch(search, 0, entities.size(), PARALLEL_ENTITY_GRAIN).invoke();
+		return first.getFirst() < 0 ? CollisionData.UNDEFINED_COLLISION : entities.get(first.getFirst()).getBoundaryCollisionData();
+	}
+	
+	/**
+	 * Return the first ocurring collision between entities for this World.
+	 * If the broad phase is enabled, the time to collision is only computed for candidate pairs
+	 * reported by a uniform grid of swept bounding boxes, otherwise each pair of entities is checked.
+	 * 
+	 * @return  | if(entities.size() == 0)
+	 * 			| then result.equals(CollisionData.UNDEFINED_COLLISION)
+	 * @return  | for each entity1, entity2 in entities:
+	 * 			| 	result.getTimeToCollision() <= entity1.getTimeToCollision(entity2)
+	 * @return  | if( ! result.getTimeToCollision().equals(CollisionData.UNDEFINED_COLLISION))
+	 * 			|  	result.getCollisionType() == CollisionType.INTER_ENTITY
+	 * @return  If no collision occurs the result equals CollisionData.UNDEFINED_COLLISION.
+	 */
+	public CollisionData getNextEntityCollision(){
+		Entity[] candidates = entities.toArray(new Entity[entities.size()]);
+		if(isBroadPhaseEnabled())
+			return checkEntityCollisionsBroadPhase(candidates);
+		return checkEntityCollisions(candidates);
+	}
+	
+	/**
+	 * Return the first ocurring collision between the given entities, checking each pair of entities.
+	 * 
+	 * @param candidates
+	 * 			An array containing the entities to check
+	 * @see specification getNextEntityCollision()
+	 */
+	private CollisionData checkEntityCollisions(Entity[] candidates){
+		if(isParallelSearch(candidates.length))
+			return checkEntityCollisionsParallel(candidates);
+		if(entityArrays != null && candidates.length == entityArrays.getSize())
+			return checkEntityCollisions(candidates, entityArrays);
+		CollisionData firstCollision = CollisionData.UNDEFINED_COLLISION;
+		for(int i = 0; i < candidates.length; i++){
+			Entity current = candidates[i];
+			for(int j = i + 1; j < candidates.length; j++){
+				Entity entity = candidates[j];
+				double collisionTime = current.getTimeToCollision(entity);
+				if(collisionTime < firstCollision.getTimeToCollision())
+					firstCollision = new CollisionData(collisionTime, current.getCollisionPosition(entity),
+														CollisionType.INTER_ENTITY,
+														Arrays.asList(new Entity[]{current, entity}));
+			}
+		}
+		return firstCollision;
+	}
+	
+	/**
+	 * Return the first ocurring collision between the given entities, checking each pair of entities
+	 * on the given arrays mirroring the entities at the same indices.
+	 * 
+	 * @param candidates
+	 * 			An array containing the entities to check
+	 * @param arrays
+	 * 			The arrays mirroring the given entities.
+	 * @see specification getNextEntityCollision()
+	 */
+	private CollisionData checkEntityCollisions(Entity[] candidates, EntityArrays arrays){
+		int first = -1, second = -1;
+		double firstTime = Double.POSITIVE_INFINITY;
+		for(int i = 0; i < candidates.length; i++){
+			for(int j = i + 1; j < candidates.length; j++){
+				double collisionTime = arrays.getTimeToCollision(i, j);
+				if(collisionTime < firstTime){
+					first = i;
+					second = j;
+					firstTime = collisionTime;
+				}
+			}
+		}
+		if(first < 0)
+			return CollisionData.UNDEFINED_COLLISION;
+		return new CollisionData(firstTime, candidates[first].getCollisionPosition(candidates[second]),
+									CollisionType.INTER_ENTITY, Arrays.asList(new Entity[]{candidates[first], candidates[second]}));
+	}
+	
+	/**
+	 * Return the first ocurring collision between the given entities, checking each pair of entities
+	 * in parallel. The rows of the triangle of pairs are split over the threads of the common fork-join pool.
+	 * 
+	 * @param candidates
+	 * 			An array containing the entities to check
+	 * @see specification getNextEntityCollision()
+	 */
+	private CollisionData checkEntityCollisionsParallel(Entity[] candidates){
+		ParallelMinSearch.RangeSearch search;
+		if(entityArrays != null && candidates.length == entityArrays.getSize()){
+			EntityArrays arrays = entityArrays;
+			search = (from, to, result) -> {
+				for(int i = from; i < to; i++)
+					for(int j = i + 1; j < candidates.length; j++)
+						result.offer(arrays.getTimeToCollision(i, j), i, j);
+			};
+		}else{
+			search = (from, to, result) -> {
+				for(int i = from; i < to; i++)
+					for(int j = i + 1; j < candidates.length; j++)
+						result.offer(candidates[i].getTimeToCollision(candidates[j]), i, j);
+			};
+		}
+		ParallelMinSearch.Result first = new ParallelMinSearch(search, 0, candidates.length, PARALLEL_ROW_GRAIN).invoke();
+		return getCollisionData(first, candidates, candidates);
+	}
+	
+	/**
+	 * Return the collision data of the collision between the entities at the indices of the given result
+	 * in the given arrays of first and second entities.
+	 */
+	private static CollisionData getCollisionData(ParallelMinSearch.Result collision, Entity[] firsts, Entity[] seconds){
+		if(collision.getFirst() < 0)
+			return CollisionData.UNDEFINED_COLLISION;
+		Entity first = firsts[collision.getFirst()], second = seconds[collision.getSecond()];
+		return new CollisionData(collision.getTime(), first.getCollisionPosition(second), CollisionType.INTER_ENTITY,
+									Arrays.asList(new Entity[]{first, second}));
+	}
+	
+	/**
+	 * Return the first ocurring collision between the given entities, only checking the pairs of entities
+	 * of which the bounding boxes, swept over a time horizon, overlap. A collision found within the horizon
+	 * is the first collision, otherwise the horizon is enlarged. After MAX_BROAD_PHASE_ROUNDS rounds
+	 * each pair of entities is checked.
+	 * 
+	 * @param candidates
+	 * 			An array containing the entities to check
+	 * @see specification getNextEntityCollision()
+	 */
+	private CollisionData checkEntityCollisionsBroadPhase(Entity[] candidates){
+		if(candidates.length <= 1)
+			return CollisionData.UNDEFINED_COLLISION;
+		double horizon = getBroadPhaseHorizon(candidates);
+		if(horizon == Double.POSITIVE_INFINITY)
+			return CollisionData.UNDEFINED_COLLISION;
+		if(!(horizon > 0.0))
+			return checkEntityCollisions(candidates);
+		for(int round = 0; round < MAX_BROAD_PHASE_ROUNDS; round++){
+			UniformGrid grid = buildSweptGrid(candidates, horizon);
+			if(isParallelEnabled()){
+				CandidatePairList pairs = new CandidatePairList();
+				grid.forEachCandidatePair(pairs);
+				CollisionData collision = pairs.getFirstCollision(pairs.size() >= getParallelThreshold());
+				if(collision.getTimeToCollision() <= horizon)
+					return collision;
+				horizon *= BROAD_PHASE_HORIZON_FACTOR;
+				continue;
+			}
+			CandidatePairSearch search = new CandidatePairSearch();
+			grid.forEachCandidatePair(search);
+			if(search.first != null && search.time <= horizon)
+				return new CollisionData(search.time, search.first.getCollisionPosition(search.second),
+											CollisionType.INTER_ENTITY,
+											Arrays.asList(new Entity[]{search.first, search.second}));
+			horizon *= BROAD_PHASE_HORIZON_FACTOR;
+		}
+		return checkEntityCollisions(candidates);
+	}
+	
+	/**
+	 * Return the initial time horizon of the broad phase for the given entities, being the time
+	 * the fastest entity needs to cross the average spacing between the entities.
+	 * 
+	 * @param candidates
+	 * 			The entities to compute the horizon for.
+	 * @return If none of the given entities moves, the result is positive infinity.
+	 * @return If the horizon cannot be computed, the result is zero.
+	 */
+	private double getBroadPhaseHorizon(Entity[] candidates){
+		double maxSpeed = 0.0;
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for(Entity entity : candidates){
+			maxSpeed = Math.max(maxSpeed, entity.getVelocity().getLength());
+			minX = Math.min(minX, entity.getPosition().getX());
+			minY = Math.min(minY, entity.getPosition().getY());
+			maxX = Math.max(maxX, entity.getPosition().getX());
+			maxY = Math.max(maxY, entity.getPosition().getY());
+		}
+		if(maxSpeed == 0.0)
+			return Double.POSITIVE_INFINITY;
+		double spacing = Math.sqrt((maxX - minX) * (maxY - minY) / candidates.length);
+		double horizon = Math.max(spacing, (maxX - minX + maxY - minY) / candidates.length) / maxSpeed;
+		if(!(horizon > 0.0) || !Double.isFinite(horizon))
+			return 0.0;
+		return horizon;
+	}
+	
+	/**
+	 * Return a uniform grid containing the given entities, each with the bounding box
+	 * swept by the entity over the given time horizon.
+	 * 
+	 * @param candidates
+	 * 			The entities to add to the grid.
+	 * @param horizon
+	 * 			The time horizon over which the boxes are swept.
+	 */
+	private UniformGrid buildSweptGrid(Entity[] candidates, double horizon){
+		double[][] boxes = new double[candidates.length][];
+		double totalExtent = 0.0;
+		for(int i = 0; i < candidates.length; i++){
+			boxes[i] = getSweptBox(candidates[i], horizon);
+			totalExtent += Math.max(boxes[i][2] - boxes[i][0], boxes[i][3] - boxes[i][1]);
+		}
+		double cellSize = getBroadPhaseCellSize();
+		if(!UniformGrid.isValidCellSize(cellSize))
+			cellSize = totalExtent / candidates.length;
+		if(!UniformGrid.isValidCellSize(cellSize))
+			cellSize = 1.0;
+		UniformGrid grid = new UniformGrid(cellSize);
+		for(int i = 0; i < candidates.length; i++)
+			grid.add(candidates[i], boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3]);
+		return grid;
+	}
+	
+	/**
+	 * Return the bounding box swept by the given entity over the given time horizon,
+	 * as an array holding the lower x, lower y, upper x and upper y bound.
+	 */
+	private static double[] getSweptBox(Entity entity, double horizon){
+		double x = entity.getPosition().getX(), y = entity.getPosition().getY();
+		double endX = x + entity.getVelocity().getX() * horizon, endY = y + entity.getVelocity().getY() * horizon;
+		double r = entity.getRadius();
+		return new double[]{Math.min(x, endX) - r, Math.min(y, endY) - r, Math.max(x, endX) + r, Math.max(y, endY) + r};
+	}
+	
+	/**
+	 * A class of consumers, registering the candidate pair with the smallest time to collision.
+	 */
+	private static class CandidatePairSearch implements UniformGrid.PairConsumer{
+
+		@Override
+		public void accept(Entity first, Entity second){
+			double collisionTime = first.getTimeToCollision(second);
+			if(collisionTime < time){
+				time = collisionTime;
+				this.first = first;
+				this.second = second;
+			}
 		}
+		
+		private double time = Double.POSITIVE_INFINITY;
+		private Entity first;
+		private Entity second;
 	}
 	
 	/**
-	 * Copy of evolve method with CollisionListener.
+	 * A class of consumers, collecting the candidate pairs in order to check them in parallel.
+	 */
+	private static class CandidatePairList implements UniformGrid.PairConsumer{
+
+		@Override
+		public void accept(Entity first, Entity second){
+			firsts.add(first);
+			seconds.add(second);
+		}
+		
+		private int size(){
+			return firsts.size();
+		}
+		
+		/**
+		 * Return the first occurring collision between the pairs of this list, being the first pair
+		 * in order of collection among the pairs with the smallest time to collision.
+		 * 
+		 * @param parallel
+		 * 			Whether or not the pairs are checked in parallel.
+		 */
+		private CollisionData getFirstCollision(boolean parallel){
+			Entity[] first = firsts.toArray(new Entity[size()]), second = seconds.toArray(new Entity[size()]);
+			ParallelMinSearch.RangeSearch search = (from, to, result) -> {
+				for(int i = from; i < to; i++)
+					result.offer(first[i].getTimeToCollision(second[i]), i, i);
+			};
+			if(parallel)
+				return getCollisionData(new ParallelMinSearch(search, 0, size(), PARALLEL_ENTITY_GRAIN).invoke(), first, second);
+			ParallelMinSearch.Result result = new ParallelMinSearch.Result();
+			search.search(0, size(), result);
+			return getCollisionData(result, first, second);
+		}
+		
+		private final List<Entity> firsts = new ArrayList<Entity>();
+		private final List<Entity> seconds = new ArrayList<Entity>();
+	}
+	
+	/**
+	 * Return whether or not the searches for the next collision of this World are split over multiple threads,
+	 * for worlds with at least as many entities, or broad phases with at least as many candidate pairs,
+	 * as the parallel threshold.
+	 */
+	@Basic
+	public boolean isParallelEnabled(){
+		return this.parallelEnabled;
+	}
+	
+	/**
+	 * Enable or disable the parallel searches for the next collision of this World.
 	 * 
-	 * @see evolve(double timeDelta)
-	 * @throws IllegalArgumentException
-	 * 			| timeDelta < 0.0 || cl == null
-	 * @throws ProgramExecutionTimeException
-	 * 			When an error occurs during program execution
-	 * @throws ExpressionEvaluationException
-	 * 			When an error occurs during program exection,
-	 * 			while evaluating an expression.
+	 * @param enabled
+	 * 			The new state of the parallel searches.
+	 * @post | new.isParallelEnabled() == enabled
 	 */
-	public void evolve(double timeDelta, CollisionListener cl) throws IllegalArgumentException, ProgramExecutionTimeException, ExpressionEvaluationException{
-		if(timeDelta >= 0.0 && cl != null){
-			CollisionData next = getNextCollision();
-			if(next.getTimeToCollision() > timeDelta){
-				evolveEntities(timeDelta);
-			}else{
-				evolveEntities(next.getTimeToCollision());
-				if(next.getCollisionType() == CollisionType.INTER_ENTITY){
-					synchronized(cl){
-						cl.notify();
-						cl.objectCollision(next.getColliders().get(0), next.getColliders().get(1),
-								next.getCollisionPoint().getX(), next.getCollisionPoint().getY());
-					}
-				}
-				next.resolve();
-				evolve(timeDelta - next.getTimeToCollision(), cl);
-			}
-		}else
-			throw new IllegalArgumentException();
+	public void setParallelEnabled(boolean enabled){
+		this.parallelEnabled = enabled;
 	}
 	
 	/**
-	 * Evolve the entities in this world with given timeDelta
+	 * Variable registering whether or not the parallel searches of this World are enabled.
+	 */
+	private boolean parallelEnabled = false;
+	
+	/**
+	 * Return the number of entities, or of candidate pairs of the broad phase, from which on
+	 * the searches for the next collision of this World are split over multiple threads.
+	 */
+	@Basic
+	public int getParallelThreshold(){
+		return this.parallelThreshold;
+	}
+	
+	/**
+	 * Check whether the given threshold is a valid parallel threshold for any World.
 	 * 
-	 * @param timeDelta
-	 * 			The given time delta
-	 * @throws IllegalArgumentException
-	 * 			| timeDelta < 0
-	 * @throws ProgramExecutionTimeException
-	 * 			When an error occurs during program execution
-	 * @throws ExpressionEvaluationException
-	 * 			When an error occurs during program exection,
-	 * 			while evaluating an expression.
+	 * @param threshold
+	 * 			The threshold to check.
+	 * @return | result == threshold > 0
 	 */
-	private void evolveEntities(double timeDelta) throws IllegalArgumentException, ProgramExecutionTimeException, ExpressionEvaluationException{
-		if(timeDelta < 0)
-			throw new IllegalArgumentException();
-		List<Entity> values = new ArrayList<>(entities.values());
-		for(Entity entity : values)
-			entity.evolve(timeDelta);
-		
+	public static boolean isValidParallelThreshold(int threshold){
+		return threshold > 0;
 	}
 	
 	/**
-	 * Update a given Entity in this Worlds entity collection
+	 * Set the parallel threshold of this World to the given threshold.
 	 * 
-	 * @param oldPos
-	 * 		The position this Entity is stil mapped to.
-	 * @param entity
-	 * 		The given Entity with a new position
-	 * @post	| new.getAllEntities().get(entity.getPosition()) == entity
+	 * @param threshold
+	 * 			The new parallel threshold.
+	 * @post | new.getParallelThreshold() == threshold
 	 * @throws IllegalArgumentException
-	 * 			| !hasAsItem(entity) ||
-	 * 			| !(getAllEntities().containsKey(oldPos) && getAllEntities().containsValue(entity))
+	 * 			| !isValidParallelThreshold(threshold)
 	 */
-	public void updateEntityEntry(Vector2d oldPos, Entity entity) throws IllegalArgumentException{
-		if(hasAsItem(entity) && entities.remove(oldPos, entity))
-			entities.put(entity.getPosition(), entity);
-		else
+	public void setParallelThreshold(int threshold) throws IllegalArgumentException{
+		if(!isValidParallelThreshold(threshold))
 			throw new IllegalArgumentException();
+		this.parallelThreshold = threshold;
 	}
 	
 	/**
-	 * Check whether or not an entity would collide with given position and radius with the bounds of this World.
-	 * @param position
-	 * 			The given position
-	 * @param radius
-	 * 			The given radius
-	 * @see implementation
+	 * Check whether a search over the given number of entities is split over multiple threads.
+	 * 
+	 * @return | result == isParallelEnabled() && size >= getParallelThreshold()
 	 */
-	public boolean isEntityCollidingBounds(Vector2d position, double radius){
-		return (position.getX() > radius * 0.99 && position.getX() < radius * 1.01) ||
-			   (position.getY() > radius * 0.99 && position.getY() < radius * 1.01) ||
-			   (getWidth() - position.getX() > radius * 0.99 && getWidth() - position.getX() < radius * 1.01) ||
-			   (getHeight() - position.getY() > radius * 0.99 && getHeight() - position.getY() < radius * 1.01);
+	private boolean isParallelSearch(int size){
+		return isParallelEnabled() && size >= getParallelThreshold();
 	}
 	
 	/**
-	 * Return the first occurring collision for this World.
+	 * Variable registering the parallel threshold of this World.
+	 */
+	private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+	
+	/**
+	 * The default parallel threshold of a World.
+	 */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 512;
+	
+	/**
+	 * The number of entities, or candidate pairs, below which a parallel scan is no longer split.
+	 */
+	private static final int PARALLEL_ENTITY_GRAIN = 256;
+	
+	/**
+	 * The number of rows of pairs below which a parallel scan of each pair of entities is no longer split.
+	 */
+	private static final int PARALLEL_ROW_GRAIN = 8;
+	
+	/**
+	 * Return whether or not this World mirrors the position, velocity and radius of its entities
+	 * in parallel arrays, used when scanning all entities for the next collision and when moving
+	 * the entities that only move.
+	 */
+	@Basic
+	public boolean isStructOfArraysEnabled(){
+		return this.entityArrays != null;
+	}
+	
+	/**
+	 * Enable or disable the parallel arrays mirroring the entities of this World.
 	 * 
-	 * @see implementation
+	 * @param enabled
+	 * 			The new state of the parallel arrays.
+	 * @post | new.isStructOfArraysEnabled() == enabled
 	 */
-	public CollisionData getNextCollision(){
-		CollisionData boundaryCase = getNextBoundaryCollision();
-		CollisionData entityCase = getNextEntityCollision();
-		return boundaryCase.getTimeToCollision() < entityCase.getTimeToCollision() ? boundaryCase : entityCase;
+	public void setStructOfArraysEnabled(boolean enabled){
+		if(enabled && entityArrays == null)
+			this.entityArrays = new EntityArrays(entities);
+		else if(!enabled)
+			this.entityArrays = null;
 	}
 	
 	/**
-	 * Return the first occurring boundary collision for this World.
-	 * Assuming the course of an entity does not get obstructed until 
-	 * the colliding boundary.
+	 * Variable referencing the parallel arrays mirroring the entities of this World, if enabled.
 	 * 
-	 * @return  | if(entities.size() == 0)
-	 * 			| then result.equals(CollisionData.UNDEFINED_COLLISION)
-	 * @return  | for each entity in entities.values():
-	 * 			| 	result.getTimeToCollision() <= entity.getBoundaryCollision().getTimeToCollision()
-	 * @return  | if( ! result.getTimeToCollision().equals(CollisionData.UNDEFINED_COLLISION))
-	 * 			|  	result.getCollisionType() == CollisionType.BOUNDARY
-	 * @return  If no collision occurs the result equals CollisionData.UNDEFINED_COLLISION.
+	 * @invar The arrays mirror the entities of this world at the same indices.
+	 * 		| entityArrays == null || entityArrays.getSize() == entities.size()
 	 */
-	public CollisionData getNextBoundaryCollision(){
-		CollisionData firstBoundaryCollision = CollisionData.UNDEFINED_COLLISION;
-		for(Entity e : entities.values()){
-			CollisionData boundaryCase = e.getBoundaryCollisionData();
-			if(boundaryCase.getTimeToCollision() < firstBoundaryCollision.getTimeToCollision())
-				firstBoundaryCollision = boundaryCase;
-		}
-		return firstBoundaryCollision;
+	private EntityArrays entityArrays = null;
+	
+	/**
+	 * Return whether or not the search for collisions between entities of this World
+	 * uses a uniform grid broad phase.
+	 */
+	@Basic
+	public boolean isBroadPhaseEnabled(){
+		return this.broadPhaseEnabled;
 	}
 	
 	/**
-	 * Return the first ocurring collision between entities for this World.
+	 * Enable or disable the uniform grid broad phase of this World. If disabled, each pair of 
+	 * entities is checked when searching for the next collision between entities.
 	 * 
-	 * @return  | if(entities.size() == 0)
-	 * 			| then result.equals(CollisionData.UNDEFINED_COLLISION)
-	 * @return  | for each entity1, entity2 in entities.values():
-	 * 			| 	result.getTimeToCollision() <= entity1.getTimeToCollision(entity2)
-	 * @return  | if( ! result.getTimeToCollision().equals(CollisionData.UNDEFINED_COLLISION))
-	 * 			|  	result.getCollisionType() == CollisionType.INTER_ENTITY
-	 * @return  If no collision occurs the result equals CollisionData.UNDEFINED_COLLISION.
+	 * @param enabled
+	 * 			The new state of the broad phase.
+	 * @post | new.isBroadPhaseEnabled() == enabled
 	 */
-	public CollisionData getNextEntityCollision(){
-		Set<Entity> unchecked = new HashSet<Entity>(entities.values());
-		return checkEntityCollisions(unchecked);
+	public void setBroadPhaseEnabled(boolean enabled){
+		this.broadPhaseEnabled = enabled;
+	}
+	
+	/**
+	 * Variable registering whether or not the broad phase of this World is enabled.
+	 */
+	private boolean broadPhaseEnabled = true;
+	
+	/**
+	 * Return the cell size of the uniform grid used in the broad phase of this World.
+	 * A cell size of zero indicates that the cell size is derived from the average swept
+	 * bounding box of the entities.
+	 */
+	@Basic
+	public double getBroadPhaseCellSize(){
+		return this.broadPhaseCellSize;
 	}
 	
 	/**
-	 * Method containing the recursive implementation of getNextEntityCollision()
+	 * Set the cell size of the uniform grid used in the broad phase of this World.
 	 * 
-	 * @param remainingEntities
-	 * 			A set containing the unchecked entities
-	 * @see specification getNextEntityCollision()
+	 * @param cellSize
+	 * 			The new cell size, or zero to derive the cell size from the entities.
+	 * @post | new.getBroadPhaseCellSize() == cellSize
+	 * @throws IllegalArgumentException
+	 * 			| cellSize != 0.0 && !UniformGrid.isValidCellSize(cellSize)
 	 */
-	private CollisionData checkEntityCollisions(Set<Entity> remainingEntities){
-		Entity current = null;
-		CollisionData fCollisionInvCurrent = CollisionData.UNDEFINED_COLLISION;
-		if(remainingEntities.size() <= 1)
-			return fCollisionInvCurrent;
-		for(Entity entity : remainingEntities){
-			if(current == null){
-				current = entity;
-				continue;
-			}
-			double collisionTime = current.getTimeToCollision(entity);
-			if(collisionTime < fCollisionInvCurrent.getTimeToCollision())
-				fCollisionInvCurrent = new CollisionData(collisionTime, current.getCollisionPosition(entity),
-														CollisionType.INTER_ENTITY,
-														Arrays.asList(new Entity[]{current, entity}));
-		}
-		remainingEntities.remove(current);
-		CollisionData recursiveResult = checkEntityCollisions(remainingEntities);
-		return fCollisionInvCurrent.getTimeToCollision() < recursiveResult.getTimeToCollision() ? 
-				fCollisionInvCurrent : recursiveResult;
+	public void setBroadPhaseCellSize(double cellSize) throws IllegalArgumentException{
+		if(cellSize != 0.0 && !UniformGrid.isValidCellSize(cellSize))
+			throw new IllegalArgumentException();
+		this.broadPhaseCellSize = cellSize;
 	}
+	
+	/**
+	 * Variable registering the cell size of the broad phase of this World.
+	 */
+	private double broadPhaseCellSize = 0.0;
+	
+	/**
+	 * The number of times the time horizon of the broad phase is enlarged,
+	 * before falling back to checking each pair of entities.
+	 */
+	private static final int MAX_BROAD_PHASE_ROUNDS = 6;
+	
+	/**
+	 * The factor by which the time horizon of the broad phase is enlarged each round.
+	 */
+	private static final double BROAD_PHASE_HORIZON_FACTOR = 4.0;
 
 	/**
 	 * Terminate this World.
@@ -338,7 +1605,7 @@ public class World implements Container{
 	 */
 	public void terminate(){
 		if(!isTerminated()){
-			for(Entity entity : new ArrayList<Entity>(entities.values())){
+			for(Entity entity : new ArrayList<Entity>(entities)){
 				entity.setContainer(null);
 				removeItem(entity);
 			}
@@ -375,7 +1642,7 @@ public class World implements Container{
 	@Basic
 	@Raw
 	public boolean hasAsItem(@Raw Entity item){
-		return entities.containsValue(item);
+		return entities.contains(item);
 	}
 
 	/**
@@ -411,7 +1678,7 @@ public class World implements Container{
 	 */
 	@Override
 	public boolean hasProperItems(){
-		for(Entity entity : entities.values()){
+		for(Entity entity : entities){
 			if(!canHaveAsItem(entity))
 				return false;
 			if(entity.getContainer() != this)
@@ -444,7 +1711,66 @@ public class World implements Container{
 	public void addItem(Entity item) throws IllegalArgumentException{
 		if(!canHaveAsItem(item) || item.getContainer() != this || hasAsItem(item))
 			throw new IllegalArgumentException();
-		entities.put(item.getPosition(), item);
+		registerItem(item);
+	}
+	
+	/**
+	 * Add the given items to the entities of this World, all at once or not at all.
+	 * The items are checked against the entities of this World and against each other in a single pass,
+	 * using a position grid of the items checked so far, instead of checking all entities for each item.
+	 * 
+	 * @param  items
+	 *         The entities to be added.
+	 * @post   This World has each of the given entities as one of its entities.
+	 * 			| for each item in items:
+	 * 			|	new.hasAsItem(item)
+	 * @throws IllegalArgumentException
+	 * 		   One of the given entities cannot be an entity of this World, or two of them overlap or are the same.
+	 * 		   In that case none of them is added.
+	 * 			| items == null || 
+	 * 			| (for some item in items: !canHaveAsItem(item) || hasAsItem(item) || item.getContainer() != this) ||
+	 * 			| (for some item in items: for some other in items: item != other && item.overlaps(other)) ||
+	 * 			| (for some i, j in 0..items.size()-1: i != j && items.get(i) == items.get(j))
+	 */
+	public void addItems(Collection<? extends Entity> items) throws IllegalArgumentException{
+		if(items == null)
+			throw new IllegalArgumentException();
+		PositionGrid batch = new PositionGrid(POSITION_CELL_SIZE);
+		for(Entity item : items){
+			if(!canHaveAsItem(item) || item.getContainer() != this || hasAsItem(item) || batch.contains(item))
+				throw new IllegalArgumentException();
+			if(!batch.getOverlapping(item.getPosition(), item.getRadius(), e -> true).isEmpty())
+				throw new IllegalArgumentException();
+			batch.add(item);
+		}
+		for(Entity item : items)
+			registerItem(item);
+	}
+	
+	/**
+	 * Register the given item, which can be an entity of this World, in the stores of this World.
+	 * 
+	 * @param  item
+	 *         The Entity to be registered.
+	 * @post   This World has the given Entity as one of its entities.
+	 * 			| new.hasAsItem(item)
+	 */
+	private void registerItem(Entity item){
+		entities.add(item);
+		positions.add(item);
+		if(entityArrays != null)
+			entityArrays.add(item);
+		if(item instanceof Ship)
+			ships.add((Ship) item);
+		if(item instanceof Bullet)
+			bullets.add((Bullet) item);
+		if(item instanceof MinorPlanet)
+			minorPlanets.add((MinorPlanet) item);
+		if(item instanceof Asteroid)
+			asteroids.add((Asteroid) item);
+		if(item instanceof Planetoid)
+			planetoids.add((Planetoid) item);
+		invalidatePredictions(item);
 	}
 
 	/**
@@ -455,6 +1781,10 @@ public class World implements Container{
 	 * @post   This World no longer has the given Entity as
 	 *         one of its entities.
 	 *       | ! new.hasAsItem(item)
+	 * @effect If the given Entity is a Ship with a program, the execution of that program is stopped,
+	 * 		   so a program running on a thread of its own does not keep the Ship and this World reachable.
+	 * 			| if(item instanceof Ship && (Ship item).hasProgram())
+	 * 			| then (Ship item).getProgram().stopExecution()
 	 * @throws IllegalArgumentException
 	 * 		   The World does not have the given Entity as one of its entities
 	 * 		   or the given Entity still references any World as its container or the given Entity is null.
@@ -465,11 +1795,26 @@ public class World implements Container{
 	public void removeItem(Entity item) throws IllegalArgumentException{
 		if(!this.hasAsItem(item) || item.getContainer() != null)
 			throw new IllegalArgumentException();
-		entities.remove(item.getPosition());
+		if(item instanceof Ship && ((Ship) item).hasProgram())
+			((Ship) item).getProgram().stopExecution();
+		if(entityArrays != null)
+			entityArrays.remove(entities.indexOf(item));
+		entities.remove(item);
+		positions.remove(item);
+		ships.remove(item);
+		bullets.remove(item);
+		minorPlanets.remove(item);
+		asteroids.remove(item);
+		planetoids.remove(item);
+		invalidatedEntities.remove(item);
+		invalidatedBoundaries.remove(item);
+		if(predictionGrid != null)
+			predictionGrid.remove(item);
 	}
   
     /**
 	 * Return a set of all the entities of this world.
+	 * The resulting set cannot be modified, and is shared by all calls until the entities of this World change.
 	 * 
 	 * @return The size of the resulting set is equal to the number of
 	 *         entities of this world.
@@ -479,62 +1824,159 @@ public class World implements Container{
 	 * 		 | 	this.hasAsItem(entity)
 	 */
 	public Set<Entity> getAllEntities() {
-		return new HashSet<Entity>(entities.values());
+		return entities.getSnapshot();
+	}
+	
+	/**
+	 * Return an entity of this World other than the given entity, if there is one.
+	 * The entity is looked up in constant time, without copying the entities of this World.
+	 * 
+	 * @param entity
+	 * 			The entity to look past.
+	 * @return If this World has no entities, null is returned.
+	 * 		 | if(getNbEntities() == 0)
+	 * 		 |	then result == null
+	 * @return If this World has an entity other than the given entity, such an entity is returned.
+	 * 		 | if(for some other in getAllEntities(): other != entity)
+	 * 		 |	then result != entity && hasAsItem(result)
+	 * @return Otherwise, the given entity is returned.
+	 * 		 | if(getAllEntities().equals({entity}))
+	 * 		 |	then result == entity
+	 */
+	public Entity getAnyEntityOtherThan(Entity entity){
+		if(entities.size() == 0)
+			return null;
+		Entity first = entities.get(0);
+		if(first != entity || entities.size() == 1)
+			return first;
+		return entities.get(1);
 	}
 	
 	/**
 	* Return a set of all the Ships of this world.
+	* The resulting set cannot be modified, and is shared by all calls until the ships of this World change.
 	* 
 	* @return Each ship in the resulting set is an item of this World.
 	 * 		 | for each ship in result:
 	 * 		 | 	this.hasAsItem(ship)
 	*/
 	public Set<Ship> getShips(){
-		return getEntitiesByFilter(e -> e instanceof Ship, e -> (Ship)e);
+		return ships.getSnapshot();
 	}
 	
 	/**
 	* Return a set of all the bullets of this world.
+	* The resulting set cannot be modified, and is shared by all calls until the bullets of this World change.
 	* 
 	* @return Each bullet in the resulting set is an item of this World.
 	 * 		 | for each bullet in result:
 	 * 		 | 	this.hasAsItem(bullet)
 	*/
 	public Set<Bullet> getBullets(){
-		return getEntitiesByFilter(e -> e instanceof Bullet, e -> (Bullet)e);
+		return bullets.getSnapshot();
 	}
 	
 	/**
 	* Return a set of all the minor planets of this world.
+	* The resulting set cannot be modified, and is shared by all calls until the minor planets of this World change.
 	* 
 	* @return Each minor planet in the resulting set is an item of this World.
 	 * 		 | for each mPlanet in result:
 	 * 		 | 	this.hasAsItem(mPlanet)
 	*/
 	public Set<MinorPlanet> getMinorPlanets(){
-		return getEntitiesByFilter(e -> e instanceof MinorPlanet, e -> (MinorPlanet)e);
+		return minorPlanets.getSnapshot();
 	}
 	
 	/**
 	* Return a set of all the asteroids of this world.
+	* The resulting set cannot be modified, and is shared by all calls until the asteroids of this World change.
 	* 
 	* @return Each asteroid in the resulting set is an item of this World.
 	 * 		 | for each asteroid in result:
 	 * 		 | 	this.hasAsItem(asteroid)
 	*/
 	public Set<Asteroid> getAsteroids(){
-		return getEntitiesByFilter(e -> e instanceof Asteroid, e -> (Asteroid)e);
+		return asteroids.getSnapshot();
 	}
 	
 	/**
 	* Return a set of all the planetoids of this world.
+	* The resulting set cannot be modified, and is shared by all calls until the planetoids of this World change.
 	* 
 	* @return Each planetoid in the resulting set is an item of this World.
 	 * 		 | for each planetoid in result:
 	 * 		 | 	this.hasAsItem(planetoid)
 	*/
 	public Set<Planetoid> getPlanetoids(){
-		return getEntitiesByFilter(e -> e instanceof Planetoid, e -> (Planetoid)e);
+		return planetoids.getSnapshot();
+	}
+	
+	/**
+	 * Return a read-only view of all the entities of this World. The view reflects
+	 * later changes to the entities of this World.
+	 * 
+	 * @return | result.size() == getNbItems()
+	 * @return | for each entity in result:
+	 * 		   | 	this.hasAsItem(entity)
+	 */
+	public Collection<Entity> getEntitiesView(){
+		return entitiesView;
+	}
+	
+	/**
+	 * Return a read-only view of all the ships of this World.
+	 * 
+	 * @return | result.size() == getShips().size()
+	 * @return | for each ship in result:
+	 * 		   | 	getShips().contains(ship)
+	 */
+	public Collection<Ship> getShipsView(){
+		return shipsView;
+	}
+	
+	/**
+	 * Return a read-only view of all the bullets of this World.
+	 * 
+	 * @return | result.size() == getBullets().size()
+	 * @return | for each bullet in result:
+	 * 		   | 	getBullets().contains(bullet)
+	 */
+	public Collection<Bullet> getBulletsView(){
+		return bulletsView;
+	}
+	
+	/**
+	 * Return a read-only view of all the minor planets of this World.
+	 * 
+	 * @return | result.size() == getMinorPlanets().size()
+	 * @return | for each minorPlanet in result:
+	 * 		   | 	getMinorPlanets().contains(minorPlanet)
+	 */
+	public Collection<MinorPlanet> getMinorPlanetsView(){
+		return minorPlanetsView;
+	}
+	
+	/**
+	 * Return a read-only view of all the asteroids of this World.
+	 * 
+	 * @return | result.size() == getAsteroids().size()
+	 * @return | for each asteroid in result:
+	 * 		   | 	getAsteroids().contains(asteroid)
+	 */
+	public Collection<Asteroid> getAsteroidsView(){
+		return asteroidsView;
+	}
+	
+	/**
+	 * Return a read-only view of all the planetoids of this World.
+	 * 
+	 * @return | result.size() == getPlanetoids().size()
+	 * @return | for each planetoid in result:
+	 * 		   | 	getPlanetoids().contains(planetoid)
+	 */
+	public Collection<Planetoid> getPlanetoidsView(){
+		return planetoidsView;
 	}
 	
 	/**
@@ -550,7 +1992,7 @@ public class World implements Container{
 	 * 		 | 	this.hasAsItem(entity)
 	 */
 	public <T extends Entity> Set<T> getEntitiesByFilter(Predicate<? super Entity> filter, Function<? super Entity, T> map){
-		return entities.values().stream().filter(filter).map(map).collect(Collectors.toSet());
+		return entities.stream().filter(filter).map(map).collect(Collectors.toSet());
 	}
 	
 	/**
@@ -558,19 +2000,103 @@ public class World implements Container{
 	 * otherwise the result is null.
 	 * @param position
 	 * 			The given position
-	 * @return  | if(entities.hasKey(position))
-	 * 			| then result.getPosition() == position
+	 * @return  | if(for some entity in getAllEntities(): entity.getPosition().equals(position))
+	 * 			| then result.getPosition().equals(position)
 	 * 			| else result == null
 	 * 
 	 */
 	public Entity getEntityAt(Vector2d position){
-		return entities.get(position);
+		return positions.getEntityAt(position);
+	}
+	
+	/**
+	 * Return the Entity of the given type in this World nearest to the given Entity, other than the given Entity.
+	 * 
+	 * @param entity
+	 * 			The Entity to search from.
+	 * @param type
+	 * 			The type of the resulting Entity.
+	 * @return | if(getNearestEntities(entity, type, 1).isEmpty())
+	 * 		   | then result == null
+	 * 		   | else result == getNearestEntities(entity, type, 1).get(0)
+	 * @throws IllegalArgumentException
+	 * 			| entity == null || type == null
+	 */
+	public <T extends Entity> T getNearestEntity(Entity entity, Class<T> type) throws IllegalArgumentException{
+		List<T> nearest = getNearestEntities(entity, type, 1);
+		return nearest.isEmpty() ? null : nearest.get(0);
+	}
+	
+	/**
+	 * Return the given number of entities of the given type in this World nearest to the given Entity,
+	 * other than the given Entity, ordered by increasing distance to the given Entity.
+	 * 
+	 * @param entity
+	 * 			The Entity to search from.
+	 * @param type
+	 * 			The type of the resulting entities.
+	 * @param number
+	 * 			The maximal number of resulting entities.
+	 * @return | result.size() == Math.min(number, |{other in getAllEntities() | type.isInstance(other) && other != entity}|)
+	 * @return | for each other in getAllEntities():
+	 * 		   |	if(type.isInstance(other) && other != entity && !result.contains(other))
+	 * 		   |	then for each nearer in result:
+	 * 		   |		entity.getDistanceBetween(nearer) <= entity.getDistanceBetween(other)
+	 * @throws IllegalArgumentException
+	 * 			| entity == null || type == null || number < 0
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Entity> List<T> getNearestEntities(Entity entity, Class<T> type, int number) throws IllegalArgumentException{
+		if(entity == null || type == null || number < 0)
+			throw new IllegalArgumentException();
+		Collection<? extends Entity> candidates = getEntitiesOfType(type);
+		Predicate<Entity> filter = e -> e != entity && type.isInstance(e);
+		List<Entity> nearest = positions.getNearest(entity.getPosition(), number, filter, 
+				MAX_NEAREST_VISITS_PER_CANDIDATE * candidates.size() + MIN_NEAREST_VISITS);
+		if(nearest == null){
+			PositionGrid.NearestCollector collector = new PositionGrid.NearestCollector(entity.getPosition(), number);
+			for(Entity candidate : candidates)
+				if(filter.test(candidate))
+					collector.accept(candidate);
+			nearest = collector.getResult();
+		}
+		return (List<T>) nearest;
+	}
+	
+	/**
+	 * Return the store of this World holding the entities of the given type,
+	 * or the store of all entities if there is no store for the given type.
+	 */
+	private Collection<? extends Entity> getEntitiesOfType(Class<? extends Entity> type){
+		if(type == Ship.class)
+			return ships;
+		if(type == Bullet.class)
+			return bullets;
+		if(type == MinorPlanet.class)
+			return minorPlanets;
+		if(type == Asteroid.class)
+			return asteroids;
+		if(type == Planetoid.class)
+			return planetoids;
+		return entities;
 	}
 	
 	/**
-	 * Return the entities which the given entity overlaps with in this world.
+	 * The number of cells and entities a search for the nearest entities may visit per
+	 * candidate, before all candidates are checked instead.
+	 */
+	private static final int MAX_NEAREST_VISITS_PER_CANDIDATE = 4;
+	
+	/**
+	 * The number of cells and entities a search for the nearest entities may always visit.
+	 */
+	private static final int MIN_NEAREST_VISITS = 64;
+	
+	/**
+	 * Return the entities which the given entity overlaps with in this world, in the order of the entities of this world.
 	 * This function is used for an entity not yet in the entities of this world,
 	 * otherwise this function returns an empty list.
+	 * Only the entities in the cells of the position grid of this world near the given entity are checked.
 	 * 
 	 * @param entity
 	 * 		The entity to check.
@@ -583,11 +2109,13 @@ public class World implements Container{
 	public List<Entity> overlapsWithAnyEntity(Entity entity) throws NullPointerException{
 		if (entity == null)
 			throw new NullPointerException();
-		return entities.values().stream().filter(e -> e.overlaps(entity) && entity != e).collect(Collectors.toList());
+		return inStoreOrder(positions.getOverlapping(entity.getPosition(), entity.getRadius(), e -> e != entity));
 	}
 	
 	/**
-	 * Return the entities which an object with given radius and position, would overlap with in this world.
+	 * Return the entities which an object with given radius and position, would overlap with in this world,
+	 * in the order of the entities of this world.
+	 * Only the entities in the cells of the position grid of this world near the given position are checked.
 	 * 
 	 * @param position 
 	 * 		The given position.
@@ -601,24 +2129,71 @@ public class World implements Container{
 	public List<Entity> overlapsWithAnyEntity(Vector2d position, double radius) throws NullPointerException{
 		if (position == null)
 			throw new NullPointerException();
-		return entities.values().stream().filter(e -> e.overlapsCircle(position, radius)).collect(Collectors.toList());
+		return inStoreOrder(positions.getOverlapping(position, radius, e -> true));
+	}
+	
+	/**
+	 * Sort the given entities of this world in the order of their index in the store of all entities,
+	 * so the result does not depend on how they are laid out in the position grid.
+	 */
+	private List<Entity> inStoreOrder(List<Entity> found){
+		if(found.size() > 1)
+			found.sort((a, b) -> Integer.compare(entities.indexOf(a), entities.indexOf(b)));
+		return found;
 	}
 
 	/**
-	 * Variable referencing a map collecting all the entities
-	 * of this world mapped by their position.
+	 * Variable referencing a store collecting all the entities of this world.
 	 * 
-	 * @invar  The referenced map is effective.
+	 * @invar  The referenced store is effective.
 	 *       | entities != null
-	 * @invar  Each entity registered in the referenced set is
+	 * @invar  Each entity registered in the referenced store is
 	 *         effective and not yet terminated.
-	 *       | for each {position, entity} in entities:
+	 *       | for each entity in entities:
 	 *       |   ( (entity != null) &&
 	 *       |     (! entity.isTerminated()) )
-	 * @invar The Entities are mapped to their current position
-	 * 		 | for each {position, entity} in entities:
-	 *       |   entity.getPosition().equals(position)
 	 */
-	private final Map<Vector2d, Entity> entities = new HashMap<Vector2d, Entity>();
+	private final EntityStore<Entity> entities = new EntityStore<Entity>();
+	
+	/**
+	 * Variables referencing stores collecting the entities of this world by their type.
+	 * 
+	 * @invar Each store contains exactly the entities of this world of its type.
+	 * 		 | for each entity in entities:
+	 * 		 |   ships.contains(entity) == (entity instanceof Ship) &&
+	 * 		 |   bullets.contains(entity) == (entity instanceof Bullet) &&
+	 * 		 |   minorPlanets.contains(entity) == (entity instanceof MinorPlanet) &&
+	 * 		 |   asteroids.contains(entity) == (entity instanceof Asteroid) &&
+	 * 		 |   planetoids.contains(entity) == (entity instanceof Planetoid)
+	 */
+	private final EntityStore<Ship> ships = new EntityStore<Ship>();
+	private final EntityStore<Bullet> bullets = new EntityStore<Bullet>();
+	private final EntityStore<MinorPlanet> minorPlanets = new EntityStore<MinorPlanet>();
+	private final EntityStore<Asteroid> asteroids = new EntityStore<Asteroid>();
+	private final EntityStore<Planetoid> planetoids = new EntityStore<Planetoid>();
+	
+	/**
+	 * Variables referencing read-only views of the stores of this world.
+	 */
+	private final Collection<Entity> entitiesView = Collections.unmodifiableCollection(entities);
+	private final Collection<Ship> shipsView = Collections.unmodifiableCollection(ships);
+	private final Collection<Bullet> bulletsView = Collections.unmodifiableCollection(bullets);
+	private final Collection<MinorPlanet> minorPlanetsView = Collections.unmodifiableCollection(minorPlanets);
+	private final Collection<Asteroid> asteroidsView = Collections.unmodifiableCollection(asteroids);
+	private final Collection<Planetoid> planetoidsView = Collections.unmodifiableCollection(planetoids);
+	
+	/**
+	 * Variable referencing a grid indexing all the entities of this world by their current position.
+	 * 
+	 * @invar The referenced grid contains each entity of this world.
+	 * 		 | for each entity in entities:
+	 *       |   positions.contains(entity)
+	 */
+	private final PositionGrid positions = new PositionGrid(POSITION_CELL_SIZE);
+	
+	/**
+	 * The cell size of the grid indexing the entities of a world by their position.
+	 */
+	private static final double POSITION_CELL_SIZE = 100.0;
 
 }
@@ -0,0 +1,11 @@
+package asteroids.model.programs;
+
+/**
+ * An enumeration of the ways a Program can be executed.
+ * INTERPRETER executes the statements and expressions of the program directly,
+ * COMPILED executes the instructions they are compiled to on a VirtualMachine,
+ * THREADED interprets the program on a thread of its own, which parks while it waits for time to execute actions.
+ */
+public enum ExecutionBackend {
+	INTERPRETER, COMPILED, THREADED
+}
@@ -1,15 +1,16 @@
 package asteroids.model.programs;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Stack;
 
 import asteroids.model.Ship;
 import asteroids.model.World;
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.model.programs.statements.Action;
+import asteroids.model.programs.statements.ActionType;
 import asteroids.model.programs.statements.BlockStatement;
 import asteroids.model.programs.statements.Statement;
 import asteroids.part3.programs.SourceLocation;
@@ -17,11 +18,11 @@ import asteroids.part3.programs.SourceLocation;
 public class ExecutionContext {
 
 
-	public ExecutionContext(Ship executor, World world) throws IllegalArgumentException{
+	public ExecutionContext(Ship executor, World world, VariableTable globals) throws IllegalArgumentException{
 		if(executor == null)
 			throw new IllegalArgumentException();
 		this.executor = executor;
-		this.globalScope = new GlobalScope();
+		this.globalScope = new GlobalScope(globals);
 		this.world = world;
 	}
 
@@ -55,48 +56,199 @@ public class ExecutionContext {
 	
 	private final Ship executor;
 	
+	/**
+	 * Return the orientation of the executor, including the turns it buffered.
+	 */
+	public double getExecutorOrientation(){
+		if(nbBufferedActions > 0)
+			return bufferedOrientation;
+		return executor.getOrientation();
+	}
+	
+	/**
+	 * Turn the executor over the given angle, or buffer the turn if this ExecutionContext
+	 * is buffering actions.
+	 * 
+	 * @throws AssertionError
+	 * 			The resulting orientation is not a valid orientation for a Ship.
+	 */
+	public void turnExecutor(double angle){
+		if(!isBufferingActions()){
+			apply(ActionType.TURN, angle);
+			return;
+		}
+		double orientation = getExecutorOrientation() + angle;
+		assert Ship.isValidOrientation(orientation);
+		bufferAction(ActionType.TURN, angle);
+		bufferedOrientation = orientation;
+	}
+	
+	/**
+	 * Make the executor fire a bullet or turn its thruster on or off, or buffer the action if
+	 * this ExecutionContext is buffering actions.
+	 */
+	public void performAction(ActionType action){
+		if(isBufferingActions())
+			bufferAction(action, 0.0);
+		else
+			apply(action, 0.0);
+	}
+	
+	private void apply(ActionType action, double angle){
+		switch(action){
+		case FIRE_BULLET:
+			executor.fireBullet();
+			break;
+		case THRUST_ON:
+			executor.thrustOn();
+			break;
+		case THRUST_OFF:
+			executor.thrustOff();
+			break;
+		case TURN:
+			executor.turn(angle);
+			break;
+		default:
+			break;
+		}
+	}
+	
+	/**
+	 * Return whether the actions of the executor are buffered, rather than applied as they are
+	 * executed. Buffered actions only take effect once they are applied, in the order they
+	 * were executed.
+	 */
+	public boolean isBufferingActions(){
+		return bufferingActions;
+	}
+	
+	public void setBufferingActions(boolean state){
+		this.bufferingActions = state;
+	}
+	
+	private boolean bufferingActions = false;
+	
+	/**
+	 * Apply the buffered actions to the executor, in the order they were executed, and clear them.
+	 */
+	public void applyBufferedActions(){
+		for(int i = 0; i < nbBufferedActions; i++){
+			apply(bufferedActions[i], bufferedAngles[i]);
+			bufferedActions[i] = null;
+		}
+		nbBufferedActions = 0;
+	}
+	
+	private void bufferAction(ActionType action, double angle){
+		if(nbBufferedActions == 0)
+			bufferedOrientation = executor.getOrientation();
+		if(nbBufferedActions == bufferedActions.length){
+			bufferedActions = Arrays.copyOf(bufferedActions, 2 * bufferedActions.length);
+			bufferedAngles = Arrays.copyOf(bufferedAngles, 2 * bufferedAngles.length);
+		}
+		bufferedActions[nbBufferedActions] = action;
+		bufferedAngles[nbBufferedActions] = angle;
+		nbBufferedActions++;
+	}
+	
+	private ActionType[] bufferedActions = new ActionType[8];
+	private double[] bufferedAngles = new double[8];
+	private int nbBufferedActions = 0;
+	
+	/**
+	 * Variable registering the orientation of the executor once its buffered actions are applied.
+	 */
+	private double bufferedOrientation;
+	
 	public Scope getCurrentScope(){
-		Function f = getCurrentFunction();
-		if(f != null)
-			return f.getLocalScope();
+		if(nbFrames > 0)
+			return frames[nbFrames - 1];
 		return getGlobalScope();
 	}
 	
+	/**
+	 * Push a frame with the given number of slots for a function call, and return it.
+	 * Frames are reused by later calls once they are popped.
+	 */
+	public LocalScope pushFrame(int nbSlots){
+		if(nbFrames == frames.length)
+			frames = Arrays.copyOf(frames, 2 * frames.length);
+		if(frames[nbFrames] == null)
+			frames[nbFrames] = new LocalScope(getGlobalScope(), nbSlots);
+		else
+			frames[nbFrames].reset(nbSlots);
+		return frames[nbFrames++];
+	}
+	
+	public void popFrame(){
+		if(nbFrames > 0)
+			nbFrames--;
+	}
+	
+	private LocalScope[] frames = new LocalScope[8];
+	private int nbFrames = 0;
+	
+	/**
+	 * Push an argument of the function call being evaluated.
+	 */
+	public void pushArgument(Type argument){
+		if(nbArguments == arguments.length)
+			arguments = Arrays.copyOf(arguments, 2 * arguments.length);
+		arguments[nbArguments++] = argument;
+	}
+	
+	public Type popArgument(){
+		Type argument = arguments[--nbArguments];
+		arguments[nbArguments] = null;
+		return argument;
+	}
+	
+	private Type[] arguments = new Type[8];
+	private int nbArguments = 0;
+	
 	public GlobalScope getGlobalScope(){
 		return globalScope;
 	}
 	
 	private final GlobalScope globalScope;
 	
-	private Function getCurrentFunction(){
-		Function f = null;
-		for(Interruptable d : stack)
-			if(d instanceof Function)
-				f = (Function) d;
-		return f;
-	}
-	
+	/**
+	 * Return whether a function is being executed, that is whether a Function is on the execution stack.
+	 */
 	private boolean inFunction(){
-		return getCurrentFunction() != null;
+		return nbFunctionsOnStack > 0;
 	}
 
 	public void addToStack(Interruptable d, SourceLocation line) throws ProgramExecutionTimeException {
 		if (d == null)
 			throw new ProgramExecutionTimeException("Trying to add null to the execution stack", line);
-		stack.push(d);
+		if(stackSize == stack.length)
+			stack = Arrays.copyOf(stack, 2 * stack.length);
+		stack[stackSize++] = d;
+		if(d instanceof Function)
+			nbFunctionsOnStack++;
 	}
 	
 	public void interruptFromCurrent(Statement interruptStatement, SourceLocation line) throws ProgramExecutionTimeException {
 		Interruptable top = null;
 		do {
-			if (stack.isEmpty())
+			if (stackSize == 0)
 				throw new ProgramExecutionTimeException("No Interruptable to interrupt from.", line);
-			top = stack.pop();
+			top = stack[--stackSize];
+			stack[stackSize] = null;
+			if(top instanceof Function)
+				nbFunctionsOnStack--;
 		} while (!(top.isValidInterruptStatement(interruptStatement)));
 		top.onInterrupt(this);
 	}
 	
-	private Stack<Interruptable> stack = new Stack<Interruptable>();
+	/**
+	 * Variables registering the execution stack, the number of Interruptables on it, and
+	 * the number of them that are functions.
+	 */
+	private Interruptable[] stack = new Interruptable[16];
+	private int stackSize = 0;
+	private int nbFunctionsOnStack = 0;
 	
 	public boolean isBreaking(){
 		return breakBlockStatement;
@@ -118,7 +270,12 @@ public class ExecutionContext {
 	private boolean returning = false;
 	
 	public void clearStack(){
-		stack.clear();
+		Arrays.fill(stack, 0, stackSize, null);
+		stackSize = 0;
+		nbFunctionsOnStack = 0;
+		nbFrames = 0;
+		Arrays.fill(arguments, 0, nbArguments, null);
+		nbArguments = 0;
 	}
 	
 	public void addExecTime(double timeDelta){
@@ -132,9 +289,28 @@ public class ExecutionContext {
 	}
 	
 	public boolean canExecuteAction(){
+		if(threadedExecution != null && !hasActionTime() && threadedExecution.isExecutingThread())
+			threadedExecution.awaitActionTime();
+		return hasActionTime();
+	}
+	
+	/**
+	 * Return whether enough time is left to execute an action. Unlike canExecuteAction, this never
+	 * parks the thread of a threaded execution.
+	 */
+	boolean hasActionTime(){
 		return executionTimeLeft >= Action.ACTION_TIME;
 	}
 	
+	/**
+	 * Set the threaded execution running the program of this ExecutionContext on a thread of its own.
+	 */
+	void setThreadedExecution(ThreadedExecution threadedExecution){
+		this.threadedExecution = threadedExecution;
+	}
+	
+	private ThreadedExecution threadedExecution;
+	
 	private double executionTimeLeft;
 	
 	public int getBlockPointerFor(BlockStatement b){
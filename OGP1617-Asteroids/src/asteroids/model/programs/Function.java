@@ -1,14 +1,17 @@
 package asteroids.model.programs;
 
-import java.util.List;
-
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.model.programs.statements.BlockStatement;
 import asteroids.model.programs.statements.ReturnStatement;
 import asteroids.model.programs.statements.Statement;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
+/**
+ * A class of function definitions. A Function is shared by all calls of it: the
+ * variables of a call live in a frame of the ExecutionContext making it.
+ */
 public class Function implements Interruptable{
 	
 	public Function(String functionName, Statement body, SourceLocation sourceLocation) throws IllegalArgumentException{
@@ -19,20 +22,29 @@ public class Function implements Interruptable{
 		this.sourceLocation = sourceLocation;
 	}
 	
-	public Type execute(ExecutionContext context, List<Type> arguments) throws ProgramExecutionTimeException{
+	/**
+	 * Execute this Function in the given context, with the given number of arguments on top
+	 * of the argument stack of the context. The arguments are popped, and bound to the
+	 * parameters of a new frame of the context.
+	 */
+	public Type execute(ExecutionContext context, int nbArguments) throws ProgramExecutionTimeException{
 		if(context == null)
 			throw new ProgramExecutionTimeException("The execution context of this Function was not set", getSourceLocation());
-		localScope = new LocalScope(context.getGlobalScope());
-		for(int i = 0; i < arguments.size(); i++)
-			getLocalScope().putVariable("$"+String.valueOf(i+1), arguments.get(i), getSourceLocation());
+		LocalScope frame = context.pushFrame(getVariableTable().getNbSlots());
+		for(int i = nbArguments - 1; i >= 0; i--){
+			Type argument = context.popArgument();
+			if(getVariableTable().getParameterSlot(i) >= 0)
+				frame.putVariable(getVariableTable().getParameterSlot(i), -1, argument, getSourceLocation());
+		}
 		context.getGlobalScope().setReadOnly(true);
 		context.addToStack(this, getSourceLocation());
 		body.execute(context);
+		context.popFrame();
 		if(context.isReturning()){
 			context.setBreakBlockStatement(false);
 			context.setReturn(false);
 			context.getGlobalScope().setReadOnly(false);
-			return localScope.getVariable("$0", getSourceLocation());
+			return frame.getReturnValue();
 		}
 		else if(context.isBreaking()){
 			context.getGlobalScope().setReadOnly(false);
@@ -40,12 +52,6 @@ public class Function implements Interruptable{
 		}
 		throw new ProgramExecutionTimeException("No return statement in function: " + name, getSourceLocation());
 	}
-
-	public LocalScope getLocalScope() {
-		return localScope;
-	}
-	
-	private LocalScope localScope;
 	
 	public SourceLocation getSourceLocation(){
 		return sourceLocation;
@@ -61,6 +67,36 @@ public class Function implements Interruptable{
 	
 	private final BlockStatement body;
 	
+	@Basic
+	public BlockStatement getBody(){
+		return body;
+	}
+	
+	/**
+	 * Return the table binding the local variables of this Function to slots.
+	 */
+	@Basic
+	public VariableTable getVariableTable(){
+		return variableTable;
+	}
+	
+	/**
+	 * Set the table binding the local variables of this Function to slots to the given table.
+	 * The table is set once, when the program of this Function is resolved.
+	 * 
+	 * @throws IllegalArgumentException
+	 * 			| table == null || getVariableTable() != EMPTY_TABLE
+	 */
+	void setVariableTable(VariableTable table) throws IllegalArgumentException{
+		if(table == null || variableTable != EMPTY_TABLE)
+			throw new IllegalArgumentException();
+		this.variableTable = table;
+	}
+	
+	private VariableTable variableTable = EMPTY_TABLE;
+	
+	private static final VariableTable EMPTY_TABLE = new VariableTable(new String[0], new boolean[0], new boolean[0]);
+	
 	@Override
 	public void onInterrupt(ExecutionContext executionContext) {
 		executionContext.setBreakBlockStatement(true);
@@ -72,8 +108,4 @@ public class Function implements Interruptable{
 		return s instanceof ReturnStatement;
 	}
 
-	public Function getNew(){
-		return new Function(getName(), body, getSourceLocation());
-	}
-	
 }
@@ -6,20 +6,40 @@ import asteroids.part3.programs.SourceLocation;
 
 public class GlobalScope extends Scope {
 	
-	public void putVariable(String varName, Type value, SourceLocation line) throws ProgramExecutionTimeException{
+	public GlobalScope(VariableTable table) throws IllegalArgumentException{
+		if(table == null)
+			throw new IllegalArgumentException();
+		this.table = table;
+		this.variables = new Type[table.getNbSlots()];
+	}
+	
+	private final VariableTable table;
+	private final Type[] variables;
+	
+	public void putVariable(int localSlot, int globalSlot, Type value, SourceLocation line) throws ProgramExecutionTimeException{
 		if(readOnly)
 			throw new ProgramExecutionTimeException("Unable to write variables to this Scope", line);
-		if(functionMap.containsKey(varName))
+		if(!isValidSlot(globalSlot))
+			throw new ProgramExecutionTimeException("Unresolved variable", line);
+		if(table.isFunctionName(globalSlot))
 			throw new ProgramExecutionTimeException("Duplicate name with a function.", line);
-		if(variableMap.containsKey(varName) && !(variableMap.get(varName).getClass().isAssignableFrom(value.getClass())))
+		if(!table.isTypeChecked(globalSlot) && variables[globalSlot] != null && variables[globalSlot].getClass() != value.getClass())
 			throw new ProgramExecutionTimeException("The type of this variable is incompatible with given Type: " + value.getClass().toString(), line);
-		variableMap.put(varName, value);
+		variables[globalSlot] = value;
+	}
+	
+	public Type getVariable(int localSlot, int globalSlot, SourceLocation line) throws ProgramExecutionTimeException{
+		if(!hasAsVariable(globalSlot))
+			throw new ProgramExecutionTimeException("No such variable: " + (isValidSlot(globalSlot) ? table.getName(globalSlot) : "unresolved"), line);
+		return variables[globalSlot];
+	}
+	
+	public boolean hasAsVariable(int globalSlot){
+		return isValidSlot(globalSlot) && variables[globalSlot] != null;
 	}
 	
-	public Type getVariable(String varName, SourceLocation line) throws ProgramExecutionTimeException{
-		if(!hasAsVariable(varName))
-			throw new ProgramExecutionTimeException("No such variable: " + varName, line);
-		return variableMap.get(varName);
+	private boolean isValidSlot(int globalSlot){
+		return globalSlot >= 0 && globalSlot < variables.length;
 	}
 	
 	public void putFunction(String functionName, Function function, SourceLocation line) throws ProgramExecutionTimeException{
@@ -31,7 +51,7 @@ public class GlobalScope extends Scope {
 	public Function getFunction(String functionName, SourceLocation line) throws ProgramExecutionTimeException{
 		if(!functionMap.containsKey(functionName))
 			throw new ProgramExecutionTimeException("No such function: " + functionName, line);
-		return functionMap.get(functionName).getNew();
+		return functionMap.get(functionName);
 	}
 	
 	public void setReadOnly(boolean state){
@@ -1,5 +1,7 @@
 package asteroids.model.programs;
 
+import java.util.Arrays;
+
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
@@ -7,24 +9,39 @@ import asteroids.part3.programs.SourceLocation;
 public class LocalScope extends Scope{
 	
 
-	public LocalScope(Scope global){
+	public LocalScope(GlobalScope global, int nbSlots){
 		this.global = global;
+		this.variables = new Type[nbSlots];
+		this.nbSlots = nbSlots;
 	}
 
-	private final Scope global;
+	private final GlobalScope global;
+	private Type[] variables;
+	private int nbSlots;
+	
+	/**
+	 * Clear this LocalScope for a new call with the given number of slots, so it can be reused
+	 * as a frame of an ExecutionContext.
+	 */
+	void reset(int nbSlots){
+		if(nbSlots > variables.length)
+			variables = new Type[nbSlots];
+		else
+			Arrays.fill(variables, 0, this.nbSlots, null);
+		this.nbSlots = nbSlots;
+		setReturnValue(null);
+	}
 	
-	public void putVariable(String varName, Type value, SourceLocation line) throws ProgramExecutionTimeException{
-		if(variableMap.containsKey(varName) && !(variableMap.get(varName) instanceof Type))
-			throw new ProgramExecutionTimeException("Type Mismatch - The type of this variable is incompatible with given Type: " + value.getClass().toString(), line);
-		variableMap.put(varName, value);
+	public void putVariable(int localSlot, int globalSlot, Type value, SourceLocation line) throws ProgramExecutionTimeException{
+		if(localSlot < 0 || localSlot >= nbSlots)
+			throw new ProgramExecutionTimeException("Unresolved variable", line);
+		variables[localSlot] = value;
 	}
 	
-	public Type getVariable(String varName, SourceLocation line) throws ProgramExecutionTimeException{
-		if(hasAsVariable(varName))
-			return variableMap.get(varName);
-		if(global.hasAsVariable(varName))
-			return global.variableMap.get(varName);
-		throw new ProgramExecutionTimeException("No such variable: " + varName, line);
+	public Type getVariable(int localSlot, int globalSlot, SourceLocation line) throws ProgramExecutionTimeException{
+		if(localSlot >= 0 && localSlot < nbSlots && variables[localSlot] != null)
+			return variables[localSlot];
+		return global.getVariable(-1, globalSlot, line);
 	}
 	
 	public Function getFunction(String functionName, SourceLocation line) throws ProgramExecutionTimeException{
@@ -0,0 +1,80 @@
+package asteroids.model.programs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import asteroids.model.programs.expressions.types.Type;
+import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of reports of the simplifications a ProgramOptimizer made to a program.
+ */
+public class OptimizationReport {
+
+	/**
+	 * Return the number of constant expressions that were folded to a literal.
+	 */
+	@Basic
+	public int getNbFoldedExpressions(){
+		return nbFoldedExpressions;
+	}
+	
+	/**
+	 * Return the number of if and while statements, or branches of them, that were removed
+	 * because they can never execute.
+	 */
+	@Basic
+	public int getNbRemovedBranches(){
+		return nbRemovedBranches;
+	}
+	
+	/**
+	 * Return the number of while statements whose condition is always true, and which
+	 * loop without evaluating it.
+	 */
+	@Basic
+	public int getNbUnconditionalLoops(){
+		return nbUnconditionalLoops;
+	}
+	
+	/**
+	 * Return a description of each simplification, in the order they were made.
+	 */
+	public List<String> getSimplifications(){
+		return Collections.unmodifiableList(simplifications);
+	}
+	
+	/**
+	 * Return whether no simplifications were made.
+	 */
+	public boolean isEmpty(){
+		return simplifications.isEmpty();
+	}
+	
+	void addFoldedExpression(SourceLocation location, Type value){
+		nbFoldedExpressions++;
+		simplifications.add("Folded constant expression to " + value + " " + location);
+	}
+	
+	void addRemovedBranch(String description, SourceLocation location){
+		nbRemovedBranches++;
+		simplifications.add("Removed " + description + " " + location);
+	}
+	
+	void addUnconditionalLoop(SourceLocation location){
+		nbUnconditionalLoops++;
+		simplifications.add("Made loop with constant true condition unconditional " + location);
+	}
+	
+	@Override
+	public String toString(){
+		return String.join(System.lineSeparator(), simplifications);
+	}
+	
+	private int nbFoldedExpressions = 0;
+	private int nbRemovedBranches = 0;
+	private int nbUnconditionalLoops = 0;
+	private final List<String> simplifications = new ArrayList<String>();
+}
@@ -0,0 +1,255 @@
+package asteroids.model.programs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import asteroids.model.programs.expressions.BinaryArithmeticExpression;
+import asteroids.model.programs.expressions.BinaryExpression;
+import asteroids.model.programs.expressions.BinaryLessThanExpression;
+import asteroids.model.programs.expressions.BooleanLiteralExpression;
+import asteroids.model.programs.expressions.DoubleLiteralExpression;
+import asteroids.model.programs.expressions.EqualsExpression;
+import asteroids.model.programs.expressions.Expression;
+import asteroids.model.programs.expressions.FunctionCallExpression;
+import asteroids.model.programs.expressions.NotExpression;
+import asteroids.model.programs.expressions.UnaryArithmeticExpression;
+import asteroids.model.programs.expressions.UnaryEntityGetExpression;
+import asteroids.model.programs.expressions.UnaryExpression;
+import asteroids.model.programs.expressions.types.BooleanLiteral;
+import asteroids.model.programs.expressions.types.DoubleLiteral;
+import asteroids.model.programs.expressions.types.EntityLiteral;
+import asteroids.model.programs.expressions.types.Type;
+import asteroids.model.programs.statements.AssingmentStatement;
+import asteroids.model.programs.statements.BlockStatement;
+import asteroids.model.programs.statements.IfStatement;
+import asteroids.model.programs.statements.PrintStatement;
+import asteroids.model.programs.statements.ReturnStatement;
+import asteroids.model.programs.statements.Statement;
+import asteroids.model.programs.statements.TurnAction;
+import asteroids.model.programs.statements.WhileStatement;
+
+/**
+ * A class of optimizers, simplifying a program built by a ProgramFactory before it is executed.
+ *
+ * Constant sub-expressions are folded to literals. If statements with a constant condition are
+ * replaced by the branch they execute, while statements with a constant false condition are
+ * removed, and while statements with a constant true condition loop without evaluating it.
+ * Expressions whose operands are constants of the wrong type are left as they are, so they
+ * still fail when they are evaluated.
+ *
+ * The tree of a program is immutable: an optimizer returns new nodes for the parts it simplifies,
+ * and the same nodes for the parts it leaves as they are.
+ */
+public class ProgramOptimizer {
+
+	/**
+	 * Return the report of the simplifications this ProgramOptimizer made so far.
+	 */
+	public OptimizationReport getReport(){
+		return report;
+	}
+
+	private final OptimizationReport report = new OptimizationReport();
+
+	/**
+	 * Return the given function with its body optimized.
+	 */
+	public Function optimize(Function function){
+		Statement body = unwrap(function.getBody());
+		Statement optimized = optimize(body);
+		if(optimized == body)
+			return function;
+		if(optimized == null)
+			optimized = new BlockStatement(body.getSourceLocation(), new ArrayList<Statement>());
+		return new Function(function.getName(), optimized, function.getSourceLocation());
+	}
+
+	/**
+	 * Return the given statement optimized, or null if it never has an effect.
+	 */
+	@SuppressWarnings("unchecked")
+	public Statement optimize(Statement statement){
+		if(statement instanceof BlockStatement){
+			List<Statement> statements = ((BlockStatement) statement).getStatements();
+			List<Statement> optimized = new ArrayList<Statement>(statements.size());
+			boolean changed = false;
+			for(Statement s : statements){
+				Statement o = optimize(s);
+				if(o != null)
+					optimized.add(o);
+				changed |= o != s;
+			}
+			return changed ? new BlockStatement(statement.getSourceLocation(), optimized) : statement;
+		}else if(statement instanceof AssingmentStatement){
+			AssingmentStatement assignment = (AssingmentStatement) statement;
+			Expression<? extends Type> expression = optimize(assignment.getExpression());
+			if(expression == assignment.getExpression())
+				return statement;
+			return new AssingmentStatement(statement.getSourceLocation(), assignment.getVariableName(), expression);
+		}else if(statement instanceof IfStatement){
+			IfStatement ifStatement = (IfStatement) statement;
+			Expression<? extends Type> condition = optimize(ifStatement.getCondition());
+			if(condition instanceof BooleanLiteralExpression){
+				if(((BooleanLiteralExpression) condition).getValue().booleanValue()){
+					if(ifStatement.getElseBody() != null)
+						report.addRemovedBranch("unreachable else branch", statement.getSourceLocation());
+					return optimize(ifStatement.getBody());
+				}
+				report.addRemovedBranch(ifStatement.getElseBody() != null ? "unreachable if branch" : "if statement with constant false condition",
+						statement.getSourceLocation());
+				return ifStatement.getElseBody() == null ? null : optimize(ifStatement.getElseBody());
+			}
+			Statement body = unwrap(ifStatement.getBody());
+			Statement elseBody = ifStatement.getElseBody() == null ? null : unwrap(ifStatement.getElseBody());
+			Statement optimizedBody = optimizeOrEmpty(body);
+			Statement optimizedElseBody = elseBody == null ? null : optimizeOrEmpty(elseBody);
+			if(condition == ifStatement.getCondition() && optimizedBody == body && optimizedElseBody == elseBody)
+				return statement;
+			return new IfStatement(statement.getSourceLocation(), (Expression<BooleanLiteral>) condition, optimizedBody, optimizedElseBody);
+		}else if(statement instanceof WhileStatement){
+			WhileStatement whileStatement = (WhileStatement) statement;
+			Expression<? extends Type> condition = optimize(whileStatement.getCondition());
+			if(condition instanceof BooleanLiteralExpression){
+				if(!((BooleanLiteralExpression) condition).getValue().booleanValue()){
+					report.addRemovedBranch("while statement with constant false condition", statement.getSourceLocation());
+					return null;
+				}
+				report.addUnconditionalLoop(statement.getSourceLocation());
+			}
+			Statement body = unwrap(whileStatement.getBody());
+			Statement optimizedBody = optimizeOrEmpty(body);
+			if(condition == whileStatement.getCondition() && optimizedBody == body)
+				return statement;
+			return new WhileStatement(statement.getSourceLocation(), (Expression<BooleanLiteral>) condition, optimizedBody);
+		}else if(statement instanceof ReturnStatement){
+			Expression<? extends Type> value = optimize(((ReturnStatement) statement).getValue());
+			if(value == ((ReturnStatement) statement).getValue())
+				return statement;
+			return new ReturnStatement(statement.getSourceLocation(), value);
+		}else if(statement instanceof PrintStatement){
+			Expression<? extends Type> content = optimize(((PrintStatement) statement).getContent());
+			if(content == ((PrintStatement) statement).getContent())
+				return statement;
+			return new PrintStatement(statement.getSourceLocation(), content);
+		}else if(statement instanceof TurnAction){
+			Expression<? extends Type> angle = optimize(((TurnAction) statement).getAngle());
+			if(angle == ((TurnAction) statement).getAngle())
+				return statement;
+			return new TurnAction(statement.getSourceLocation(), (Expression<? super DoubleLiteral>) angle);
+		}
+		return statement;
+	}
+
+	/**
+	 * Return the given expression with its constant sub-expressions folded to literals.
+	 */
+	@SuppressWarnings("unchecked")
+	public Expression<? extends Type> optimize(Expression<? extends Type> expression){
+		if(expression == null || expression instanceof DoubleLiteralExpression || expression instanceof BooleanLiteralExpression)
+			return expression;
+		if(isConstant(expression))
+			return fold(expression);
+		if(expression instanceof BinaryArithmeticExpression){
+			BinaryArithmeticExpression binary = (BinaryArithmeticExpression) expression;
+			Expression<? extends Type> left = optimize((Expression<? extends Type>) binary.getLeftArgument());
+			Expression<? extends Type> right = optimize((Expression<? extends Type>) binary.getRightArgument());
+			if(left == binary.getLeftArgument() && right == binary.getRightArgument())
+				return expression;
+			return new BinaryArithmeticExpression((Expression<? super DoubleLiteral>) left, (Expression<? super DoubleLiteral>) right,
+					binary.getOperation(), expression.getSourceLocation());
+		}else if(expression instanceof BinaryLessThanExpression){
+			BinaryLessThanExpression lessThan = (BinaryLessThanExpression) expression;
+			Expression<? extends Type> left = optimize((Expression<? extends Type>) lessThan.getLeftArgument());
+			Expression<? extends Type> right = optimize((Expression<? extends Type>) lessThan.getRightArgument());
+			if(left == lessThan.getLeftArgument() && right == lessThan.getRightArgument())
+				return expression;
+			return new BinaryLessThanExpression((Expression<? super DoubleLiteral>) left, (Expression<? super DoubleLiteral>) right,
+					expression.getSourceLocation());
+		}else if(expression instanceof EqualsExpression){
+			EqualsExpression equals = (EqualsExpression) expression;
+			Expression<? extends Type> left = optimize(equals.getLeftArgument());
+			Expression<? extends Type> right = optimize(equals.getRightArgument());
+			if(left == equals.getLeftArgument() && right == equals.getRightArgument())
+				return expression;
+			return new EqualsExpression(left, right, expression.getSourceLocation());
+		}else if(expression instanceof NotExpression){
+			NotExpression not = (NotExpression) expression;
+			Expression<? extends Type> argument = optimize((Expression<? extends Type>) not.getArgument());
+			if(argument == not.getArgument())
+				return expression;
+			return new NotExpression((Expression<? super BooleanLiteral>) argument, expression.getSourceLocation());
+		}else if(expression instanceof UnaryArithmeticExpression){
+			UnaryArithmeticExpression unary = (UnaryArithmeticExpression) expression;
+			Expression<? extends Type> argument = optimize((Expression<? extends Type>) unary.getArgument());
+			if(argument == unary.getArgument())
+				return expression;
+			return new UnaryArithmeticExpression((Expression<? super DoubleLiteral>) argument, unary.getOperation(), expression.getSourceLocation());
+		}else if(expression instanceof UnaryEntityGetExpression){
+			UnaryEntityGetExpression get = (UnaryEntityGetExpression) expression;
+			Expression<? extends Type> argument = optimize((Expression<? extends Type>) get.getArgument());
+			if(argument == get.getArgument())
+				return expression;
+			return new UnaryEntityGetExpression((Expression<? super EntityLiteral>) argument, get.getExtractor(), expression.getSourceLocation());
+		}else if(expression instanceof FunctionCallExpression){
+			FunctionCallExpression call = (FunctionCallExpression) expression;
+			List<Expression<? extends Type>> arguments = new ArrayList<Expression<? extends Type>>(call.getArguments().size());
+			boolean changed = false;
+			for(Expression<? extends Type> argument : call.getArguments()){
+				Expression<? extends Type> optimized = optimize(argument);
+				arguments.add(optimized);
+				changed |= optimized != argument;
+			}
+			return changed ? new FunctionCallExpression(call.getFunctionName(), arguments, expression.getSourceLocation()) : expression;
+		}
+		return expression;
+	}
+
+	/**
+	 * Return whether the given expression only consists of literals and operations on them, with
+	 * operands of the type each operation takes.
+	 */
+	private static boolean isConstant(Expression<?> expression){
+		if(expression instanceof DoubleLiteralExpression || expression instanceof BooleanLiteralExpression)
+			return true;
+		if(expression instanceof BinaryArithmeticExpression || expression instanceof BinaryLessThanExpression){
+			BinaryExpression<?, ?> binary = (BinaryExpression<?, ?>) expression;
+			return isConstant(binary.getLeftArgument(), DoubleLiteral.class) && isConstant(binary.getRightArgument(), DoubleLiteral.class);
+		}
+		if(expression instanceof UnaryArithmeticExpression)
+			return isConstant(((UnaryExpression<?, ?>) expression).getArgument(), DoubleLiteral.class);
+		if(expression instanceof NotExpression)
+			return isConstant(((UnaryExpression<?, ?>) expression).getArgument(), BooleanLiteral.class);
+		if(expression instanceof EqualsExpression)
+			return isConstant(((EqualsExpression) expression).getLeftArgument()) && isConstant(((EqualsExpression) expression).getRightArgument());
+		return false;
+	}
+	
+	private static boolean isConstant(Expression<?> expression, Class<? extends Type> type){
+		return expression.getEvaluationType() == type && isConstant(expression);
+	}
+
+	/**
+	 * Return a literal with the value of the given constant expression.
+	 */
+	private Expression<? extends Type> fold(Expression<? extends Type> expression){
+		Expression<? extends Type> result;
+		if(expression.getEvaluationType() == DoubleLiteral.class)
+			result = new DoubleLiteralExpression(new DoubleLiteral(expression.evaluateDouble(null)), expression.getSourceLocation());
+		else
+			result = new BooleanLiteralExpression(new BooleanLiteral(expression.evaluateBoolean(null)), expression.getSourceLocation());
+		report.addFoldedExpression(expression.getSourceLocation(), result.evaluate(null));
+		return result;
+	}
+
+	private Statement optimizeOrEmpty(Statement statement){
+		Statement result = optimize(statement);
+		return result == null ? new BlockStatement(statement.getSourceLocation(), new ArrayList<Statement>()) : result;
+	}
+
+	/**
+	 * Return the statement the given block, made by the constructor of a statement, wraps.
+	 */
+	private static Statement unwrap(BlockStatement block){
+		return block.getStatements().size() == 1 ? block.getStatements().get(0) : block;
+	}
+}
@@ -9,16 +9,29 @@ import asteroids.part3.programs.SourceLocation;
 public abstract class Scope {
 
 	protected HashMap<String, Function> functionMap = new HashMap<String, Function>();
-	protected HashMap<String, Type> variableMap = new HashMap<String, Type>();
 	
-	public abstract void putVariable(String varName, Type value, SourceLocation line) throws ProgramExecutionTimeException;
+	/**
+	 * Write the given value to the variable in the given slots. A global scope writes its global slot,
+	 * a local scope its local slot.
+	 */
+	public abstract void putVariable(int localSlot, int globalSlot, Type value, SourceLocation line) throws ProgramExecutionTimeException;
 	
-	public abstract Type getVariable(String varName, SourceLocation line) throws ProgramExecutionTimeException;
+	/**
+	 * Return the value of the variable in the given slots. A local scope falls back to the
+	 * global slot if its local slot is not set.
+	 */
+	public abstract Type getVariable(int localSlot, int globalSlot, SourceLocation line) throws ProgramExecutionTimeException;
 	
 	public abstract Function getFunction(String functionName, SourceLocation line) throws ProgramExecutionTimeException;
 	
-	public boolean hasAsVariable(String var){
-		return variableMap.containsKey(var);
+	public Type getReturnValue(){
+		return returnValue;
 	}
 	
+	public void setReturnValue(Type value){
+		this.returnValue = value;
+	}
+	
+	private Type returnValue;
+	
 }
@@ -0,0 +1,134 @@
+package asteroids.model.programs;
+
+import java.util.concurrent.Semaphore;
+
+import asteroids.model.programs.exceptions.ExpressionEvaluationException;
+import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
+import asteroids.model.programs.statements.BlockStatement;
+
+/**
+ * A class executing the body of a program as straight-line code on a thread of its own.
+ * The thread parks whenever its ExecutionContext has less than Action.ACTION_TIME left, at the
+ * points where the interpreter would suspend the program, and continues from there once execute
+ * grants it more time. Block pointers are never needed to resume it, as a block is only left once
+ * it has fully executed.
+ * 
+ * Only one of the thread of the program and the thread calling execute runs at a time, so the
+ * ExecutionContext needs no synchronization. The thread is a daemon platform thread. As a parked
+ * thread keeps its context reachable, it is ended by stop once its ship leaves its world, is
+ * terminated or gets another program.
+ */
+public class ThreadedExecution {
+
+	/**
+	 * Initialize this new ThreadedExecution of the given body with the given context.
+	 *
+	 * @throws IllegalArgumentException
+	 * 			| body == null || context == null
+	 */
+	public ThreadedExecution(BlockStatement body, ExecutionContext context) throws IllegalArgumentException{
+		if(body == null || context == null)
+			throw new IllegalArgumentException();
+		this.body = body;
+		this.context = context;
+		context.setThreadedExecution(this);
+	}
+
+	private final BlockStatement body;
+	private final ExecutionContext context;
+
+	/**
+	 * Grant the program the given duration, and run it until it has to wait for more time or has fully executed.
+	 * If it has fully executed before, a new execution of its body is started.
+	 *
+	 * @throws ProgramExecutionTimeException
+	 * 			An exception was thrown by the program, which ends its execution.
+	 * @throws ExpressionEvaluationException
+	 * 			An exception was thrown by the program while evaluating an expression, which ends its execution.
+	 */
+	public void execute(double dt) throws ProgramExecutionTimeException, ExpressionEvaluationException{
+		context.addExecTime(dt);
+		if(thread == null){
+			thread = newThread(this::run);
+			thread.start();
+		}else
+			resumed.release();
+		suspended.acquireUninterruptibly();
+		Throwable failure = this.failure;
+		this.failure = null;
+		if(failure instanceof Error)
+			throw (Error) failure;
+		if(failure != null)
+			throw (RuntimeException) failure;
+	}
+
+	/**
+	 * Stop the execution of the program, so its thread ends. The next call to execute starts a new execution of its body.
+	 */
+	public void stop(){
+		if(thread != null){
+			thread.interrupt();
+			suspended.acquireUninterruptibly();
+			failure = null;
+		}
+	}
+
+	/**
+	 * Return whether the current thread is the thread of the program.
+	 */
+	boolean isExecutingThread(){
+		return Thread.currentThread() == thread;
+	}
+
+	/**
+	 * Park the thread of the program until its context has time to execute an action.
+	 */
+	void awaitActionTime(){
+		while(!context.hasActionTime()){
+			suspended.release();
+			try{
+				resumed.acquire();
+			}catch(InterruptedException e){
+				throw new Stopped();
+			}
+		}
+	}
+
+	private void run(){
+		try{
+			body.execute(context);
+		}catch(Stopped e){
+		}catch(RuntimeException | Error e){
+			failure = e;
+		}finally{
+			context.clearStack();
+			thread = null;
+			suspended.release();
+		}
+	}
+
+	/**
+	 * Return a new daemon thread running the given task.
+	 */
+	private static Thread newThread(Runnable task){
+		Thread thread = new Thread(task, "ship-program");
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	private volatile Thread thread;
+	private Throwable failure;
+
+	/**
+	 * Semaphores handing control from the thread calling execute to the thread of the program, and back.
+	 */
+	private final Semaphore resumed = new Semaphore(0);
+	private final Semaphore suspended = new Semaphore(0);
+
+	/**
+	 * An error unwinding the thread of a stopped program.
+	 */
+	private static class Stopped extends RuntimeException{
+		private static final long serialVersionUID = 1L;
+	}
+}
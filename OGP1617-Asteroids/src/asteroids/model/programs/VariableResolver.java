@@ -0,0 +1,217 @@
+package asteroids.model.programs;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import asteroids.model.programs.expressions.BinaryExpression;
+import asteroids.model.programs.expressions.EqualsExpression;
+import asteroids.model.programs.expressions.Expression;
+import asteroids.model.programs.expressions.FunctionCallExpression;
+import asteroids.model.programs.expressions.ParameterExpression;
+import asteroids.model.programs.expressions.UnaryExpression;
+import asteroids.model.programs.expressions.VariableExpression;
+import asteroids.model.programs.expressions.types.Type;
+import asteroids.model.programs.statements.AssingmentStatement;
+import asteroids.model.programs.statements.BlockStatement;
+import asteroids.model.programs.statements.IfStatement;
+import asteroids.model.programs.statements.PrintStatement;
+import asteroids.model.programs.statements.ReturnStatement;
+import asteroids.model.programs.statements.Statement;
+import asteroids.model.programs.statements.TurnAction;
+import asteroids.model.programs.statements.WhileStatement;
+
+/**
+ * A class of resolvers, binding each variable and parameter of a program to a slot once
+ * the program is built, so reading and writing a variable is an array access.
+ *
+ * The variables of the main program are global. The variables a function assigns and the
+ * parameters it reads are local to that function; any other variable a function reads
+ * is looked up in its local slot first, and in its global slot if that is not set.
+ * A global variable all assignments of which are of the same known type needs no type check
+ * when it is written.
+ */
+public class VariableResolver {
+
+	/**
+	 * Bind the variables of the given functions and main program to slots, and return
+	 * the table of the global variables.
+	 *
+	 * @param functions
+	 * 			The functions of the program.
+	 * @param main
+	 * 			The main program.
+	 * @effect Each function gets the table of its local variables.
+	 * 			| for each function in functions: function.getVariableTable() != null
+	 * @throws IllegalArgumentException
+	 * 			| functions == null || main == null
+	 */
+	public static VariableTable resolve(List<Function> functions, Statement main) throws IllegalArgumentException{
+		if(functions == null || main == null)
+			throw new IllegalArgumentException();
+		VariableResolver resolver = new VariableResolver();
+		for(Function f : functions)
+			resolver.functionNames.add(f.getName());
+		resolver.resolveStatement(main);
+		for(Function f : functions){
+			resolver.locals = new LinkedHashMap<String, Integer>();
+			resolver.collectLocals(f.getBody());
+			resolver.resolveStatement(f.getBody());
+			String[] names = resolver.locals.keySet().toArray(new String[resolver.locals.size()]);
+			f.setVariableTable(new VariableTable(names, new boolean[names.length], new boolean[names.length]));
+		}
+		return resolver.getGlobalTable();
+	}
+
+	private VariableResolver(){
+	}
+
+	private VariableTable getGlobalTable(){
+		String[] names = globals.keySet().toArray(new String[globals.size()]);
+		boolean[] typeChecked = new boolean[names.length];
+		boolean[] isFunctionName = new boolean[names.length];
+		for(int slot = 0; slot < names.length; slot++){
+			typeChecked[slot] = !mixedTypes.contains(names[slot]);
+			isFunctionName[slot] = functionNames.contains(names[slot]);
+		}
+		return new VariableTable(names, typeChecked, isFunctionName);
+	}
+
+	private void resolveStatement(Statement statement){
+		if(statement instanceof BlockStatement){
+			for(Statement s : ((BlockStatement) statement).getStatements())
+				resolveStatement(s);
+		}else if(statement instanceof AssingmentStatement){
+			AssingmentStatement assignment = (AssingmentStatement) statement;
+			resolveExpression(assignment.getExpression());
+			String name = assignment.getVariableName();
+			if(inFunction())
+				assignment.resolve(locals.get(name), -1);
+			else{
+				assignment.resolve(-1, getGlobalSlot(name));
+				registerType(name, assignment.getExpression().getEvaluationType());
+			}
+		}else if(statement instanceof IfStatement){
+			resolveExpression(((IfStatement) statement).getCondition());
+			resolveStatement(((IfStatement) statement).getBody());
+			if(((IfStatement) statement).getElseBody() != null)
+				resolveStatement(((IfStatement) statement).getElseBody());
+		}else if(statement instanceof WhileStatement){
+			resolveExpression(((WhileStatement) statement).getCondition());
+			resolveStatement(((WhileStatement) statement).getBody());
+		}else if(statement instanceof ReturnStatement){
+			resolveExpression(((ReturnStatement) statement).getValue());
+		}else if(statement instanceof PrintStatement){
+			resolveExpression(((PrintStatement) statement).getContent());
+		}else if(statement instanceof TurnAction){
+			resolveExpression(((TurnAction) statement).getAngle());
+		}
+	}
+
+	private void resolveExpression(Expression<?> expression){
+		if(expression instanceof VariableExpression){
+			String name = ((VariableExpression) expression).getVariableName();
+			((VariableExpression) expression).resolve(getLocalSlot(name), getGlobalSlot(name));
+		}else if(expression instanceof ParameterExpression){
+			String name = ((ParameterExpression) expression).getParameter();
+			((ParameterExpression) expression).resolve(getLocalSlot(name), getGlobalSlot(name));
+		}else if(expression instanceof BinaryExpression){
+			resolveExpression(((BinaryExpression<?, ?>) expression).getLeftArgument());
+			resolveExpression(((BinaryExpression<?, ?>) expression).getRightArgument());
+		}else if(expression instanceof EqualsExpression){
+			resolveExpression(((EqualsExpression) expression).getLeftArgument());
+			resolveExpression(((EqualsExpression) expression).getRightArgument());
+		}else if(expression instanceof UnaryExpression){
+			resolveExpression(((UnaryExpression<?, ?>) expression).getArgument());
+		}else if(expression instanceof FunctionCallExpression){
+			for(Expression<? extends Type> argument : ((FunctionCallExpression) expression).getArguments())
+				resolveExpression(argument);
+		}
+	}
+
+	/**
+	 * Register the names assigned and the parameters read in the given statement as local variables.
+	 */
+	private void collectLocals(Statement statement){
+		if(statement instanceof BlockStatement){
+			for(Statement s : ((BlockStatement) statement).getStatements())
+				collectLocals(s);
+		}else if(statement instanceof AssingmentStatement){
+			addLocal(((AssingmentStatement) statement).getVariableName());
+			collectLocals(((AssingmentStatement) statement).getExpression());
+		}else if(statement instanceof IfStatement){
+			collectLocals(((IfStatement) statement).getCondition());
+			collectLocals(((IfStatement) statement).getBody());
+			if(((IfStatement) statement).getElseBody() != null)
+				collectLocals(((IfStatement) statement).getElseBody());
+		}else if(statement instanceof WhileStatement){
+			collectLocals(((WhileStatement) statement).getCondition());
+			collectLocals(((WhileStatement) statement).getBody());
+		}else if(statement instanceof ReturnStatement){
+			collectLocals(((ReturnStatement) statement).getValue());
+		}else if(statement instanceof PrintStatement){
+			collectLocals(((PrintStatement) statement).getContent());
+		}
+	}
+
+	private void collectLocals(Expression<?> expression){
+		if(expression instanceof ParameterExpression)
+			addLocal(((ParameterExpression) expression).getParameter());
+		else if(expression instanceof BinaryExpression){
+			collectLocals(((BinaryExpression<?, ?>) expression).getLeftArgument());
+			collectLocals(((BinaryExpression<?, ?>) expression).getRightArgument());
+		}else if(expression instanceof EqualsExpression){
+			collectLocals(((EqualsExpression) expression).getLeftArgument());
+			collectLocals(((EqualsExpression) expression).getRightArgument());
+		}else if(expression instanceof UnaryExpression){
+			collectLocals(((UnaryExpression<?, ?>) expression).getArgument());
+		}else if(expression instanceof FunctionCallExpression){
+			for(Expression<? extends Type> argument : ((FunctionCallExpression) expression).getArguments())
+				collectLocals(argument);
+		}
+	}
+
+	private void registerType(String name, Class<? extends Type> type){
+		if(type == null || (staticTypes.containsKey(name) && staticTypes.get(name) != type))
+			mixedTypes.add(name);
+		staticTypes.put(name, type);
+	}
+
+	private void addLocal(String name){
+		if(!locals.containsKey(name))
+			locals.put(name, locals.size());
+	}
+
+	private boolean inFunction(){
+		return locals != null;
+	}
+
+	private int getLocalSlot(String name){
+		if(!inFunction() || !locals.containsKey(name))
+			return -1;
+		return locals.get(name);
+	}
+
+	private int getGlobalSlot(String name){
+		Integer slot = globals.get(name);
+		if(slot == null){
+			slot = globals.size();
+			globals.put(name, slot);
+		}
+		return slot;
+	}
+
+	private final Set<String> functionNames = new HashSet<String>();
+	private final Map<String, Integer> globals = new LinkedHashMap<String, Integer>();
+	private final Map<String, Class<? extends Type>> staticTypes = new HashMap<String, Class<? extends Type>>();
+	private final Set<String> mixedTypes = new HashSet<String>();
+
+	/**
+	 * Variable referencing the local slots of the function being resolved, or null while
+	 * resolving the main program.
+	 */
+	private Map<String, Integer> locals = null;
+}
@@ -0,0 +1,107 @@
+package asteroids.model.programs;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of tables binding the variables of a program, or of one of its functions, to slots.
+ * A table is built by a VariableResolver, and a Scope holds the value of each variable in its slot.
+ */
+public class VariableTable {
+
+	/**
+	 * Initialize this new VariableTable with the given names, one for each slot.
+	 *
+	 * @param names
+	 * 			The names of the variables in each slot.
+	 * @param typeChecked
+	 * 			Whether all values written to each slot are known to be of the same type.
+	 * @param functionNames
+	 * 			Whether the name of each slot is also the name of a function.
+	 * @throws IllegalArgumentException
+	 * 			| names == null || typeChecked.length != names.length || functionNames.length != names.length
+	 */
+	VariableTable(String[] names, boolean[] typeChecked, boolean[] functionNames) throws IllegalArgumentException{
+		if(names == null || typeChecked.length != names.length || functionNames.length != names.length)
+			throw new IllegalArgumentException();
+		this.names = names.clone();
+		this.typeChecked = typeChecked.clone();
+		this.functionNames = functionNames.clone();
+		int nbParameters = 0;
+		for(String name : names)
+			nbParameters = Math.max(nbParameters, getParameterNumber(name));
+		this.parameterSlots = new int[nbParameters];
+		Arrays.fill(parameterSlots, -1);
+		for(int slot = 0; slot < names.length; slot++)
+			if(getParameterNumber(names[slot]) > 0)
+				parameterSlots[getParameterNumber(names[slot]) - 1] = slot;
+	}
+
+	/**
+	 * Return the number of slots of this VariableTable.
+	 */
+	@Immutable
+	public int getNbSlots(){
+		return names.length;
+	}
+
+	/**
+	 * Return the name of the variable in the given slot.
+	 */
+	@Basic @Immutable
+	public String getName(int slot){
+		return names[slot];
+	}
+
+	/**
+	 * Return the slot of the variable with the given name, or -1 if this VariableTable has no such variable.
+	 */
+	public int getSlot(String name){
+		for(int slot = 0; slot < names.length; slot++)
+			if(names[slot].equals(name))
+				return slot;
+		return -1;
+	}
+
+	/**
+	 * Return whether all values written to the given slot are known to be of the same type,
+	 * so writing them needs no type check.
+	 */
+	@Basic @Immutable
+	public boolean isTypeChecked(int slot){
+		return typeChecked[slot];
+	}
+
+	/**
+	 * Return whether the name of the variable in the given slot is also the name of a function.
+	 */
+	@Basic @Immutable
+	public boolean isFunctionName(int slot){
+		return functionNames[slot];
+	}
+
+	/**
+	 * Return the slot of parameter $(index+1), or -1 if this VariableTable has no such parameter.
+	 */
+	@Immutable
+	public int getParameterSlot(int index){
+		return index < parameterSlots.length ? parameterSlots[index] : -1;
+	}
+
+	/**
+	 * Return the number of the parameter with the given name, or 0 if the name is not that of
+	 * a parameter a function is called with.
+	 */
+	private static int getParameterNumber(String name){
+		if(!name.matches("\\$[1-9][0-9]{0,8}"))
+			return 0;
+		return Integer.parseInt(name.substring(1));
+	}
+
+	private final String[] names;
+	private final boolean[] typeChecked;
+	private final boolean[] functionNames;
+	private final int[] parameterSlots;
+}
@@ -1,10 +1,8 @@
 package asteroids.model.programs.expressions;
 
-import java.util.Iterator;
-
-import asteroids.model.Entity;
 import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.expressions.types.EntityLiteral;
+import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
 
 public class AnyExpression extends Expression<EntityLiteral>{
@@ -15,10 +13,11 @@ public class AnyExpression extends Expression<EntityLiteral>{
 
 	@Override
 	public EntityLiteral evaluate(ExecutionContext context) {
-		Iterator<Entity> iterator = context.getWorld().getAllEntities().iterator();
-		Entity result = iterator.hasNext() ? iterator.next() : null;
-		result = (result == context.getExecutor() && iterator.hasNext()) ? iterator.next() : result;
-		return new EntityLiteral(result);
+		return new EntityLiteral(context.getWorld().getAnyEntityOtherThan(context.getExecutor()));
+	}
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return EntityLiteral.class;
 	}
-
 }
@@ -3,6 +3,7 @@ package asteroids.model.programs.expressions;
 import asteroids.model.Asteroid;
 import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.expressions.types.EntityLiteral;
+import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
 
 public class AsteroidExpression extends Expression<EntityLiteral>{
@@ -13,10 +14,12 @@ public class AsteroidExpression extends Expression<EntityLiteral>{
 
 	@Override
 	public EntityLiteral evaluate(ExecutionContext context) {
-		Asteroid closest = context.getWorld().getAsteroids().stream().reduce(
-				(a, b) -> a.getDistanceBetween(context.getExecutor()) < b.getDistanceBetween(context.getExecutor()) ? a : b
-																).orElse(null);
+		Asteroid closest = context.getWorld().getNearestEntity(context.getExecutor(), Asteroid.class);
 		return new EntityLiteral(closest);
 	}
-
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return EntityLiteral.class;
+	}
 }
\ No newline at end of file
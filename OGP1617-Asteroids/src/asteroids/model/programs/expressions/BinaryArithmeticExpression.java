@@ -6,6 +6,7 @@ import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.types.DoubleLiteral;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class BinaryArithmeticExpression extends BinaryExpression<DoubleLiteral, DoubleLiteral>{
 
@@ -18,24 +19,32 @@ public class BinaryArithmeticExpression extends BinaryExpression<DoubleLiteral,
 
 	private final BinaryArithmeticOperation operationType;
 	
+	@Basic
+	public BinaryArithmeticOperation getOperation(){
+		return operationType;
+	}
+	
 	@Override
 	public DoubleLiteral evaluate(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException{
-		Type evalL = getLeftArgument().evaluate(context);
-		Type evalR = getRightArgument().evaluate(context);
-		if(!((evalL instanceof DoubleLiteral) && (evalR instanceof DoubleLiteral)))
-			throw new ExpressionEvaluationException("Given operands do not evaluate to DoubleLiteral", getSourceLocation(), this);
-		
-		Double result = null;
+		return new DoubleLiteral(evaluateDouble(context));
+	}
+	
+	@Override
+	public double evaluateDouble(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException{
+		double left = getLeftArgument().evaluateDouble(context);
+		double right = getRightArgument().evaluateDouble(context);
 		switch(operationType){
 		case ADD:
-			result = ((DoubleLiteral)evalL).getValue() + ((DoubleLiteral)evalR).getValue();
-			break;
+			return left + right;
 		case MULTIPLY:
-			result = ((DoubleLiteral)evalL).getValue() * ((DoubleLiteral)evalR).getValue();
-			break;
+			return left * right;
 		default:
-			break;
+			throw new ExpressionEvaluationException("Unknown BinaryArithmeticOperation", getSourceLocation(), this);
 		}
-		return new DoubleLiteral(result);
+	}
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return DoubleLiteral.class;
 	}
 }
@@ -17,11 +17,18 @@ public class BinaryLessThanExpression extends BinaryExpression<DoubleLiteral, Bo
 
 	@Override
 	public BooleanLiteral evaluate(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException{
-		Type evalL = getLeftArgument().evaluate(context);
-		Type evalR = getRightArgument().evaluate(context);
-		if(!((evalL instanceof DoubleLiteral) && (evalR instanceof DoubleLiteral)))
-			throw new ExpressionEvaluationException("Given operands do not evaluate to DoubleLiteral", getSourceLocation(), this);
-		
-		return new BooleanLiteral(((DoubleLiteral)evalL).getValue() < ((DoubleLiteral)evalR).getValue());
+		return new BooleanLiteral(evaluateBoolean(context));
+	}
+	
+	@Override
+	public boolean evaluateBoolean(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException{
+		double left = getLeftArgument().evaluateDouble(context);
+		double right = getRightArgument().evaluateDouble(context);
+		return left < right;
+	}
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return BooleanLiteral.class;
 	}
 }
@@ -0,0 +1,43 @@
+package asteroids.model.programs.expressions;
+
+import asteroids.model.programs.ExecutionContext;
+import asteroids.model.programs.expressions.types.BooleanLiteral;
+import asteroids.model.programs.expressions.types.Type;
+import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of boolean constants. Programs have no boolean literals, but a ProgramOptimizer
+ * folds constant conditions to them.
+ */
+public class BooleanLiteralExpression extends Expression<BooleanLiteral> {
+	
+	public BooleanLiteralExpression(BooleanLiteral value, SourceLocation location) throws IllegalArgumentException{
+		super(location);
+		if(value == null)
+			throw new IllegalArgumentException();
+		this.value = value;
+	}
+
+	private final BooleanLiteral value;
+	
+	@Basic
+	public BooleanLiteral getValue(){
+		return value;
+	}
+
+	@Override
+	public BooleanLiteral evaluate(ExecutionContext context){
+		return value;
+	}
+	
+	@Override
+	public boolean evaluateBoolean(ExecutionContext context){
+		return value.booleanValue();
+	}
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return BooleanLiteral.class;
+	}
+}
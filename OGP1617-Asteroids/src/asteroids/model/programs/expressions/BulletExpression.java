@@ -1,12 +1,9 @@
 package asteroids.model.programs.expressions;
 
-import java.util.Iterator;
-import java.util.Set;
-import java.util.stream.Collectors;
-
 import asteroids.model.Bullet;
 import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.expressions.types.EntityLiteral;
+import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
 	
 public class BulletExpression extends Expression<EntityLiteral>{
@@ -17,9 +14,15 @@ public class BulletExpression extends Expression<EntityLiteral>{
 
 		@Override
 		public EntityLiteral evaluate(ExecutionContext context) {
-			Set<Bullet> firedbullets = (Set<Bullet>) context.getWorld().getBullets().stream().filter(b -> b.getSource() == context.getExecutor()).collect(Collectors.toSet());
-			Iterator<Bullet> iterator = firedbullets.iterator();
-			return new EntityLiteral(iterator.hasNext() ? iterator.next() : null);
+			for(Bullet bullet : context.getWorld().getBulletsView())
+				if(bullet.getSource() == context.getExecutor())
+					return new EntityLiteral(bullet);
+			return new EntityLiteral(null);
+		}
+	
+		@Override
+		public Class<? extends Type> getEvaluationType(){
+			return EntityLiteral.class;
 		}
 
 	}
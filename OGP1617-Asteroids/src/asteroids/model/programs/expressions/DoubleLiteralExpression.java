@@ -2,7 +2,9 @@ package asteroids.model.programs.expressions;
 
 import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.expressions.types.DoubleLiteral;
+import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class DoubleLiteralExpression extends Expression<DoubleLiteral> {
 	
@@ -14,9 +16,24 @@ public class DoubleLiteralExpression extends Expression<DoubleLiteral> {
 	}
 
 	private final DoubleLiteral value;
+	
+	@Basic
+	public DoubleLiteral getValue(){
+		return value;
+	}
 
 	@Override
 	public DoubleLiteral evaluate(ExecutionContext context){
 		return value;
 	}
+	
+	@Override
+	public double evaluateDouble(ExecutionContext context){
+		return value.doubleValue();
+	}
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return DoubleLiteral.class;
+	}
 }
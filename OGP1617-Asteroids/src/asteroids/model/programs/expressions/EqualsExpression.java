@@ -4,8 +4,10 @@ import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.exceptions.ExpressionEvaluationException;
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.types.BooleanLiteral;
+import asteroids.model.programs.expressions.types.DoubleLiteral;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 
 public class EqualsExpression extends Expression<BooleanLiteral> {
@@ -16,14 +18,45 @@ public class EqualsExpression extends Expression<BooleanLiteral> {
 			throw new IllegalArgumentException();
 		this.leftArg = left;
 		this.rightArg = right;
+		this.operandType = left.getEvaluationType() == right.getEvaluationType() ? left.getEvaluationType() : null;
 	}
 	
 	private final Expression<? extends Type> leftArg;
 	private final Expression<? extends Type> rightArg;
+	
+	/**
+	 * Variable registering the type both operands of this EqualsExpression are known to evaluate to,
+	 * or null if they are only known when evaluated.
+	 */
+	private final Class<? extends Type> operandType;
+	
+	@Basic
+	public Expression<? extends Type> getLeftArgument(){
+		return leftArg;
+	}
+	
+	@Basic
+	public Expression<? extends Type> getRightArgument(){
+		return rightArg;
+	}
 
 	@Override
 	public BooleanLiteral evaluate(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException{
-		return new BooleanLiteral(leftArg.evaluate(context).equals(rightArg.evaluate(context)));
+		return new BooleanLiteral(evaluateBoolean(context));
+	}
+	
+	@Override
+	public boolean evaluateBoolean(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException{
+		if(operandType == DoubleLiteral.class)
+			return Double.compare(leftArg.evaluateDouble(context), rightArg.evaluateDouble(context)) == 0;
+		if(operandType == BooleanLiteral.class)
+			return leftArg.evaluateBoolean(context) == rightArg.evaluateBoolean(context);
+		return leftArg.evaluate(context).equals(rightArg.evaluate(context));
+	}
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return BooleanLiteral.class;
 	}
 
 }
@@ -3,6 +3,8 @@ package asteroids.model.programs.expressions;
 import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.exceptions.ExpressionEvaluationException;
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
+import asteroids.model.programs.expressions.types.BooleanLiteral;
+import asteroids.model.programs.expressions.types.DoubleLiteral;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
 
@@ -23,4 +25,40 @@ public abstract class Expression<ET extends Type>{
 	}
 
 	public abstract ET evaluate(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException;
+	
+	/**
+	 * Evaluate this Expression to a double. Expressions of which all evaluations are doubles
+	 * override this method to compute it without creating a DoubleLiteral.
+	 * 
+	 * @throws ExpressionEvaluationException
+	 * 			This Expression does not evaluate to a DoubleLiteral.
+	 */
+	public double evaluateDouble(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException{
+		Type result = evaluate(context);
+		if(!(result instanceof DoubleLiteral))
+			throw new ExpressionEvaluationException("Given operand does not evaluate to DoubleLiteral", getSourceLocation(), this);
+		return ((DoubleLiteral) result).doubleValue();
+	}
+	
+	/**
+	 * Evaluate this Expression to a boolean. Expressions of which all evaluations are booleans
+	 * override this method to compute it without creating a BooleanLiteral.
+	 * 
+	 * @throws ExpressionEvaluationException
+	 * 			This Expression does not evaluate to a BooleanLiteral.
+	 */
+	public boolean evaluateBoolean(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException{
+		Type result = evaluate(context);
+		if(!(result instanceof BooleanLiteral))
+			throw new ExpressionEvaluationException("Given operand does not evaluate to BooleanLiteral", getSourceLocation(), this);
+		return ((BooleanLiteral) result).booleanValue();
+	}
+	
+	/**
+	 * Return the type all evaluations of this Expression are of, or null if it is only known
+	 * when this Expression is evaluated.
+	 */
+	public Class<? extends Type> getEvaluationType(){
+		return null;
+	}
 }
@@ -1,13 +1,14 @@
 package asteroids.model.programs.expressions;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import asteroids.model.programs.ExecutionContext;
+import asteroids.model.programs.Function;
 import asteroids.model.programs.exceptions.ExpressionEvaluationException;
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class FunctionCallExpression extends Expression<Type> {
 
@@ -22,13 +23,23 @@ public class FunctionCallExpression extends Expression<Type> {
 	
 	private final String functionName;
 	private final List<Expression<? extends Type>> arguments;
+	
+	@Basic
+	public String getFunctionName(){
+		return functionName;
+	}
+	
+	@Basic
+	public List<Expression<? extends Type>> getArguments(){
+		return arguments;
+	}
 
 	@Override
 	public Type evaluate(ExecutionContext context) throws ProgramExecutionTimeException, ExpressionEvaluationException {
-		List<Type> evaluatatedArguments = new ArrayList<Type>();
-		for(Expression<? extends Type> arg : arguments)
-			evaluatatedArguments.add(arg.evaluate(context));
-		return context.getGlobalScope().getFunction(functionName, getSourceLocation()).execute(context, evaluatatedArguments);
+		Function function = context.getGlobalScope().getFunction(functionName, getSourceLocation());
+		for(int i = 0; i < arguments.size(); i++)
+			context.pushArgument(arguments.get(i).evaluate(context));
+		return function.execute(context, arguments.size());
 	}
 
 }
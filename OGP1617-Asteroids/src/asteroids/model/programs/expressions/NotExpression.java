@@ -4,6 +4,7 @@ import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.exceptions.ExpressionEvaluationException;
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.types.BooleanLiteral;
+import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
 
 public class NotExpression extends UnaryExpression<BooleanLiteral, BooleanLiteral> {
@@ -14,9 +15,16 @@ public class NotExpression extends UnaryExpression<BooleanLiteral, BooleanLitera
 
 	@Override
 	public BooleanLiteral evaluate(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException{
-		Object eval = getArgument().evaluate(context);
-		if(!(eval instanceof BooleanLiteral))
-			throw new ExpressionEvaluationException("Given operand does not evaluate to BooleanLiteral", getSourceLocation(), this);
-		return new BooleanLiteral(!((BooleanLiteral)eval).getValue());
+		return new BooleanLiteral(evaluateBoolean(context));
+	}
+	
+	@Override
+	public boolean evaluateBoolean(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException{
+		return !getArgument().evaluateBoolean(context);
+	}
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return BooleanLiteral.class;
 	}
 }
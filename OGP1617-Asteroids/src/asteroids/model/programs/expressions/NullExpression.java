@@ -2,6 +2,7 @@ package asteroids.model.programs.expressions;
 
 import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.expressions.types.EntityLiteral;
+import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
 
 public class NullExpression extends Expression<EntityLiteral>{
@@ -14,5 +15,9 @@ public class NullExpression extends Expression<EntityLiteral>{
 	public EntityLiteral evaluate(ExecutionContext context) {
 		return new EntityLiteral(null);
 	}
-
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return EntityLiteral.class;
+	}
 }
\ No newline at end of file
@@ -4,10 +4,46 @@ import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class ParameterExpression extends Expression<Type> {
 	
 	private final String parameter;
+	
+	@Basic
+	public String getParameter(){
+		return parameter;
+	}
+	
+	/**
+	 * Bind this ParameterExpression to the given slots.
+	 * 
+	 * @param localSlot
+	 * 			The slot of the variable in the local scope of its function, or -1 if it has none.
+	 * @param globalSlot
+	 * 			The slot of the variable in the global scope.
+	 * @throws IllegalArgumentException
+	 * 			| localSlot < -1 || globalSlot < 0
+	 */
+	public void resolve(int localSlot, int globalSlot) throws IllegalArgumentException{
+		if(localSlot < -1 || globalSlot < 0)
+			throw new IllegalArgumentException();
+		this.localSlot = localSlot;
+		this.globalSlot = globalSlot;
+	}
+	
+	@Basic
+	public int getLocalSlot(){
+		return localSlot;
+	}
+	
+	@Basic
+	public int getGlobalSlot(){
+		return globalSlot;
+	}
+	
+	private int localSlot = -1;
+	private int globalSlot = -1;
 
 	public ParameterExpression(String param, SourceLocation location) throws IllegalArgumentException{
 		super(location);
@@ -18,7 +54,7 @@ public class ParameterExpression extends Expression<Type> {
 
 	@Override
 	public Type evaluate(ExecutionContext context) throws ProgramExecutionTimeException {
-		return context.getCurrentScope().getVariable(parameter, getSourceLocation());
+		return context.getCurrentScope().getVariable(localSlot, globalSlot, getSourceLocation());
 	}
 
 }
@@ -3,6 +3,7 @@ package asteroids.model.programs.expressions;
 import asteroids.model.Planetoid;
 import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.expressions.types.EntityLiteral;
+import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
 
 public class PlanetoidExpression extends Expression<EntityLiteral>{
@@ -13,10 +14,12 @@ public class PlanetoidExpression extends Expression<EntityLiteral>{
 
 	@Override
 	public EntityLiteral evaluate(ExecutionContext context) {
-		Planetoid closest = context.getWorld().getPlanetoids().stream().reduce(
-				(a, b) -> a.getDistanceBetween(context.getExecutor()) < b.getDistanceBetween(context.getExecutor()) ? a : b
-																		).orElse(null);
+		Planetoid closest = context.getWorld().getNearestEntity(context.getExecutor(), Planetoid.class);
 		return new EntityLiteral(closest);
 	}
-
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return EntityLiteral.class;
+	}
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package asteroids.model.programs.expressions;
 
 import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.expressions.types.DoubleLiteral;
+import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
 
 public class SelfGetDirExpression extends Expression<DoubleLiteral>{
@@ -12,7 +13,17 @@ public class SelfGetDirExpression extends Expression<DoubleLiteral>{
 
 	@Override
 	public DoubleLiteral evaluate(ExecutionContext context){
-		return new DoubleLiteral(context.getExecutor().getOrientation());
+		return new DoubleLiteral(evaluateDouble(context));
+	}
+	
+	@Override
+	public double evaluateDouble(ExecutionContext context){
+		return context.getExecutorOrientation();
+	}
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return DoubleLiteral.class;
 	}
 	
 }
@@ -4,7 +4,9 @@ import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.exceptions.ExpressionEvaluationException;
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.types.DoubleLiteral;
+import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class UnaryArithmeticExpression extends UnaryExpression<DoubleLiteral, DoubleLiteral> {
 
@@ -16,23 +18,32 @@ public class UnaryArithmeticExpression extends UnaryExpression<DoubleLiteral, Do
 	}
 
 	private final UnaryArithmeticOperation operationType;
+	
+	@Basic
+	public UnaryArithmeticOperation getOperation(){
+		return operationType;
+	}
 
 	@Override
 	public DoubleLiteral evaluate(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException {
-		Object eval = getArgument().evaluate(context);
-		if(!(eval instanceof DoubleLiteral))
-			throw new ExpressionEvaluationException("Given operand does not evaluate to DoubleLiteral", getSourceLocation(), this);
-		Double result = null;
+		return new DoubleLiteral(evaluateDouble(context));
+	}
+	
+	@Override
+	public double evaluateDouble(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException {
+		double argument = getArgument().evaluateDouble(context);
 		switch(operationType){
 		case CHANGE_SIGN:
-			result = -((DoubleLiteral)eval).getValue();
-			break;
+			return -argument;
 		case SQUARE_ROOT:
-			result = Math.sqrt(((DoubleLiteral)eval).getValue()); 
-			break;
+			return Math.sqrt(argument);
 		default:
-			break;
+			throw new ExpressionEvaluationException("Unknown UnaryArithmeticOperation", getSourceLocation(), this);
 		}
-		return new DoubleLiteral(result);
+	}
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return DoubleLiteral.class;
 	}
 }
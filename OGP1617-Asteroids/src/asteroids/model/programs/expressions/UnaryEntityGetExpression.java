@@ -8,6 +8,7 @@ import asteroids.model.programs.expressions.types.DoubleLiteral;
 import asteroids.model.programs.expressions.types.EntityLiteral;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class UnaryEntityGetExpression extends UnaryExpression<EntityLiteral, DoubleLiteral>{
 
@@ -20,21 +21,33 @@ public class UnaryEntityGetExpression extends UnaryExpression<EntityLiteral, Dou
 
 	private final EntityDataExtractor extractor;
 	
+	@Basic
+	public EntityDataExtractor getExtractor(){
+		return extractor;
+	}
+	
 	@Override
 	public DoubleLiteral evaluate(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException{
+		return new DoubleLiteral(evaluateDouble(context));
+	}
+	
+	@Override
+	public double evaluateDouble(ExecutionContext context) throws ExpressionEvaluationException, ProgramExecutionTimeException{
 		Type arg = getArgument().evaluate(context);
 		if(!(arg instanceof EntityLiteral))
 			throw new ExpressionEvaluationException("Given operand does not evaluate to EntityLiteral", getSourceLocation(), this);
 		if(arg.getValue() == null)
 			throw new ExpressionEvaluationException("Given operand evaluates to null", getSourceLocation(), this);
-		Double result = null;
 		try{
-			result = extractor.extractValue(((Entity)((EntityLiteral)arg).getValue()));
+			return extractor.extractValue(((Entity)((EntityLiteral)arg).getValue()));
 		}catch(Exception e){
 			throw new ExpressionEvaluationException("Exception during EntityDataExtractor evaluation.", getSourceLocation(), this);
 		}
-		
-		return new DoubleLiteral(result);
+	}
+	
+	@Override
+	public Class<? extends Type> getEvaluationType(){
+		return DoubleLiteral.class;
 	}
 	
 }
@@ -4,6 +4,7 @@ import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class VariableExpression extends Expression<Type>{
 	
@@ -15,10 +16,45 @@ public class VariableExpression extends Expression<Type>{
 	}
 	
 	private final String varName;
+	
+	@Basic
+	public String getVariableName(){
+		return varName;
+	}
+	
+	/**
+	 * Bind this VariableExpression to the given slots.
+	 * 
+	 * @param localSlot
+	 * 			The slot of the variable in the local scope of its function, or -1 if it has none.
+	 * @param globalSlot
+	 * 			The slot of the variable in the global scope.
+	 * @throws IllegalArgumentException
+	 * 			| localSlot < -1 || globalSlot < 0
+	 */
+	public void resolve(int localSlot, int globalSlot) throws IllegalArgumentException{
+		if(localSlot < -1 || globalSlot < 0)
+			throw new IllegalArgumentException();
+		this.localSlot = localSlot;
+		this.globalSlot = globalSlot;
+	}
+	
+	@Basic
+	public int getLocalSlot(){
+		return localSlot;
+	}
+	
+	@Basic
+	public int getGlobalSlot(){
+		return globalSlot;
+	}
+	
+	private int localSlot = -1;
+	private int globalSlot = -1;
 
 	@Override
 	public Type evaluate(ExecutionContext context) throws ProgramExecutionTimeException {
-		Type result = context.getCurrentScope().getVariable(varName, getSourceLocation());
+		Type result = context.getCurrentScope().getVariable(localSlot, globalSlot, getSourceLocation());
 		return result;
 	}
 }
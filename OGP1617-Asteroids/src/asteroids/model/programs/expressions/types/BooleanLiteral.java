@@ -14,6 +14,13 @@ public class BooleanLiteral extends Type{
 		return state;
 	}
 	
+	/**
+	 * Return the value of this BooleanLiteral, without boxing it.
+	 */
+	public boolean booleanValue() {
+		return state;
+	}
+	
 	private final boolean state;
 	
 	@Override
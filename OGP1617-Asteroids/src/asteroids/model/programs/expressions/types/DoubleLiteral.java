@@ -14,6 +14,13 @@ public class DoubleLiteral extends Type{
 		return value;
 	}
 	
+	/**
+	 * Return the value of this DoubleLiteral, without boxing it.
+	 */
+	public double doubleValue() {
+		return value;
+	}
+	
 	private final double value;
 	
 	@Override
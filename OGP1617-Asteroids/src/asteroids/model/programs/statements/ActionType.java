@@ -1,5 +1,5 @@
 package asteroids.model.programs.statements;
 
 public enum ActionType {
-	FIRE_BULLET, THRUST_ON, THRUST_OFF, SKIP
+	FIRE_BULLET, THRUST_ON, THRUST_OFF, SKIP, TURN
 }
@@ -6,6 +6,7 @@ import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.Expression;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class AssingmentStatement extends Statement {
 	
@@ -20,8 +21,48 @@ public class AssingmentStatement extends Statement {
 	private final String variableName;
 	private final Expression<? extends Type> expression;
 	
+	@Basic
+	public String getVariableName(){
+		return variableName;
+	}
+	
+	@Basic
+	public Expression<? extends Type> getExpression(){
+		return expression;
+	}
+	
+	/**
+	 * Bind this AssingmentStatement to the given slots.
+	 * 
+	 * @param localSlot
+	 * 			The slot of the variable in the local scope of its function, or -1 if it has none.
+	 * @param globalSlot
+	 * 			The slot of the variable in the global scope, or -1 if it is written in a function.
+	 * @throws IllegalArgumentException
+	 * 			| localSlot < -1 || globalSlot < -1 || (localSlot == -1 && globalSlot == -1)
+	 */
+	public void resolve(int localSlot, int globalSlot) throws IllegalArgumentException{
+		if(localSlot < -1 || globalSlot < -1 || (localSlot == -1 && globalSlot == -1))
+			throw new IllegalArgumentException();
+		this.localSlot = localSlot;
+		this.globalSlot = globalSlot;
+	}
+	
+	@Basic
+	public int getLocalSlot(){
+		return localSlot;
+	}
+	
+	@Basic
+	public int getGlobalSlot(){
+		return globalSlot;
+	}
+	
+	private int localSlot = -1;
+	private int globalSlot = -1;
+	
 	@Override
 	public void execute(ExecutionContext context) throws ProgramExecutionTimeException, ExpressionEvaluationException{
-		context.getCurrentScope().putVariable(variableName, expression.evaluate(context), getSourceLocation());
+		context.getCurrentScope().putVariable(localSlot, globalSlot, expression.evaluate(context), getSourceLocation());
 	}
 }
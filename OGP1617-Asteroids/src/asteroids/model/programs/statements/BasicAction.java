@@ -3,6 +3,7 @@ package asteroids.model.programs.statements;
 import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class BasicAction extends Action {
 
@@ -12,21 +13,22 @@ public class BasicAction extends Action {
 	}
 
 	private final ActionType actionType;
+	
+	@Basic
+	public ActionType getActionType(){
+		return actionType;
+	}
 
 	@Override
 	public void execute(ExecutionContext context) throws ProgramExecutionTimeException {
 		super.execute(context);
 		switch (actionType) {
 		case FIRE_BULLET:
-			context.getExecutor().fireBullet();
-			break;
-		case SKIP:
-			break;
 		case THRUST_OFF:
-			context.getExecutor().thrustOff();
-			break;
 		case THRUST_ON:
-			context.getExecutor().thrustOn();
+			context.performAction(actionType);
+			break;
+		case SKIP:
 			break;
 		default:
 			break;
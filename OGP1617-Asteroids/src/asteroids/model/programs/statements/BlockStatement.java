@@ -7,6 +7,7 @@ import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.exceptions.ExpressionEvaluationException;
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class BlockStatement extends Statement{
 	
@@ -23,6 +24,11 @@ public class BlockStatement extends Statement{
 	}
 	
 	private final List<Statement> statements;
+	
+	@Basic
+	public List<Statement> getStatements(){
+		return statements;
+	}
 
 	@Override
 	public void execute(ExecutionContext context) throws ProgramExecutionTimeException, ExpressionEvaluationException{
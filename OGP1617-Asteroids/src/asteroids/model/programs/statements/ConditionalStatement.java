@@ -3,6 +3,7 @@ package asteroids.model.programs.statements;
 import asteroids.model.programs.expressions.Expression;
 import asteroids.model.programs.expressions.types.BooleanLiteral;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public abstract class ConditionalStatement extends Statement {
 	
@@ -14,4 +15,9 @@ public abstract class ConditionalStatement extends Statement {
 	}
 
 	protected final Expression<BooleanLiteral> condition;
+	
+	@Basic
+	public Expression<BooleanLiteral> getCondition(){
+		return condition;
+	}
 }
@@ -6,6 +6,7 @@ import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.Expression;
 import asteroids.model.programs.expressions.types.BooleanLiteral;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class IfStatement extends ConditionalStatement {
 
@@ -17,10 +18,20 @@ public class IfStatement extends ConditionalStatement {
 
 	private final BlockStatement body;
 	private final BlockStatement elseBody;
+	
+	@Basic
+	public BlockStatement getBody(){
+		return body;
+	}
+	
+	@Basic
+	public BlockStatement getElseBody(){
+		return elseBody;
+	}
 
 	@Override
 	public void execute(ExecutionContext context) throws ProgramExecutionTimeException, ExpressionEvaluationException {
-		if(condition.evaluate(context).getValue()){
+		if(condition.evaluateBoolean(context)){
 			body.execute(context);
 		}else if(elseBody != null){
 			elseBody.execute(context);
@@ -6,6 +6,7 @@ import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.Expression;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class PrintStatement extends Statement {
 
@@ -19,6 +20,11 @@ public class PrintStatement extends Statement {
 
 	private final Expression<? extends Type> content;
 	
+	@Basic
+	public Expression<? extends Type> getContent(){
+		return content;
+	}
+	
 	@Override
 	public void execute(ExecutionContext context) throws ProgramExecutionTimeException, ExpressionEvaluationException{
 		Type eval = content.evaluate(context);
@@ -6,6 +6,7 @@ import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.Expression;
 import asteroids.model.programs.expressions.types.Type;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class ReturnStatement extends Statement {
 	
@@ -16,10 +17,15 @@ public class ReturnStatement extends Statement {
 
 	private Expression<? extends Type> value;
 	
+	@Basic
+	public Expression<? extends Type> getValue(){
+		return value;
+	}
+	
 	@Override
 	public void execute(ExecutionContext context) throws ProgramExecutionTimeException, ExpressionEvaluationException{
 		Type result = value.evaluate(context);
-		context.getCurrentScope().putVariable("$0", result, getSourceLocation());
+		context.getCurrentScope().setReturnValue(result);
 		context.interruptFromCurrent(this, getSourceLocation());
 	}
 }
@@ -6,6 +6,7 @@ import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
 import asteroids.model.programs.expressions.Expression;
 import asteroids.model.programs.expressions.types.DoubleLiteral;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class TurnAction extends Action {
 
@@ -15,20 +16,22 @@ public class TurnAction extends Action {
 	}
 
 	private final Expression<? super DoubleLiteral> angle;
+	
+	@Basic
+	public Expression<? super DoubleLiteral> getAngle(){
+		return angle;
+	}
 
 	@Override
 	public void execute(ExecutionContext context)
 			throws ProgramExecutionTimeException, ExpressionEvaluationException {
 		super.execute(context);
-		Object eval = angle.evaluate(context);
-		if (!(eval instanceof DoubleLiteral))
-			throw new ExpressionEvaluationException("Given operand does not evaluate to DoubleLiteral",
-					getSourceLocation(), angle);
+		double eval = angle.evaluateDouble(context);
 		try {
-			context.getExecutor().turn(((DoubleLiteral) eval).getValue());
+			context.turnExecutor(eval);
 		} catch (AssertionError e) {
 			throw new ProgramExecutionTimeException("Turning with given angle: "
-					+ ((DoubleLiteral) eval).getValue().toString() + " results in invalid ship orientation.",
+					+ eval + " results in invalid ship orientation.",
 					getSourceLocation());
 		}
 	}
@@ -4,9 +4,11 @@ import asteroids.model.programs.Interruptable;
 import asteroids.model.programs.ExecutionContext;
 import asteroids.model.programs.exceptions.ExpressionEvaluationException;
 import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
+import asteroids.model.programs.expressions.BooleanLiteralExpression;
 import asteroids.model.programs.expressions.Expression;
 import asteroids.model.programs.expressions.types.BooleanLiteral;
 import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
 
 public class WhileStatement extends ConditionalStatement implements Interruptable{
 	
@@ -15,14 +17,31 @@ public class WhileStatement extends ConditionalStatement implements Interruptabl
 		if(body == null)
 			throw new IllegalArgumentException();
 		this.body = new BlockStatement(getSourceLocation(), body);
+		this.unconditional = condition instanceof BooleanLiteralExpression && ((BooleanLiteralExpression) condition).getValue().booleanValue();
 	}
 
 	private final BlockStatement body;
+	
+	/**
+	 * Return whether the condition of this WhileStatement is the constant true, so it loops
+	 * without evaluating it.
+	 */
+	@Basic
+	public boolean isUnconditional(){
+		return unconditional;
+	}
+	
+	private final boolean unconditional;
+	
+	@Basic
+	public BlockStatement getBody(){
+		return body;
+	}
 
 	@Override
 	public void execute(ExecutionContext context) throws ProgramExecutionTimeException, ExpressionEvaluationException{
 		context.addToStack(this, getSourceLocation());
-		while(condition.evaluate(context).getValue() && !context.isBreaking() && context.canExecuteAction())
+		while((unconditional || condition.evaluateBoolean(context)) && !context.isBreaking() && context.canExecuteAction())
 			body.execute(context);
 		
 		if(!context.isReturning() && context.isBreaking())
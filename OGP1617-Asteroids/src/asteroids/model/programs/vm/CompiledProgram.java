@@ -0,0 +1,147 @@
+package asteroids.model.programs.vm;
+
+import asteroids.model.programs.VariableTable;
+import asteroids.model.programs.expressions.EntityDataExtractor;
+import asteroids.model.programs.expressions.Expression;
+import asteroids.model.programs.expressions.types.Type;
+import asteroids.part3.programs.SourceLocation;
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of programs compiled by a ProgramCompiler to a flat array of instructions.
+ * The main program starts at position 0 of the code, each function at its entry.
+ * A CompiledProgram holds no execution state, and can be shared by any number of VirtualMachines.
+ */
+public class CompiledProgram {
+
+	CompiledProgram(int[] code, SourceLocation[] locations, Expression<? extends Type>[] expressions, double[] constants,
+			EntityDataExtractor[] extractors, Expression<?>[] leaves, String[] messages, VariableTable globals,
+			String[] functionNames, int[] functionEntries, VariableTable[] functionTables){
+		this.code = code;
+		this.locations = locations;
+		this.expressions = expressions;
+		this.constants = constants;
+		this.extractors = extractors;
+		this.leaves = leaves;
+		this.messages = messages;
+		this.globals = globals;
+		this.functionNames = functionNames;
+		this.functionEntries = functionEntries;
+		this.functionTables = functionTables;
+	}
+
+	/**
+	 * Return the number of positions in the code of this CompiledProgram.
+	 */
+	@Basic @Immutable
+	public int getCodeSize(){
+		return code.length;
+	}
+
+	/**
+	 * Return the value at the given position in the code of this CompiledProgram.
+	 */
+	@Basic @Immutable
+	public int getCode(int position){
+		return code[position];
+	}
+
+	/**
+	 * Return the source location of the instruction at the given position, or null
+	 * if there is no instruction at that position.
+	 */
+	@Basic @Immutable
+	public SourceLocation getSourceLocation(int position){
+		return locations[position];
+	}
+
+	/**
+	 * Return the number of global variable slots of this CompiledProgram.
+	 */
+	@Immutable
+	public int getNbGlobals(){
+		return globals.getNbSlots();
+	}
+
+	/**
+	 * Return the name of the global variable in the given slot.
+	 */
+	@Basic @Immutable
+	public String getGlobalName(int slot){
+		return globals.getName(slot);
+	}
+
+	/**
+	 * Return the number of functions of this CompiledProgram.
+	 */
+	@Immutable
+	public int getNbFunctions(){
+		return functionNames.length;
+	}
+
+	/**
+	 * Return the name of the function with the given index.
+	 */
+	@Basic @Immutable
+	public String getFunctionName(int function){
+		return functionNames[function];
+	}
+
+	/**
+	 * Return the position of the first instruction of the function with the given index.
+	 */
+	@Basic @Immutable
+	public int getFunctionEntry(int function){
+		return functionEntries[function];
+	}
+
+	/**
+	 * Return the number of local variable slots of the function with the given index.
+	 */
+	@Basic @Immutable
+	public int getFunctionNbLocals(int function){
+		return functionTables[function].getNbSlots();
+	}
+
+	/**
+	 * Return the local slot of parameter $(index+1) of the function with the given index,
+	 * or -1 if the function does not read that parameter.
+	 */
+	@Immutable
+	public int getParameterSlot(int function, int index){
+		return functionTables[function].getParameterSlot(index);
+	}
+
+	@Override
+	public String toString(){
+		StringBuilder result = new StringBuilder();
+		for(int position = 0; position < code.length; position += 1 + Instruction.getNbOperands(code[position])){
+			result.append(position).append(": ").append(code[position]);
+			for(int operand = 1; operand <= Instruction.getNbOperands(code[position]); operand++)
+				result.append(' ').append(code[position + operand]);
+			result.append('\n');
+		}
+		return result.toString();
+	}
+
+	final int[] code;
+	final SourceLocation[] locations;
+	final Expression<? extends Type>[] expressions;
+	final double[] constants;
+	final EntityDataExtractor[] extractors;
+	final Expression<?>[] leaves;
+	final String[] messages;
+	private final VariableTable globals;
+	private final String[] functionNames;
+	private final int[] functionEntries;
+	private final VariableTable[] functionTables;
+
+	/**
+	 * Return the expression compiled to the instruction at the given position, or null
+	 * if that instruction cannot fail on the value of an expression.
+	 */
+	Expression<? extends Type> getExpression(int position){
+		return expressions[position];
+	}
+}
@@ -0,0 +1,168 @@
+package asteroids.model.programs.vm;
+
+/**
+ * A class collecting the operation codes of the instructions of a CompiledProgram.
+ * Each instruction is stored in the code of a CompiledProgram as its operation code,
+ * followed by the number of operands given by getNbOperands.
+ *
+ * Values are pushed on and popped from the operand stack of a VirtualMachine. Unless
+ * stated otherwise, an instruction pops its arguments and pushes its result.
+ */
+public final class Instruction {
+
+	private Instruction(){
+	}
+
+	/**
+	 * Push the constant at the index given by the operand.
+	 */
+	public static final int PUSH_DOUBLE = 0;
+
+	/**
+	 * Push the null entity.
+	 */
+	public static final int PUSH_NULL = 1;
+
+	/**
+	 * Push the executing ship.
+	 */
+	public static final int PUSH_SELF = 2;
+
+	/**
+	 * Push the orientation of the executing ship.
+	 */
+	public static final int GET_DIRECTION = 3;
+
+	/**
+	 * Evaluate the leaf expression at the index given by the operand, and push its value.
+	 */
+	public static final int EVAL_LEAF = 4;
+
+	/**
+	 * Pop an entity and push the value of the extractor at the index given by the operand.
+	 */
+	public static final int GET_PROPERTY = 5;
+
+	/**
+	 * Push the global variable in the slot given by the operand.
+	 */
+	public static final int LOAD_GLOBAL = 6;
+
+	/**
+	 * Pop a value into the global variable in the slot given by the operand.
+	 */
+	public static final int STORE_GLOBAL = 7;
+
+	/**
+	 * Push the local variable in the slot given by the first operand, or if it is not set,
+	 * the global variable in the slot given by the second operand.
+	 */
+	public static final int LOAD_LOCAL = 8;
+
+	/**
+	 * Pop a value into the local variable in the slot given by the operand.
+	 */
+	public static final int STORE_LOCAL = 9;
+
+	public static final int ADD = 10;
+	public static final int MULTIPLY = 11;
+	public static final int CHANGE_SIGN = 12;
+	public static final int SQUARE_ROOT = 13;
+	public static final int LESS_THAN = 14;
+	public static final int EQUALS = 15;
+	public static final int NOT = 16;
+
+	/**
+	 * Continue at the position given by the operand.
+	 */
+	public static final int JUMP = 17;
+
+	/**
+	 * Pop a boolean, and continue at the position given by the operand if it is false.
+	 */
+	public static final int JUMP_IF_FALSE = 18;
+
+	/**
+	 * Suspend the program if less than the time of an action is left, resuming it
+	 * at the next instruction.
+	 */
+	public static final int YIELD = 19;
+
+	/**
+	 * Spend the time of an action.
+	 */
+	public static final int ACTION = 20;
+
+	public static final int THRUST_ON = 21;
+	public static final int THRUST_OFF = 22;
+	public static final int FIRE_BULLET = 23;
+
+	/**
+	 * Pop an angle and turn the executing ship over it.
+	 */
+	public static final int TURN = 24;
+
+	/**
+	 * Pop a value and add it to the print log.
+	 */
+	public static final int PRINT = 25;
+
+	/**
+	 * Call the function at the index given by the first operand, with the number of
+	 * arguments given by the second operand on top of the operand stack. The third operand
+	 * is 1 if the call is made inside a loop of its caller, and 0 otherwise.
+	 */
+	public static final int CALL = 26;
+
+	/**
+	 * Return from the current function, leaving the value on top of the operand stack.
+	 */
+	public static final int RETURN = 27;
+
+	/**
+	 * Break from the nearest loop enclosing the call of the current function: return from it
+	 * without a value, and break from the loop once the statement making the call is executed.
+	 */
+	public static final int BREAK = 28;
+
+	/**
+	 * Continue at the position given by the operand if a function broke from a loop, or return
+	 * from the current function without a value if the operand is -1.
+	 */
+	public static final int JUMP_IF_BREAKING = 29;
+
+	/**
+	 * Throw a ProgramExecutionTimeException with the message at the index given by the operand.
+	 */
+	public static final int THROW = 30;
+
+	/**
+	 * Complete the program, and restart it from the beginning on its next execution.
+	 */
+	public static final int END = 31;
+
+	/**
+	 * Return the number of operands of the instruction with the given operation code.
+	 */
+	public static int getNbOperands(int opCode){
+		switch(opCode){
+		case PUSH_DOUBLE:
+		case EVAL_LEAF:
+		case GET_PROPERTY:
+		case LOAD_GLOBAL:
+		case STORE_GLOBAL:
+		case STORE_LOCAL:
+		case JUMP:
+		case JUMP_IF_FALSE:
+		case JUMP_IF_BREAKING:
+		case THROW:
+			return 1;
+		case LOAD_LOCAL:
+			return 2;
+		case CALL:
+			return 3;
+		default:
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,364 @@
+package asteroids.model.programs.vm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import asteroids.model.Program;
+import asteroids.model.programs.Function;
+import asteroids.model.programs.VariableTable;
+import asteroids.model.programs.expressions.BinaryArithmeticExpression;
+import asteroids.model.programs.expressions.BinaryArithmeticOperation;
+import asteroids.model.programs.expressions.BinaryExpression;
+import asteroids.model.programs.expressions.BinaryLessThanExpression;
+import asteroids.model.programs.expressions.DoubleLiteralExpression;
+import asteroids.model.programs.expressions.EntityDataExtractor;
+import asteroids.model.programs.expressions.EqualsExpression;
+import asteroids.model.programs.expressions.Expression;
+import asteroids.model.programs.expressions.FunctionCallExpression;
+import asteroids.model.programs.expressions.NotExpression;
+import asteroids.model.programs.expressions.NullExpression;
+import asteroids.model.programs.expressions.ParameterExpression;
+import asteroids.model.programs.expressions.SelfExpression;
+import asteroids.model.programs.expressions.SelfGetDirExpression;
+import asteroids.model.programs.expressions.UnaryArithmeticExpression;
+import asteroids.model.programs.expressions.UnaryArithmeticOperation;
+import asteroids.model.programs.expressions.UnaryEntityGetExpression;
+import asteroids.model.programs.expressions.UnaryExpression;
+import asteroids.model.programs.expressions.VariableExpression;
+import asteroids.model.programs.expressions.types.Type;
+import asteroids.model.programs.statements.AssingmentStatement;
+import asteroids.model.programs.statements.BasicAction;
+import asteroids.model.programs.statements.BlockStatement;
+import asteroids.model.programs.statements.BreakStatement;
+import asteroids.model.programs.statements.IfStatement;
+import asteroids.model.programs.statements.PrintStatement;
+import asteroids.model.programs.statements.ReturnStatement;
+import asteroids.model.programs.statements.Statement;
+import asteroids.model.programs.statements.TurnAction;
+import asteroids.model.programs.statements.WhileStatement;
+import asteroids.part3.programs.SourceLocation;
+
+/**
+ * A class of compilers, translating the statements and expressions of a Program to the
+ * instructions of a CompiledProgram.
+ *
+ * The main program checks the time left after each action only, with a YIELD instruction:
+ * every other statement leaves the time unchanged, so a suspended program is resumed
+ * right after the last action it executed. Functions are compiled without time checks,
+ * as they cannot execute actions. Variables are accessed through the slots the
+ * VariableResolver bound them to.
+ *
+ * Errors the interpreter only detects while executing (e.g. a print statement in a function,
+ * or a break statement outside of a loop) are compiled to THROW instructions, so they are
+ * still only reported when they are reached. A break statement in a function outside of its
+ * loops breaks from the loop its caller is executing, as in the interpreter: the call then
+ * has no value, and the loop is left after the statement making the call.
+ */
+public class ProgramCompiler {
+
+	/**
+	 * Compile the given program.
+	 *
+	 * @param program
+	 * 			The program to compile.
+	 * @throws IllegalArgumentException
+	 * 			| program == null
+	 */
+	public static CompiledProgram compile(Program program) throws IllegalArgumentException{
+		if(program == null)
+			throw new IllegalArgumentException();
+		return new ProgramCompiler().compileProgram(program);
+	}
+
+	private ProgramCompiler(){
+	}
+
+	private CompiledProgram compileProgram(Program program){
+		globals = program.getGlobals();
+		Map<String, Function> definitions = new LinkedHashMap<String, Function>();
+		for(Function f : program.getFunctions())
+			definitions.put(f.getName(), f);
+		for(String name : definitions.keySet())
+			functionIndices.put(name, functionIndices.size());
+
+		compileStatement(program.getBody());
+		emit(Instruction.END, program.getBody().getSourceLocation(), null);
+
+		int nbFunctions = definitions.size();
+		int[] entries = new int[nbFunctions];
+		VariableTable[] tables = new VariableTable[nbFunctions];
+		String[] names = new String[nbFunctions];
+		int index = 0;
+		inFunction = true;
+		for(Function f : definitions.values()){
+			names[index] = f.getName();
+			entries[index] = size;
+			tables[index] = f.getVariableTable();
+			loopExits.clear();
+			compileStatement(f.getBody());
+			emit(Instruction.THROW, f.getSourceLocation(), null, message("No return statement in function: " + f.getName()));
+			index++;
+		}
+		inFunction = false;
+
+		double[] constantArray = new double[constants.size()];
+		for(int i = 0; i < constantArray.length; i++)
+			constantArray[i] = constants.get(i);
+		return new CompiledProgram(Arrays.copyOf(code, size), Arrays.copyOf(locations, size), Arrays.copyOf(expressions, size),
+				constantArray, extractors.toArray(new EntityDataExtractor[extractors.size()]), leaves.toArray(new Expression<?>[leaves.size()]),
+				messages.toArray(new String[messages.size()]), program.getGlobals(), names, entries, tables);
+	}
+
+	private void compileStatement(Statement statement){
+		SourceLocation location = statement.getSourceLocation();
+		if(statement instanceof BlockStatement){
+			for(Statement s : ((BlockStatement) statement).getStatements())
+				compileStatement(s);
+		}else if(statement instanceof AssingmentStatement){
+			AssingmentStatement assignment = (AssingmentStatement) statement;
+			compileExpression(assignment.getExpression(), location);
+			if(inFunction())
+				emit(Instruction.STORE_LOCAL, location, null, assignment.getLocalSlot());
+			else if(globals.isFunctionName(assignment.getGlobalSlot()))
+				emit(Instruction.THROW, location, null, message("Duplicate name with a function."));
+			else
+				emit(Instruction.STORE_GLOBAL, location, null, assignment.getGlobalSlot());
+			if(containsCall(assignment.getExpression()) && (inFunction() || !loopExits.isEmpty()))
+				compileBreakCheck(location);
+		}else if(statement instanceof IfStatement){
+			IfStatement ifStatement = (IfStatement) statement;
+			compileExpression(ifStatement.getCondition(), location);
+			int jumpToElse = emit(Instruction.JUMP_IF_FALSE, location, ifStatement.getCondition(), -1);
+			compileStatement(ifStatement.getBody());
+			if(ifStatement.getElseBody() != null){
+				int jumpToEnd = emit(Instruction.JUMP, location, null, -1);
+				code[jumpToElse + 1] = size;
+				compileStatement(ifStatement.getElseBody());
+				code[jumpToEnd + 1] = size;
+			}else
+				code[jumpToElse + 1] = size;
+		}else if(statement instanceof WhileStatement){
+			WhileStatement whileStatement = (WhileStatement) statement;
+			int start = size;
+			loopExits.push(new ArrayList<Integer>());
+			int jumpToEnd = -1;
+			if(!whileStatement.isUnconditional()){
+				compileExpression(whileStatement.getCondition(), location);
+				jumpToEnd = emit(Instruction.JUMP_IF_FALSE, location, whileStatement.getCondition(), -1);
+			}
+			compileStatement(whileStatement.getBody());
+			emit(Instruction.JUMP, location, null, start);
+			if(jumpToEnd >= 0)
+				code[jumpToEnd + 1] = size;
+			for(int jump : loopExits.pop())
+				code[jump + 1] = size;
+		}else if(statement instanceof BreakStatement){
+			if(!loopExits.isEmpty())
+				loopExits.peek().add(emit(Instruction.JUMP, location, null, -1));
+			else if(inFunction())
+				emit(Instruction.BREAK, location, null);
+			else
+				emit(Instruction.THROW, location, null, message("No Interruptable to interrupt from."));
+		}else if(statement instanceof ReturnStatement){
+			compileExpression(((ReturnStatement) statement).getValue(), location);
+			if(inFunction())
+				emit(Instruction.RETURN, location, null);
+			else
+				emit(Instruction.THROW, location, null, message("No Interruptable to interrupt from."));
+		}else if(statement instanceof PrintStatement){
+			compileExpression(((PrintStatement) statement).getContent(), location);
+			if(inFunction())
+				emit(Instruction.THROW, location, null, message("Trying to print in a function environment"));
+			else
+				emit(Instruction.PRINT, location, null);
+		}else if(statement instanceof BasicAction || statement instanceof TurnAction){
+			if(inFunction()){
+				emit(Instruction.THROW, location, null, message("Trying to execute action statement in function environment"));
+				return;
+			}
+			emit(Instruction.ACTION, location, null);
+			if(statement instanceof TurnAction){
+				TurnAction turn = (TurnAction) statement;
+				compileExpression(turn.getAngle(), location);
+				emit(Instruction.TURN, location, turn.getAngle());
+			}else{
+				switch(((BasicAction) statement).getActionType()){
+				case THRUST_ON:
+					emit(Instruction.THRUST_ON, location, null);
+					break;
+				case THRUST_OFF:
+					emit(Instruction.THRUST_OFF, location, null);
+					break;
+				case FIRE_BULLET:
+					emit(Instruction.FIRE_BULLET, location, null);
+					break;
+				default:
+					break;
+				}
+			}
+			emit(Instruction.YIELD, location, null);
+		}else
+			throw new IllegalArgumentException("Cannot compile statement: " + statement.getClass().getSimpleName());
+	}
+
+	private void compileExpression(Expression<?> expression, SourceLocation statementLocation){
+		SourceLocation location = expression.getSourceLocation() == null ? statementLocation : expression.getSourceLocation();
+		if(expression instanceof DoubleLiteralExpression){
+			constants.add(((DoubleLiteralExpression) expression).getValue().getValue());
+			emit(Instruction.PUSH_DOUBLE, location, null, constants.size() - 1);
+		}else if(expression instanceof NullExpression){
+			emit(Instruction.PUSH_NULL, location, null);
+		}else if(expression instanceof SelfExpression){
+			emit(Instruction.PUSH_SELF, location, null);
+		}else if(expression instanceof SelfGetDirExpression){
+			emit(Instruction.GET_DIRECTION, location, null);
+		}else if(expression instanceof VariableExpression){
+			VariableExpression variable = (VariableExpression) expression;
+			compileRead(variable.getLocalSlot(), variable.getGlobalSlot(), location);
+		}else if(expression instanceof ParameterExpression){
+			ParameterExpression parameter = (ParameterExpression) expression;
+			compileRead(parameter.getLocalSlot(), parameter.getGlobalSlot(), location);
+		}else if(expression instanceof BinaryArithmeticExpression){
+			BinaryArithmeticExpression binary = (BinaryArithmeticExpression) expression;
+			compileExpression(binary.getLeftArgument(), location);
+			compileExpression(binary.getRightArgument(), location);
+			emit(binary.getOperation() == BinaryArithmeticOperation.ADD ? Instruction.ADD : Instruction.MULTIPLY, location, binary);
+		}else if(expression instanceof BinaryLessThanExpression){
+			BinaryLessThanExpression lessThan = (BinaryLessThanExpression) expression;
+			compileExpression(lessThan.getLeftArgument(), location);
+			compileExpression(lessThan.getRightArgument(), location);
+			emit(Instruction.LESS_THAN, location, lessThan);
+		}else if(expression instanceof EqualsExpression){
+			EqualsExpression equals = (EqualsExpression) expression;
+			compileExpression(equals.getLeftArgument(), location);
+			compileExpression(equals.getRightArgument(), location);
+			emit(Instruction.EQUALS, location, equals);
+		}else if(expression instanceof NotExpression){
+			compileExpression(((NotExpression) expression).getArgument(), location);
+			emit(Instruction.NOT, location, expression);
+		}else if(expression instanceof UnaryArithmeticExpression){
+			UnaryArithmeticExpression unary = (UnaryArithmeticExpression) expression;
+			compileExpression(unary.getArgument(), location);
+			emit(unary.getOperation() == UnaryArithmeticOperation.CHANGE_SIGN ? Instruction.CHANGE_SIGN : Instruction.SQUARE_ROOT, location, unary);
+		}else if(expression instanceof UnaryEntityGetExpression){
+			UnaryEntityGetExpression get = (UnaryEntityGetExpression) expression;
+			compileExpression(get.getArgument(), location);
+			extractors.add(get.getExtractor());
+			emit(Instruction.GET_PROPERTY, location, get, extractors.size() - 1);
+		}else if(expression instanceof FunctionCallExpression){
+			FunctionCallExpression call = (FunctionCallExpression) expression;
+			for(Expression<? extends Type> argument : call.getArguments())
+				compileExpression(argument, location);
+			Integer function = functionIndices.get(call.getFunctionName());
+			if(function == null)
+				emit(Instruction.THROW, location, null, message("No such function: " + call.getFunctionName()));
+			else
+				emit(Instruction.CALL, location, call, function, call.getArguments().size(), loopExits.isEmpty() ? 0 : 1);
+		}else{
+			leaves.add(expression);
+			emit(Instruction.EVAL_LEAF, location, expression, leaves.size() - 1);
+		}
+	}
+
+	/**
+	 * Compile the check whether a function called by the last statement broke from the nearest
+	 * loop: a jump to the exit of the innermost loop of the code being compiled, or a return
+	 * from the function being compiled if it has no such loop.
+	 */
+	private void compileBreakCheck(SourceLocation location){
+		if(loopExits.isEmpty())
+			emit(Instruction.JUMP_IF_BREAKING, location, null, -1);
+		else
+			loopExits.peek().add(emit(Instruction.JUMP_IF_BREAKING, location, null, -1));
+	}
+
+	private static boolean containsCall(Expression<?> expression){
+		if(expression instanceof FunctionCallExpression)
+			return true;
+		if(expression instanceof BinaryExpression)
+			return containsCall(((BinaryExpression<?, ?>) expression).getLeftArgument()) || containsCall(((BinaryExpression<?, ?>) expression).getRightArgument());
+		if(expression instanceof EqualsExpression)
+			return containsCall(((EqualsExpression) expression).getLeftArgument()) || containsCall(((EqualsExpression) expression).getRightArgument());
+		if(expression instanceof UnaryExpression)
+			return containsCall(((UnaryExpression<?, ?>) expression).getArgument());
+		return false;
+	}
+
+	private void compileRead(int localSlot, int globalSlot, SourceLocation location){
+		if(inFunction() && localSlot >= 0)
+			emit(Instruction.LOAD_LOCAL, location, null, localSlot, globalSlot);
+		else
+			emit(Instruction.LOAD_GLOBAL, location, null, globalSlot);
+	}
+
+	private boolean inFunction(){
+		return inFunction;
+	}
+
+	private int message(String message){
+		Integer index = messageIndices.get(message);
+		if(index == null){
+			index = messages.size();
+			messages.add(message);
+			messageIndices.put(message, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Append an instruction with the given operation code and operands, and return its position.
+	 */
+	private int emit(int opCode, SourceLocation location, Expression<? extends Type> expression, int... operands){
+		int position = size;
+		ensureCapacity(size + 1 + operands.length);
+		code[size] = opCode;
+		locations[size] = location;
+		expressions[size] = expression;
+		size++;
+		for(int operand : operands)
+			code[size++] = operand;
+		return position;
+	}
+
+	private void ensureCapacity(int capacity){
+		if(capacity > code.length){
+			int newLength = Math.max(capacity, 2 * code.length);
+			code = Arrays.copyOf(code, newLength);
+			locations = Arrays.copyOf(locations, newLength);
+			expressions = Arrays.copyOf(expressions, newLength);
+		}
+	}
+
+	private int[] code = new int[64];
+	private SourceLocation[] locations = new SourceLocation[64];
+	private Expression<? extends Type>[] expressions = new Expression<?>[64];
+	private int size = 0;
+
+	private final List<Double> constants = new ArrayList<Double>();
+	private final List<EntityDataExtractor> extractors = new ArrayList<EntityDataExtractor>();
+	private final List<Expression<?>> leaves = new ArrayList<Expression<?>>();
+	private final List<String> messages = new ArrayList<String>();
+	private final Map<String, Integer> messageIndices = new HashMap<String, Integer>();
+	private final Map<String, Integer> functionIndices = new HashMap<String, Integer>();
+
+	/**
+	 * Variable referencing the table of the global variables of the program being compiled.
+	 */
+	private VariableTable globals;
+
+	/**
+	 * Variable registering whether a function is being compiled, rather than the main program.
+	 */
+	private boolean inFunction = false;
+
+	/**
+	 * Variable referencing the positions of the break jumps of each enclosing loop.
+	 */
+	private final Deque<List<Integer>> loopExits = new ArrayDeque<List<Integer>>();
+}
@@ -0,0 +1,513 @@
+package asteroids.model.programs.vm;
+
+import java.util.Arrays;
+import java.util.List;
+
+import asteroids.model.Entity;
+import asteroids.model.programs.ExecutionContext;
+import asteroids.model.programs.exceptions.ExpressionEvaluationException;
+import asteroids.model.programs.exceptions.ProgramExecutionTimeException;
+import asteroids.model.programs.expressions.types.BooleanLiteral;
+import asteroids.model.programs.expressions.types.DoubleLiteral;
+import asteroids.model.programs.expressions.types.EntityLiteral;
+import asteroids.model.programs.expressions.types.Type;
+import asteroids.model.programs.statements.ActionType;
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of virtual machines, executing a CompiledProgram for the ship of an ExecutionContext.
+ *
+ * Values are held in parallel arrays of kinds, numbers and entities, for the operand stack as well as
+ * for the global and local variables, so executing an expression does not allocate any Type.
+ * A program that runs out of time is suspended by saving its program counter: as it only suspends
+ * after an action in the main program, no function call or operand is pending at that point.
+ *
+ * Resuming a suspended program continues after the last executed action, without evaluating the
+ * conditions of the enclosing if and while statements again.
+ */
+public class VirtualMachine {
+
+	/**
+	 * Initialize this new VirtualMachine executing the given program in the given context.
+	 *
+	 * @param program
+	 * 			The program to execute.
+	 * @param context
+	 * 			The context to execute the program in, providing the ship, its world,
+	 * 			the print log and the time left.
+	 * @throws IllegalArgumentException
+	 * 			| program == null || context == null
+	 */
+	public VirtualMachine(CompiledProgram program, ExecutionContext context) throws IllegalArgumentException{
+		if(program == null || context == null)
+			throw new IllegalArgumentException();
+		this.program = program;
+		this.context = context;
+		this.code = program.code;
+		this.globalKinds = new byte[program.getNbGlobals()];
+		this.globalNumbers = new double[program.getNbGlobals()];
+		this.globalEntities = new Entity[program.getNbGlobals()];
+	}
+
+	private final CompiledProgram program;
+	private final ExecutionContext context;
+	private final int[] code;
+
+	/**
+	 * Return the position of the next instruction this VirtualMachine executes.
+	 */
+	@Basic
+	public int getProgramCounter(){
+		return programCounter;
+	}
+
+	private int programCounter = 0;
+
+	/**
+	 * Return whether the program of this VirtualMachine has been executed up to its end at least once.
+	 */
+	@Basic
+	public boolean hasFullyExecuted(){
+		return executed;
+	}
+
+	private boolean executed = false;
+
+	/**
+	 * Execute the program of this VirtualMachine for the given duration, continuing where
+	 * the previous execution suspended.
+	 *
+	 * @return The values printed since the last time they were returned, if the program has been
+	 * 			executed up to its end at least once, and null otherwise.
+	 * @throws ProgramExecutionTimeException
+	 * 			The program executes a faulty construct. The next execution then restarts
+	 * 			after the last action executed before the fault.
+	 * @throws ExpressionEvaluationException
+	 * 			An expression evaluates to a value of the wrong kind.
+	 */
+	public List<Object> execute(double dt) throws ProgramExecutionTimeException, ExpressionEvaluationException{
+		context.addExecTime(dt);
+		run();
+		if(hasFullyExecuted()){
+			List<Object> log = context.getPrintLog();
+			context.clearPrintLog();
+			return log;
+		}
+		return null;
+	}
+
+	private void run() throws ProgramExecutionTimeException, ExpressionEvaluationException{
+		int pc = programCounter;
+		if(!context.canExecuteAction() && code[pc] != Instruction.END)
+			return;
+		int resume = pc;
+		try{
+			while(true){
+				switch(code[pc]){
+				case Instruction.PUSH_DOUBLE:
+					pushDouble(program.constants[code[pc + 1]]);
+					pc += 2;
+					break;
+				case Instruction.PUSH_NULL:
+					pushEntity(null);
+					pc++;
+					break;
+				case Instruction.PUSH_SELF:
+					pushEntity(context.getExecutor());
+					pc++;
+					break;
+				case Instruction.GET_DIRECTION:
+					pushDouble(context.getExecutorOrientation());
+					pc++;
+					break;
+				case Instruction.EVAL_LEAF:
+					push(program.leaves[code[pc + 1]].evaluate(context), pc);
+					pc += 2;
+					break;
+				case Instruction.GET_PROPERTY:
+					getProperty(pc);
+					pc += 2;
+					break;
+				case Instruction.LOAD_GLOBAL:
+					loadGlobal(code[pc + 1], pc);
+					pc += 2;
+					break;
+				case Instruction.STORE_GLOBAL:
+					storeGlobal(code[pc + 1], pc);
+					pc += 2;
+					break;
+				case Instruction.LOAD_LOCAL:
+					loadLocal(code[pc + 1], code[pc + 2], pc);
+					pc += 3;
+					break;
+				case Instruction.STORE_LOCAL:
+					storeLocal(code[pc + 1]);
+					pc += 2;
+					break;
+				case Instruction.ADD:
+					checkDoubles(pc);
+					stackNumbers[stackSize - 2] += stackNumbers[stackSize - 1];
+					stackSize--;
+					pc++;
+					break;
+				case Instruction.MULTIPLY:
+					checkDoubles(pc);
+					stackNumbers[stackSize - 2] *= stackNumbers[stackSize - 1];
+					stackSize--;
+					pc++;
+					break;
+				case Instruction.CHANGE_SIGN:
+					checkDouble(pc);
+					stackNumbers[stackSize - 1] = -stackNumbers[stackSize - 1];
+					pc++;
+					break;
+				case Instruction.SQUARE_ROOT:
+					checkDouble(pc);
+					stackNumbers[stackSize - 1] = Math.sqrt(stackNumbers[stackSize - 1]);
+					pc++;
+					break;
+				case Instruction.LESS_THAN:
+					checkDoubles(pc);
+					stackSize--;
+					setBoolean(stackSize - 1, stackNumbers[stackSize - 1] < stackNumbers[stackSize]);
+					pc++;
+					break;
+				case Instruction.EQUALS:
+					if(stackKinds[stackSize - 2] == NONE)
+						throw new ExpressionEvaluationException("Given operand evaluates to null", program.getSourceLocation(pc), program.getExpression(pc));
+					stackSize--;
+					setBoolean(stackSize - 1, isEqual(stackSize - 1, stackSize));
+					pc++;
+					break;
+				case Instruction.NOT:
+					if(stackKinds[stackSize - 1] != BOOLEAN)
+						throw new ExpressionEvaluationException("Given operand does not evaluate to BooleanLiteral", program.getSourceLocation(pc), program.getExpression(pc));
+					setBoolean(stackSize - 1, stackNumbers[stackSize - 1] == 0);
+					pc++;
+					break;
+				case Instruction.JUMP:
+					pc = code[pc + 1];
+					break;
+				case Instruction.JUMP_IF_FALSE:
+					if(stackKinds[stackSize - 1] != BOOLEAN)
+						throw new ExpressionEvaluationException("Given condition does not evaluate to BooleanLiteral", program.getSourceLocation(pc), program.getExpression(pc));
+					stackSize--;
+					pc = stackNumbers[stackSize] == 0 ? code[pc + 1] : pc + 2;
+					break;
+				case Instruction.YIELD:
+					pc++;
+					resume = pc;
+					if(!context.canExecuteAction()){
+						programCounter = pc;
+						return;
+					}
+					break;
+				case Instruction.ACTION:
+					context.decrementExecutionTime(program.getSourceLocation(pc));
+					pc++;
+					break;
+				case Instruction.THRUST_ON:
+					context.performAction(ActionType.THRUST_ON);
+					pc++;
+					break;
+				case Instruction.THRUST_OFF:
+					context.performAction(ActionType.THRUST_OFF);
+					pc++;
+					break;
+				case Instruction.FIRE_BULLET:
+					context.performAction(ActionType.FIRE_BULLET);
+					pc++;
+					break;
+				case Instruction.TURN:
+					turn(pc);
+					pc++;
+					break;
+				case Instruction.PRINT:
+					Type value = pop();
+					context.addToPrintLog(value, program.getSourceLocation(pc));
+					System.out.println(value.toString());
+					pc++;
+					break;
+				case Instruction.CALL:
+					pc = call(code[pc + 1], code[pc + 2], code[pc + 3] == 1, pc);
+					break;
+				case Instruction.RETURN:
+					pc = returnFromCall();
+					break;
+				case Instruction.BREAK:
+					if(nbFrames == 0 || !frameInLoop[nbFrames - 1])
+						throw new ProgramExecutionTimeException("No Interruptable to interrupt from.", program.getSourceLocation(pc));
+					breaking = true;
+					pc = returnFromCall();
+					push(NONE, 0, null);
+					break;
+				case Instruction.JUMP_IF_BREAKING:
+					if(!breaking)
+						pc += 2;
+					else if(code[pc + 1] >= 0){
+						breaking = false;
+						pc = code[pc + 1];
+					}else{
+						pc = returnFromCall();
+						push(NONE, 0, null);
+					}
+					break;
+				case Instruction.THROW:
+					throw new ProgramExecutionTimeException(program.messages[code[pc + 1]], program.getSourceLocation(pc));
+				case Instruction.END:
+					programCounter = 0;
+					executed = true;
+					return;
+				default:
+					throw new ProgramExecutionTimeException("Unknown instruction " + code[pc], program.getSourceLocation(pc));
+				}
+			}
+		}catch(RuntimeException e){
+			programCounter = resume;
+			stackSize = 0;
+			breaking = false;
+			nbFrames = 0;
+			localBase = 0;
+			localTop = 0;
+			throw e;
+		}
+	}
+
+	private void getProperty(int pc) throws ExpressionEvaluationException{
+		int top = stackSize - 1;
+		if(stackKinds[top] != ENTITY)
+			throw new ExpressionEvaluationException("Given operand does not evaluate to EntityLiteral", program.getSourceLocation(pc), program.getExpression(pc));
+		if(stackEntities[top] == null)
+			throw new ExpressionEvaluationException("Given operand evaluates to null", program.getSourceLocation(pc), program.getExpression(pc));
+		double result;
+		try{
+			result = program.extractors[code[pc + 1]].extractValue(stackEntities[top]);
+		}catch(Exception e){
+			throw new ExpressionEvaluationException("Exception during EntityDataExtractor evaluation.", program.getSourceLocation(pc), program.getExpression(pc));
+		}
+		stackEntities[top] = null;
+		stackKinds[top] = DOUBLE;
+		stackNumbers[top] = result;
+	}
+
+	private void turn(int pc) throws ProgramExecutionTimeException, ExpressionEvaluationException{
+		checkDouble(pc);
+		double angle = stackNumbers[--stackSize];
+		try{
+			context.turnExecutor(angle);
+		}catch(AssertionError e){
+			throw new ProgramExecutionTimeException("Turning with given angle: " + String.valueOf(angle) + " results in invalid ship orientation.",
+					program.getSourceLocation(pc));
+		}
+	}
+
+	private boolean isEqual(int first, int second){
+		if(stackKinds[first] != stackKinds[second])
+			return false;
+		if(stackKinds[first] == ENTITY)
+			return stackEntities[first] == stackEntities[second];
+		return Double.compare(stackNumbers[first], stackNumbers[second]) == 0;
+	}
+
+	private void checkDouble(int pc) throws ExpressionEvaluationException{
+		if(stackKinds[stackSize - 1] != DOUBLE)
+			throw new ExpressionEvaluationException("Given operand does not evaluate to DoubleLiteral", program.getSourceLocation(pc), program.getExpression(pc));
+	}
+
+	private void checkDoubles(int pc) throws ExpressionEvaluationException{
+		if(stackKinds[stackSize - 1] != DOUBLE || stackKinds[stackSize - 2] != DOUBLE)
+			throw new ExpressionEvaluationException("Given operands do not evaluate to DoubleLiteral", program.getSourceLocation(pc), program.getExpression(pc));
+	}
+
+	/**
+	 * Call the given function with the given number of arguments on top of the operand stack,
+	 * and return the position of its first instruction. While a function breaks from a loop,
+	 * a call has no value and does not execute the function, as in the interpreter.
+	 */
+	private int call(int function, int nbArguments, boolean inLoop, int pc) throws ProgramExecutionTimeException{
+		if(breaking){
+			stackSize -= nbArguments;
+			push(NONE, 0, null);
+			return pc + 4;
+		}
+		if(nbFrames == MAX_CALL_DEPTH)
+			throw new ProgramExecutionTimeException("Maximum call depth exceeded in function: " + program.getFunctionName(function), program.getSourceLocation(pc));
+		if(nbFrames == frameReturns.length){
+			frameReturns = Arrays.copyOf(frameReturns, 2 * nbFrames);
+			frameBases = Arrays.copyOf(frameBases, 2 * nbFrames);
+			frameInLoop = Arrays.copyOf(frameInLoop, 2 * nbFrames);
+		}
+		int base = localTop;
+		int nbLocals = program.getFunctionNbLocals(function);
+		ensureLocalCapacity(base + nbLocals);
+		Arrays.fill(localKinds, base, base + nbLocals, UNSET);
+		int firstArgument = stackSize - nbArguments;
+		for(int i = 0; i < nbArguments; i++){
+			int slot = program.getParameterSlot(function, i);
+			if(slot >= 0){
+				localKinds[base + slot] = stackKinds[firstArgument + i];
+				localNumbers[base + slot] = stackNumbers[firstArgument + i];
+				localEntities[base + slot] = stackEntities[firstArgument + i];
+			}
+		}
+		stackSize = firstArgument;
+		frameReturns[nbFrames] = pc + 4;
+		frameBases[nbFrames] = localBase;
+		frameInLoop[nbFrames] = inLoop || (nbFrames > 0 && frameInLoop[nbFrames - 1]);
+		nbFrames++;
+		localBase = base;
+		localTop = base + nbLocals;
+		return program.getFunctionEntry(function);
+	}
+
+	/**
+	 * Return from the current function, leaving its result on top of the operand stack,
+	 * and return the position of the instruction after its call.
+	 */
+	private int returnFromCall(){
+		nbFrames--;
+		Arrays.fill(localEntities, localBase, localTop, null);
+		localTop = localBase;
+		localBase = frameBases[nbFrames];
+		return frameReturns[nbFrames];
+	}
+
+	private void loadGlobal(int slot, int pc) throws ProgramExecutionTimeException{
+		if(globalKinds[slot] == UNSET)
+			throw new ProgramExecutionTimeException("No such variable: " + program.getGlobalName(slot), program.getSourceLocation(pc));
+		push(globalKinds[slot], globalNumbers[slot], globalEntities[slot]);
+	}
+
+	private void storeGlobal(int slot, int pc) throws ProgramExecutionTimeException{
+		int top = stackSize - 1;
+		if(globalKinds[slot] != UNSET && globalKinds[slot] != stackKinds[top])
+			throw new ProgramExecutionTimeException("The type of this variable is incompatible with given Type: " + String.valueOf(toType(top)),
+					program.getSourceLocation(pc));
+		globalKinds[slot] = stackKinds[top];
+		globalNumbers[slot] = stackNumbers[top];
+		globalEntities[slot] = stackEntities[top];
+		stackEntities[top] = null;
+		stackSize--;
+	}
+
+	private void loadLocal(int slot, int globalSlot, int pc) throws ProgramExecutionTimeException{
+		int local = localBase + slot;
+		if(localKinds[local] == UNSET)
+			loadGlobal(globalSlot, pc);
+		else
+			push(localKinds[local], localNumbers[local], localEntities[local]);
+	}
+
+	private void storeLocal(int slot){
+		int top = stackSize - 1;
+		int local = localBase + slot;
+		localKinds[local] = stackKinds[top];
+		localNumbers[local] = stackNumbers[top];
+		localEntities[local] = stackEntities[top];
+		stackEntities[top] = null;
+		stackSize--;
+	}
+
+	private void pushDouble(double value){
+		push(DOUBLE, value, null);
+	}
+
+	private void pushEntity(Entity value){
+		push(ENTITY, 0, value);
+	}
+
+	private void setBoolean(int index, boolean value){
+		stackKinds[index] = BOOLEAN;
+		stackNumbers[index] = value ? 1 : 0;
+		stackEntities[index] = null;
+	}
+
+	private void push(byte kind, double number, Entity entity){
+		if(stackSize == stackKinds.length){
+			stackKinds = Arrays.copyOf(stackKinds, 2 * stackSize);
+			stackNumbers = Arrays.copyOf(stackNumbers, 2 * stackSize);
+			stackEntities = Arrays.copyOf(stackEntities, 2 * stackSize);
+		}
+		stackKinds[stackSize] = kind;
+		stackNumbers[stackSize] = number;
+		stackEntities[stackSize] = entity;
+		stackSize++;
+	}
+
+	private void push(Type value, int pc) throws ExpressionEvaluationException{
+		if(value instanceof DoubleLiteral)
+			pushDouble(((DoubleLiteral) value).getValue());
+		else if(value instanceof BooleanLiteral){
+			push(BOOLEAN, 0, null);
+			setBoolean(stackSize - 1, ((BooleanLiteral) value).getValue());
+		}else if(value instanceof EntityLiteral)
+			pushEntity((Entity) value.getValue());
+		else
+			throw new ExpressionEvaluationException("Expression does not evaluate to a value", program.getSourceLocation(pc), program.getExpression(pc));
+	}
+
+	private Type pop(){
+		Type result = toType(stackSize - 1);
+		stackEntities[--stackSize] = null;
+		return result;
+	}
+
+	private Type toType(int index){
+		switch(stackKinds[index]){
+		case DOUBLE:
+			return new DoubleLiteral(stackNumbers[index]);
+		case BOOLEAN:
+			return new BooleanLiteral(stackNumbers[index] != 0);
+		case ENTITY:
+			return new EntityLiteral(stackEntities[index]);
+		default:
+			return null;
+		}
+	}
+
+	private void ensureLocalCapacity(int capacity){
+		if(capacity > localKinds.length){
+			int newLength = Math.max(capacity, 2 * localKinds.length);
+			localKinds = Arrays.copyOf(localKinds, newLength);
+			localNumbers = Arrays.copyOf(localNumbers, newLength);
+			localEntities = Arrays.copyOf(localEntities, newLength);
+		}
+	}
+
+	/**
+	 * Constants registering the kinds of the values held by a VirtualMachine. NONE is the
+	 * value of a call to a function that broke from a loop.
+	 */
+	private static final byte UNSET = 0, DOUBLE = 1, BOOLEAN = 2, ENTITY = 3, NONE = 4;
+
+	/**
+	 * Constant registering the maximum number of nested function calls.
+	 */
+	public static final int MAX_CALL_DEPTH = 10000;
+
+	private byte[] stackKinds = new byte[16];
+	private double[] stackNumbers = new double[16];
+	private Entity[] stackEntities = new Entity[16];
+	private int stackSize = 0;
+
+	private final byte[] globalKinds;
+	private final double[] globalNumbers;
+	private final Entity[] globalEntities;
+
+	private byte[] localKinds = new byte[16];
+	private double[] localNumbers = new double[16];
+	private Entity[] localEntities = new Entity[16];
+	private int localBase = 0;
+	private int localTop = 0;
+
+	private int[] frameReturns = new int[8];
+	private int[] frameBases = new int[8];
+	private boolean[] frameInLoop = new boolean[8];
+	private int nbFrames = 0;
+
+	/**
+	 * Variable registering whether a function broke from the loop of one of its callers, and
+	 * that loop has not been left yet.
+	 */
+	private boolean breaking = false;
+}
@@ -6,7 +6,11 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Before;
@@ -18,9 +22,15 @@ import asteroids.model.CollisionData;
 import asteroids.model.CollisionType;
 import asteroids.model.Entity;
 import asteroids.model.Planetoid;
+import asteroids.model.Program;
 import asteroids.model.Ship;
+import asteroids.model.SubStepPolicy;
 import asteroids.model.Vector2d;
 import asteroids.model.World;
+import asteroids.model.programs.ExecutionBackend;
+import asteroids.model.programs.OptimizationReport;
+import asteroids.model.programs.ProgramFactory;
+import asteroids.part3.programs.internal.ProgramParser;
 import asteroids.part3.facade.IFacade;
 import asteroids.facade.Facade;
 import asteroids.util.ModelException;
@@ -60,6 +70,32 @@ public class Part3ExtraTestSuite {
 		assertEquals(2, facade.getNbBulletsOnShip(ship));
 	}
 
+	@Test
+	public void testLoadBulletsOnShipAllOrNone() throws ModelException {
+		Ship ship = facade.createShip(100, 120, 10, 5, 500, 0, 1.0E20);
+		Bullet bullet1 = facade.createBullet(100, 120, 10, 5, 50);
+		Bullet bullet2 = facade.createBullet(130, 110, 10, 5, 30);
+		Bullet outside = facade.createBullet(2000, 10, 10, 5, 30);
+		boolean thrown = false;
+		try {
+			facade.loadBulletsOnShip(ship, Arrays.asList(bullet1, bullet2, bullet1));
+		} catch (ModelException exc) {
+			thrown = true;
+		}
+		assertTrue(thrown);
+		thrown = false;
+		try {
+			facade.loadBulletsOnShip(ship, Arrays.asList(bullet1, bullet2, outside));
+		} catch (ModelException exc) {
+			thrown = true;
+		}
+		assertTrue(thrown);
+		assertEquals(0, facade.getNbBulletsOnShip(ship));
+		assertNull(facade.getBulletShip(bullet1));
+		facade.loadBulletsOnShip(ship, Arrays.asList(bullet1, bullet2));
+		assertEquals(2, facade.getNbBulletsOnShip(ship));
+	}
+
 	@Test
 	public void testEvolveShipWithActiveThruster() throws ModelException {
 		World world = facade.createWorld(5000, 5000);
@@ -1171,4 +1207,605 @@ public class Part3ExtraTestSuite {
 		planetoid.setPosition(200, 200);
 		assertEquals(planetoid, world.getEntityAt(new Vector2d(200,200)));
 	}
+	
+	@Test
+	public void testGetEntityAtAfterEvolve() throws ModelException {
+		World world = facade.createWorld(5000, 5000);
+		Asteroid asteroid = facade.createAsteroid(500, 500, 100, 0, 20);
+		facade.addAsteroidToWorld(world, asteroid);
+		world.evolve(3);
+		assertEquals(asteroid, world.getEntityAt(asteroid.getPosition()));
+		assertNull(world.getEntityAt(new Vector2d(500, 500)));
+		facade.removeAsteroidFromWorld(world, asteroid);
+		assertNull(world.getEntityAt(asteroid.getPosition()));
+		assertTrue(!world.hasAsItem(asteroid));
+	}
+
+	@Test
+	public void testTypeViews() throws ModelException {
+		World world = facade.createWorld(5000, 5000);
+		Ship ship = facade.createShip(100, 100, 0, 0, 20, 0, 5E15);
+		Asteroid asteroid = facade.createAsteroid(500, 500, 0, 0, 20);
+		Planetoid planetoid = facade.createPlanetoid(1000, 1000, 0, 0, 30, 0);
+		facade.addShipToWorld(world, ship);
+		facade.addAsteroidToWorld(world, asteroid);
+		facade.addPlanetoidToWorld(world, planetoid);
+		assertEquals(3, world.getEntitiesView().size());
+		assertTrue(world.getShipsView().contains(ship));
+		assertEquals(2, world.getMinorPlanetsView().size());
+		assertTrue(world.getAsteroidsView().contains(asteroid));
+		assertTrue(!world.getPlanetoidsView().contains(asteroid));
+		facade.removeAsteroidFromWorld(world, asteroid);
+		assertTrue(!world.getAsteroidsView().contains(asteroid));
+		assertEquals(1, world.getMinorPlanetsView().size());
+		assertEquals(world.getPlanetoids(), new HashSet<Planetoid>(world.getPlanetoidsView()));
+	}
+	
+	@Test(expected = UnsupportedOperationException.class)
+	public void testTypeViewsReadOnly() throws ModelException {
+		World world = facade.createWorld(5000, 5000);
+		world.getShipsView().clear();
+	}
+
+	@Test
+	public void testGetNearestEntities() throws ModelException {
+		World world = facade.createWorld(5000, 5000);
+		Ship ship = facade.createShip(1000, 1000, 0, 0, 20, 0, 5E15);
+		Ship other = facade.createShip(4000, 4000, 0, 0, 20, 0, 5E15);
+		Asteroid near = facade.createAsteroid(1100, 1000, 0, 0, 20);
+		Asteroid large = facade.createAsteroid(1000, 1400, 0, 0, 350);
+		Asteroid far = facade.createAsteroid(3000, 3000, 0, 0, 20);
+		facade.addShipToWorld(world, ship);
+		facade.addShipToWorld(world, other);
+		facade.addAsteroidToWorld(world, near);
+		facade.addAsteroidToWorld(world, large);
+		facade.addAsteroidToWorld(world, far);
+		assertEquals(large, world.getNearestEntity(ship, Asteroid.class));
+		assertEquals(other, world.getNearestEntity(ship, Ship.class));
+		List<Asteroid> nearest = world.getNearestEntities(ship, Asteroid.class, 2);
+		assertEquals(2, nearest.size());
+		assertEquals(large, nearest.get(0));
+		assertEquals(near, nearest.get(1));
+		assertEquals(4, world.getNearestEntities(ship, Entity.class, 10).size());
+		assertNull(world.getNearestEntity(ship, Planetoid.class));
+	}
+
+	@Test
+	public void testStructOfArraysMatchesEntities() throws ModelException {
+		World world = facade.createWorld(5000, 5000);
+		world.setBroadPhaseEnabled(false);
+		for(int i = 0; i < 10; i++)
+			for(int j = 0; j < 10; j++)
+				new Asteroid(100 + 480 * i, 100 + 480 * j, ((i * 7 + j * 3) % 11) * 10 - 50, ((i * 5 + j * 13) % 9) * 10 - 40, 10 + (i + j) % 7, world);
+		world.setStructOfArraysEnabled(true);
+		Asteroid removed = world.getAsteroids().iterator().next();
+		facade.removeAsteroidFromWorld(world, removed);
+		facade.addAsteroidToWorld(world, facade.createAsteroid(2740, 2740, 30, 30, 15));
+		world.evolve(2.5);
+		CollisionData boundary = world.getNextBoundaryCollision();
+		CollisionData entity = world.getNextEntityCollision();
+		world.setBoundaryCacheEnabled(false);
+		assertEquals(boundary, world.getNextBoundaryCollision());
+		world.setStructOfArraysEnabled(false);
+		assertEquals(world.getNextBoundaryCollision(), boundary);
+		assertEquals(world.getNextEntityCollision(), entity);
+		world.setBoundaryCacheEnabled(true);
+		assertEquals(world.getNextBoundaryCollision(), boundary);
+	}
+
+	@Test
+	public void testStructOfArraysEvolvesLikeEntities() throws ModelException {
+		List<List<Entity>> runs = new ArrayList<List<Entity>>();
+		for (boolean structOfArrays : new boolean[] { false, true }) {
+			World world = facade.createWorld(2000, 2000);
+			world.setStructOfArraysEnabled(structOfArrays);
+			List<Entity> run = new ArrayList<Entity>();
+			for (int i = 0; i < 6; i++)
+				for (int j = 0; j < 6; j++)
+					run.add(new Asteroid(100 + 300 * i, 100 + 300 * j, ((i * 7 + j * 3) % 11) * 20 - 100, ((i * 5 + j * 13) % 9) * 25 - 100, 10 + (i + j) % 7, world));
+			run.add(new Planetoid(250, 250, 30, -20, 40, world, 0));
+			Ship ship = facade.createShip(1000, 250, 50, 20, 20, 0, 1.0E20);
+			facade.addShipToWorld(world, ship);
+			facade.setThrusterActive(ship, true);
+			run.add(ship);
+			for (int step = 0; step < 30; step++)
+				facade.evolve(world, 0.1, null);
+			runs.add(run);
+		}
+		for (int i = 0; i < runs.get(0).size(); i++) {
+			assertEquals(runs.get(0).get(i).getPosition().getX(), runs.get(1).get(i).getPosition().getX(), 0.0);
+			assertEquals(runs.get(0).get(i).getPosition().getY(), runs.get(1).get(i).getPosition().getY(), 0.0);
+		}
+	}
+
+	@Test
+	public void testParallelSearchMatchesSerial() throws ModelException {
+		World world = facade.createWorld(5000, 5000);
+		for(int i = 0; i < 12; i++)
+			for(int j = 0; j < 12; j++)
+				new Asteroid(100 + 90 * i, 100 + 90 * j, i % 2 == 0 ? 20 : -20, j % 2 == 0 ? 20 : -20, 10, world);
+		for(boolean broadPhase : new boolean[]{false, true}){
+			world.setBroadPhaseEnabled(broadPhase);
+			world.setParallelEnabled(false);
+			world.setBoundaryCacheEnabled(false);
+			CollisionData boundary = world.getNextBoundaryCollision();
+			CollisionData entity = world.getNextEntityCollision();
+			world.setParallelEnabled(true);
+			world.setParallelThreshold(1);
+			assertEquals(boundary, world.getNextBoundaryCollision());
+			world.setBoundaryCacheEnabled(true);
+			assertEquals(boundary, world.getNextBoundaryCollision());
+			assertEquals(entity, world.getNextEntityCollision());
+			assertEquals(entity.getColliders(), world.getNextEntityCollision().getColliders());
+			world.setParallelThreshold(Integer.MAX_VALUE);
+			assertEquals(entity, world.getNextEntityCollision());
+			assertEquals(entity.getColliders(), world.getNextEntityCollision().getColliders());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetParallelThresholdIllegal() throws ModelException {
+		World world = facade.createWorld(5000, 5000);
+		world.setParallelThreshold(0);
+	}
+
+	@Test
+	public void testBoundaryCacheFollowsCourseChanges() throws ModelException {
+		World world = facade.createWorld(1000, 1000);
+		Asteroid first = new Asteroid(500, 500, 10, 0, 20, world);
+		Asteroid second = new Asteroid(200, 200, 0, -2, 20, world);
+		assertEquals(first, world.getNextBoundaryCollision().getColliders().get(0));
+		second.move(80);
+		CollisionData cached = world.getNextBoundaryCollision();
+		assertEquals(second, cached.getColliders().get(0));
+		world.setBoundaryCacheEnabled(false);
+		assertEquals(world.getNextBoundaryCollision(), cached);
+		world.setBoundaryCacheEnabled(true);
+		world.getNextBoundaryCollision();
+		first.setVelocity(100, 0);
+		assertEquals(first, world.getNextBoundaryCollision().getColliders().get(0));
+		facade.evolve(world, 1, null);
+		assertEquals(first.getBoundaryCollisionData(), world.getNextBoundaryCollision());
+	}
+
+	@Test
+	public void testBroadPhaseMatchesExhaustiveSearch() throws ModelException {
+		World world = facade.createWorld(5000, 5000);
+		for(int i = 0; i < 20; i++)
+			for(int j = 0; j < 20; j++)
+				new Asteroid(100 + 240 * i, 100 + 240 * j, ((i * 7 + j * 3) % 11) - 5, ((i * 5 + j * 13) % 9) - 4, 10 + (i + j) % 7, world);
+		world.setBroadPhaseEnabled(true);
+		CollisionData broadPhase = world.getNextEntityCollision();
+		world.setBroadPhaseEnabled(false);
+		CollisionData exhaustive = world.getNextEntityCollision();
+		assertEquals(CollisionType.INTER_ENTITY, broadPhase.getCollisionType());
+		assertEquals(exhaustive.getTimeToCollision(), broadPhase.getTimeToCollision(), EPSILON);
+	}
+
+	@Test
+	public void testCollisionQueueMatchesFullRecompute() throws ModelException {
+		World queued = facade.createWorld(2000, 2000);
+		World recomputed = facade.createWorld(2000, 2000);
+		recomputed.setCollisionQueueEnabled(false);
+		List<Asteroid> queuedAsteroids = new ArrayList<Asteroid>();
+		List<Asteroid> recomputedAsteroids = new ArrayList<Asteroid>();
+		for(int i = 0; i < 8; i++)
+			for(int j = 0; j < 8; j++){
+				double xVelocity = ((i * 7 + j * 3) % 11) * 20 - 100, yVelocity = ((i * 5 + j * 13) % 9) * 25 - 100;
+				queuedAsteroids.add(new Asteroid(100 + 240 * i, 100 + 240 * j, xVelocity, yVelocity, 10 + (i + j) % 7, queued));
+				recomputedAsteroids.add(new Asteroid(100 + 240 * i, 100 + 240 * j, xVelocity, yVelocity, 10 + (i + j) % 7, recomputed));
+			}
+		for(int step = 0; step < 50; step++){
+			queued.evolve(0.1);
+			recomputed.evolve(0.1);
+		}
+		for(int i = 0; i < queuedAsteroids.size(); i++){
+			assertEquals(recomputedAsteroids.get(i).getPosition().getX(), queuedAsteroids.get(i).getPosition().getX(), EPSILON);
+			assertEquals(recomputedAsteroids.get(i).getPosition().getY(), queuedAsteroids.get(i).getPosition().getY(), EPSILON);
+		}
+	}
+
+	@Test
+	public void testEvolveCollisionCap() throws ModelException {
+		World world = facade.createWorld(100, 100);
+		Asteroid asteroid = new Asteroid(50, 50, 1000, 0, 10, world);
+		world.evolve(0.25);
+		assertEquals(4, world.getNbSubSteps());
+		assertEquals(0.0, world.getDeferredTime(), EPSILON);
+		world.setMaxCollisionsPerStep(1);
+		world.setSubStepPolicy(SubStepPolicy.DEFER);
+		world.evolve(0.2);
+		assertEquals(1, world.getNbSubSteps());
+		assertTrue(world.getDeferredTime() > 0.0);
+		world.setSubStepPolicy(SubStepPolicy.CLAMP);
+		world.evolve(0.0);
+		assertEquals(0.0, world.getDeferredTime(), EPSILON);
+		assertTrue(world.isInBounds(asteroid.getPosition(), asteroid.getRadius()));
+	}
+	
+	@Test
+	public void testEvolveDeferredTimeBounded() throws ModelException {
+		World world = facade.createWorld(100, 100);
+		Asteroid asteroid = new Asteroid(50, 50, 1000, 0, 10, world);
+		world.setMaxCollisionsPerStep(1);
+		world.setSubStepPolicy(SubStepPolicy.DEFER);
+		for(int i = 0; i < 20; i++){
+			world.evolve(0.2);
+			assertTrue(world.getDeferredTime() <= 0.2);
+		}
+		assertTrue(world.getDeferredTime() > 0.0);
+		assertTrue(world.isInBounds(asteroid.getPosition(), asteroid.getRadius()));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetMaxCollisionsPerStepIllegal() throws ModelException {
+		facade.createWorld(100, 100).setMaxCollisionsPerStep(0);
+	}
+
+	@Test
+	public void testCompiledProgramMatchesInterpreter() throws ModelException {
+		String code = "def twice { x := $1; return x + x; } i := 0.0; "
+				+ "while i < 6.0 { print twice(i); turn 0.1; if i < 3.0 { skip; } else { fire; } i := i + 1.0; } print getdir;";
+		World world = facade.createWorld(1000, 1000);
+		Ship interpreted = facade.createShip(100, 100, 0, 0, 20, 0, 1.0E20);
+		Ship compiled = facade.createShip(500, 500, 0, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, interpreted);
+		facade.addShipToWorld(world, compiled);
+		facade.loadProgramOnShip(interpreted, ProgramParser.parseProgramFromString(code, new ProgramFactory()));
+		Program program = ProgramParser.parseProgramFromString(code, new ProgramFactory());
+		program.setBackend(ExecutionBackend.COMPILED);
+		facade.loadProgramOnShip(compiled, program);
+		for(int step = 0; step < 12; step++){
+			assertEquals(facade.executeProgram(interpreted, 0.3), facade.executeProgram(compiled, 0.3));
+			assertEquals(interpreted.getOrientation(), compiled.getOrientation(), EPSILON);
+			assertEquals(interpreted.getBullets().size(), compiled.getBullets().size());
+		}
+	}
+
+	@Test(expected = ModelException.class)
+	public void testAssignmentImproperTypeThroughFunction() throws ModelException {
+		String code = "def f { return self; } x := 1.0; print x; x := f();";
+		Program program = ProgramParser.parseProgramFromString(code, new ProgramFactory());
+		assertEquals(0, program.getGlobals().getSlot("x"));
+		assertTrue(!program.getGlobals().isTypeChecked(0));
+		World world = facade.createWorld(1000, 1000);
+		Ship ship = facade.createShip(100, 100, 0, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, ship);
+		facade.loadProgramOnShip(ship, program);
+		facade.executeProgram(ship, 1.0);
+	}
+
+	@Test
+	public void testFunctionFramesReusedAcrossCalls() throws ModelException {
+		String code = "def add { return $1 + $2; } "
+				+ "def fib { if $1 < 2.0 { return $1; } return add(fib($1 + -1.0), fib($1 + -2.0)); } "
+				+ "print add(add(1.0, 2.0), add(3.0, 4.0)); print fib(10.0); print fib(3.0);";
+		World world = facade.createWorld(1000, 1000);
+		Ship ship = facade.createShip(100, 100, 0, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, ship);
+		facade.loadProgramOnShip(ship, ProgramParser.parseProgramFromString(code, new ProgramFactory()));
+		List<Object> results = facade.executeProgram(ship, 1.0);
+		assertEquals(3, results.size());
+		assertEquals(10.0, (double) results.get(0), EPSILON);
+		assertEquals(55.0, (double) results.get(1), EPSILON);
+		assertEquals(2.0, (double) results.get(2), EPSILON);
+	}
+
+	@Test
+	public void testPrimitiveEvaluation() throws ModelException {
+		String code = "x := 3.0; print x * x + -1.0 < 8.5; print ! (sqrt (x * x) == 3.0); print (x == 3.0) == (1.0 < 2.0); "
+				+ "print 2.0 == self; print self == self; print getdir == getdir;";
+		World world = facade.createWorld(1000, 1000);
+		Ship ship = facade.createShip(100, 100, 0, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, ship);
+		facade.loadProgramOnShip(ship, ProgramParser.parseProgramFromString(code, new ProgramFactory()));
+		List<Object> results = facade.executeProgram(ship, 1.0);
+		assertEquals(Arrays.asList(true, false, true, false, true, true), results);
+	}
+
+	@Test(expected = ModelException.class)
+	public void testPrimitiveEvaluationImproperOperand() throws ModelException {
+		String code = "x := self; print 1.0 + x;";
+		World world = facade.createWorld(1000, 1000);
+		Ship ship = facade.createShip(100, 100, 0, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, ship);
+		facade.loadProgramOnShip(ship, ProgramParser.parseProgramFromString(code, new ProgramFactory()));
+		facade.executeProgram(ship, 1.0);
+	}
+
+	@Test
+	public void testOptimizedProgram() throws ModelException {
+		String code = "x := 2.0 * 3.0 + 1.0; if 1.0 < 2.0 { print x; } else { print 0.0; } while 2.0 < 1.0 { print 1.0; } "
+				+ "i := 0.0; while ! (1.0 == 2.0) { i := i + x; if 20.0 < i { print i; break; } }";
+		Program program = ProgramParser.parseProgramFromString(code, new ProgramFactory());
+		OptimizationReport report = program.getOptimizationReport();
+		assertEquals(4, report.getNbFoldedExpressions());
+		assertEquals(2, report.getNbRemovedBranches());
+		assertEquals(1, report.getNbUnconditionalLoops());
+		assertEquals(7, report.getSimplifications().size());
+		World world = facade.createWorld(1000, 1000);
+		Ship ship = facade.createShip(100, 100, 0, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, ship);
+		facade.loadProgramOnShip(ship, program);
+		assertEquals(Arrays.asList(8.0, 24.0), facade.executeProgram(ship, 1.0));
+	}
+
+	@Test(expected = ModelException.class)
+	public void testOptimizedProgramImproperConstantOperand() throws ModelException {
+		String code = "print 1.0 < (2.0 == 2.0);";
+		Program program = ProgramParser.parseProgramFromString(code, new ProgramFactory());
+		assertEquals(1, program.getOptimizationReport().getNbFoldedExpressions());
+		World world = facade.createWorld(1000, 1000);
+		Ship ship = facade.createShip(100, 100, 0, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, ship);
+		facade.loadProgramOnShip(ship, program);
+		facade.executeProgram(ship, 1.0);
+	}
+
+	@Test
+	public void testParallelProgramsMatchSequential() throws ModelException {
+		String code = "turn 0.5; if 0.4 < getdir { turn 1.0; } fire; thrust; fire;";
+		World sequential = facade.createWorld(1000, 1000);
+		World parallel = facade.createWorld(1000, 1000);
+		parallel.setParallelProgramsEnabled(true);
+		assertTrue(parallel.isParallelProgramsEnabled());
+		Ship[] ships = new Ship[6];
+		for (int i = 0; i < ships.length; i++) {
+			World world = i % 2 == 0 ? sequential : parallel;
+			ships[i] = facade.createShip(200 + 300 * (i / 2), 500, 0, 0, 20, 0, 1.0E20);
+			facade.addShipToWorld(world, ships[i]);
+			for (int j = 0; j < 3; j++)
+				facade.loadBulletOnShip(ships[i], facade.createBullet(200 + 300 * (i / 2), 500, 0, 0, 2));
+			facade.loadProgramOnShip(ships[i], ProgramParser.parseProgramFromString(code, new ProgramFactory()));
+		}
+		facade.evolve(sequential, 1.0, null);
+		facade.evolve(parallel, 1.0, null);
+		for (int i = 0; i < ships.length; i += 2) {
+			assertEquals(1.5, facade.getShipOrientation(ships[i]), EPSILON);
+			assertEquals(facade.getShipOrientation(ships[i]), facade.getShipOrientation(ships[i + 1]), EPSILON);
+			assertEquals(facade.getNbBulletsOnShip(ships[i]), facade.getNbBulletsOnShip(ships[i + 1]));
+			assertEquals(facade.isShipThrusterActive(ships[i]), facade.isShipThrusterActive(ships[i + 1]));
+		}
+		assertEquals(facade.getWorldBullets(sequential).size(), facade.getWorldBullets(parallel).size());
+	}
+
+	@Test
+	public void testThreadedProgramMatchesInterpreter() throws ModelException {
+		String code = "a := 0.0; while a < 3.0 { a := a + 1.0; turn 0.1; print a; skip; } print getdir;";
+		World world = facade.createWorld(1000, 1000);
+		Ship interpreted = facade.createShip(100, 100, 0, 0, 20, 0, 1.0E20);
+		Ship threaded = facade.createShip(500, 500, 0, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, interpreted);
+		facade.addShipToWorld(world, threaded);
+		facade.loadProgramOnShip(interpreted, ProgramParser.parseProgramFromString(code, new ProgramFactory()));
+		Program program = ProgramParser.parseProgramFromString(code, new ProgramFactory());
+		program.setBackend(ExecutionBackend.THREADED);
+		facade.loadProgramOnShip(threaded, program);
+		List<Object> log = null;
+		for (double dt : new double[] { 0.1, 0.25, 0.05, 0.3, 0.15, 0.45, 1.0 }) {
+			List<Object> expected = facade.executeProgram(interpreted, dt);
+			assertEquals(expected, facade.executeProgram(threaded, dt));
+			assertEquals(facade.getShipOrientation(interpreted), facade.getShipOrientation(threaded), EPSILON);
+			if (log == null)
+				log = expected;
+		}
+		assertEquals(Arrays.asList(1.0, 2.0, 3.0), log.subList(0, 3));
+		assertEquals(0.3, (double) log.get(3), EPSILON);
+		facade.terminateShip(threaded);
+	}
+
+	@Test
+	public void testThreadedProgramStoppedWhenShipLeavesWorld() throws ModelException, InterruptedException {
+		World world = facade.createWorld(1000, 1000);
+		Ship ship = facade.createShip(100, 100, 0, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, ship);
+		Program program = ProgramParser.parseProgramFromString("while 0.0 < 1.0 { turn 0.1; }", new ProgramFactory());
+		program.setBackend(ExecutionBackend.THREADED);
+		facade.loadProgramOnShip(ship, program);
+		Set<Thread> before = new HashSet<Thread>(Thread.getAllStackTraces().keySet());
+		facade.executeProgram(ship, 0.5);
+		Set<Thread> started = new HashSet<Thread>(Thread.getAllStackTraces().keySet());
+		started.removeAll(before);
+		assertEquals(1, started.size());
+		Thread thread = started.iterator().next();
+		assertTrue(thread.isAlive());
+		facade.removeShipFromWorld(world, ship);
+		thread.join(5000);
+		assertTrue(!thread.isAlive());
+	}
+
+	@Test
+	public void testFunctionLeftFromNestedLoops() throws ModelException {
+		String code = "def f { i := 0.0; while i < 3.0 { while 1.0 < 2.0 { if 1.0 < i { return i; } break; } i := i + 1.0; } return 0.0; } "
+				+ "a := 0.0; while a < 2.0 { print f(); a := a + 1.0; } turn 0.1; print getdir;";
+		World world = facade.createWorld(1000, 1000);
+		Ship ship = facade.createShip(100, 100, 0, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, ship);
+		facade.loadProgramOnShip(ship, ProgramParser.parseProgramFromString(code, new ProgramFactory()));
+		List<Object> results = facade.executeProgram(ship, 1.0);
+		assertEquals(3, results.size());
+		assertEquals(2.0, (double) results.get(0), EPSILON);
+		assertEquals(2.0, (double) results.get(1), EPSILON);
+		assertEquals(0.1, (double) results.get(2), EPSILON);
+	}
+
+	@Test
+	public void testAnyEntityOtherThan() throws ModelException {
+		World world = facade.createWorld(1000, 1000);
+		assertNull(world.getAnyEntityOtherThan(null));
+		Ship ship = facade.createShip(100, 100, 0, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, ship);
+		assertEquals(ship, world.getAnyEntityOtherThan(ship));
+		Asteroid asteroid = facade.createAsteroid(500, 500, 0, 0, 20);
+		facade.addAsteroidToWorld(world, asteroid);
+		assertEquals(asteroid, world.getAnyEntityOtherThan(ship));
+		assertEquals(ship, world.getAnyEntityOtherThan(asteroid));
+		facade.loadProgramOnShip(ship, ProgramParser.parseProgramFromString("print any; print any == any;", new ProgramFactory()));
+		assertEquals(Arrays.asList(asteroid, true), facade.executeProgram(ship, 1.0));
+	}
+
+	@Test
+	public void testEntitySetsSharedUntilMembershipChanges() throws ModelException {
+		World world = facade.createWorld(1000, 1000);
+		Ship ship = facade.createShip(100, 100, 10, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, ship);
+		Set<Entity> entities = world.getAllEntities();
+		Set<Ship> ships = world.getShips();
+		facade.evolve(world, 0.5, null);
+		assertTrue(entities == world.getAllEntities());
+		assertTrue(ships == world.getShips());
+		Asteroid asteroid = facade.createAsteroid(500, 500, 0, 0, 20);
+		facade.addAsteroidToWorld(world, asteroid);
+		assertTrue(ships == world.getShips());
+		assertEquals(1, entities.size());
+		assertEquals(new HashSet<Entity>(Arrays.asList(ship, asteroid)), world.getAllEntities());
+		facade.removeShipFromWorld(world, ship);
+		assertEquals(1, ships.size());
+		assertTrue(world.getShips().isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testEntitySetsUnmodifiable() throws ModelException {
+		World world = facade.createWorld(1000, 1000);
+		world.getAsteroids().add(facade.createAsteroid(500, 500, 0, 0, 20));
+	}
+
+	@Test
+	public void testOverlapQueriesMatchExhaustiveSearch() throws ModelException {
+		World world = facade.createWorld(4000, 4000);
+		for (int i = 0; i < 25; i++)
+			for (int j = 0; j < 25; j++)
+				new Asteroid(60 + 115 * i, 60 + 115 * j, 0, 0, 10 + (i * 7 + j * 3) % 40, world);
+		Planetoid large = new Planetoid(3600, 3600, 0, 0, 45, world, 0);
+		large.setRadius(300);
+		for (int k = 0; k < 200; k++) {
+			Vector2d position = new Vector2d((k * 769) % 4000, (k * 431) % 4000);
+			double radius = 5 + (k * 17) % 300;
+			List<Entity> expected = new ArrayList<Entity>();
+			for (Entity entity : world.getEntitiesView())
+				if (entity.overlapsCircle(position, radius))
+					expected.add(entity);
+			List<Entity> found = world.overlapsWithAnyEntity(position, radius);
+			assertEquals(new HashSet<Entity>(expected), new HashSet<Entity>(found));
+			assertEquals(expected.size(), found.size());
+		}
+		Asteroid probe = new Asteroid(3400, 3400, 0, 0, 30);
+		assertEquals(Arrays.asList(large), world.overlapsWithAnyEntity(probe));
+		assertTrue(!world.canHaveAsItem(probe));
+		assertTrue(world.hasProperItems());
+	}
+
+	@Test
+	public void testAddEntitiesToWorld() throws ModelException {
+		World world = facade.createWorld(5000, 5000);
+		List<Entity> batch = new ArrayList<Entity>();
+		for (int i = 0; i < 40; i++)
+			for (int j = 0; j < 40; j++)
+				batch.add(facade.createAsteroid(60 + 120 * i, 60 + 120 * j, 0, 0, 10 + (i + j) % 40));
+		batch.add(facade.createShip(4900, 4900, 0, 0, 50, 0, 1.0E20));
+		((Facade) facade).addEntitiesToWorld(world, batch);
+		assertEquals(batch.size(), world.getNbItems());
+		assertEquals(1600, world.getAsteroids().size());
+		assertEquals(1, world.getShips().size());
+		assertTrue(world.hasProperItems());
+		for (Entity entity : batch)
+			assertTrue(entity.getContainer() == world);
+	}
+
+	@Test
+	public void testAddEntitiesToWorldRejectedAsUnit() throws ModelException {
+		World world = facade.createWorld(1000, 1000);
+		Asteroid existing = facade.createAsteroid(500, 500, 0, 0, 20);
+		facade.addAsteroidToWorld(world, existing);
+		Asteroid first = facade.createAsteroid(100, 100, 0, 0, 20);
+		Asteroid second = facade.createAsteroid(130, 100, 0, 0, 20);
+		Asteroid third = facade.createAsteroid(300, 300, 0, 0, 20);
+		for (List<Asteroid> batch : Arrays.asList(Arrays.asList(third, first, second),
+				Arrays.asList(first, third, facade.createAsteroid(510, 500, 0, 0, 5)), Arrays.asList(first, third, first))) {
+			boolean added = true;
+			try {
+				((Facade) facade).addEntitiesToWorld(world, batch);
+			} catch (ModelException exc) {
+				added = false;
+			}
+			assertTrue(!added);
+			assertEquals(1, world.getNbItems());
+			for (Asteroid asteroid : batch)
+				assertNull(asteroid.getContainer());
+		}
+		assertTrue(world.canHaveAsItem(first));
+	}
+
+	@Test
+	public void testFixedTimeStep() throws ModelException {
+		World world = facade.createWorld(10000, 10000);
+		Ship ship = facade.createShip(100, 100, 10, 0, 20, 0, 1.0E20);
+		facade.addShipToWorld(world, ship);
+		world.setFixedTimeStep(0.125);
+		facade.evolve(world, 0.3, null);
+		assertEquals(0.25, world.getSimulationTime(), EPSILON);
+		assertEquals(0.05, world.getAccumulatedTime(), EPSILON);
+		assertEquals(0.4, world.getInterpolationAlpha(), EPSILON);
+		assertEqualsVector(new Vector2d(102.5, 100), ship.getPosition(), EPSILON);
+		assertEqualsVector(new Vector2d(103.0, 100), world.getInterpolatedPosition(ship), EPSILON);
+		world.setMaxStepsPerEvolve(4);
+		facade.evolve(world, 10.0, null);
+		assertEquals(0.75, world.getSimulationTime(), EPSILON);
+		assertTrue(world.getAccumulatedTime() < 0.125);
+		world.setFixedTimeStep(0.0);
+		facade.evolve(world, 0.3, null);
+		assertEquals(1.05, world.getSimulationTime(), EPSILON);
+		assertEquals(0.0, world.getInterpolationAlpha(), EPSILON);
+	}
+
+	@Test
+	public void testFixedTimeStepFoldsDeferredTime() throws ModelException {
+		World world = facade.createWorld(100, 100);
+		Asteroid asteroid = new Asteroid(50, 50, 1000, 0, 10, world);
+		world.setMaxCollisionsPerStep(1);
+		world.setSubStepPolicy(SubStepPolicy.DEFER);
+		world.setFixedTimeStep(0.125);
+		for (int i = 1; i <= 10; i++) {
+			facade.evolve(world, 0.125, null);
+			assertEquals(0.0, world.getDeferredTime(), 0.0);
+			assertTrue(world.getSimulationTime() + world.getAccumulatedTime() <= 0.125 * i + EPSILON);
+		}
+		assertTrue(world.getSimulationTime() > 0.0);
+		assertTrue(world.isInBounds(asteroid.getPosition(), asteroid.getRadius()));
+	}
+
+	@Test
+	public void testFixedTimeStepRunsReproducible() throws ModelException {
+		double[][] timeDeltas = { { 0.25, 0.5, 0.125, 0.375, 0.75 }, { 0.375, 0.375, 0.5, 0.25, 0.5 } };
+		List<List<Vector2d>> positions = new ArrayList<List<Vector2d>>();
+		int[] nbAsteroids = new int[2];
+		for (int run = 0; run < 2; run++) {
+			World world = facade.createWorld(1000, 1000);
+			world.setFixedTimeStep(0.125);
+			world.setRandomSeed(42L);
+			Ship ship = facade.createShip(300, 500, 100, 0, 20, 0, 1.0E20);
+			facade.addShipToWorld(world, ship);
+			facade.addPlanetoidToWorld(world, facade.createPlanetoid(500, 500, 0, 0, 50, 0));
+			Planetoid shrinking = facade.createPlanetoid(800, 200, 0, 0, 40, 0);
+			facade.addPlanetoidToWorld(world, shrinking);
+			for (double dt : timeDeltas[run])
+				facade.evolve(world, dt, null);
+			facade.terminatePlanetoid(shrinking);
+			assertEquals(2.0, world.getSimulationTime(), EPSILON);
+			assertTrue(!ship.isTerminated());
+			nbAsteroids[run] = world.getAsteroids().size();
+			List<Vector2d> runPositions = new ArrayList<Vector2d>();
+			for (Asteroid asteroid : world.getAsteroids())
+				runPositions.add(asteroid.getPosition());
+			runPositions.sort(Comparator.comparingDouble(Vector2d::getX).thenComparingDouble(Vector2d::getY));
+			runPositions.add(0, ship.getPosition());
+			positions.add(runPositions);
+		}
+		assertEquals(2, nbAsteroids[0]);
+		assertEquals(nbAsteroids[0], nbAsteroids[1]);
+		for (int i = 0; i < positions.get(0).size(); i++) {
+			assertEquals(positions.get(0).get(i).getX(), positions.get(1).get(i).getX(), 0.0);
+			assertEquals(positions.get(0).get(i).getY(), positions.get(1).get(i).getY(), 0.0);
+		}
+	}
 }